@@ -13,11 +13,18 @@ CREATE TABLE auth_users (
     last_login TIMESTAMP NULL,
     failed_attempts INT DEFAULT 0,
     lockout_until TIMESTAMP NULL,
+    -- Login looks users up by this column so the comparison can use an index; existing
+    -- databases can add it with:
+    --   ALTER TABLE auth_users
+    --       ADD COLUMN username_normalized VARCHAR(100) COLLATE utf8mb4_bin
+    --           GENERATED ALWAYS AS (LOWER(username)) STORED NOT NULL,
+    --       ADD UNIQUE INDEX uq_username_normalized (username_normalized);
+    username_normalized VARCHAR(100) COLLATE utf8mb4_bin GENERATED ALWAYS AS (LOWER(username)) STORED NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
 
-    INDEX idx_username (username),
-    INDEX idx_role (role),
+    UNIQUE INDEX uq_username_normalized (username_normalized),
+    INDEX idx_role_username (role, username),
     INDEX idx_active (active)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -84,6 +91,13 @@ CREATE TABLE sections (
     end_time TIME NOT NULL,
     room VARCHAR(50) NOT NULL,
     capacity INT NOT NULL,
+    -- Enrollment claims seats against this counter instead of counting rows; existing
+    -- databases can add and backfill it with:
+    --   ALTER TABLE sections ADD COLUMN seats_taken INT NOT NULL DEFAULT 0 AFTER capacity;
+    --   UPDATE sections s
+    --       SET seats_taken = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id);
+    --   ALTER TABLE sections ADD CONSTRAINT chk_seats_taken CHECK (seats_taken >= 0);
+    seats_taken INT NOT NULL DEFAULT 0,
     semester INT NOT NULL,
     academic_year INT NOT NULL,
     registration_deadline DATE NOT NULL,
@@ -101,6 +115,7 @@ CREATE TABLE sections (
     INDEX idx_deadline (registration_deadline),
 
     CONSTRAINT chk_capacity CHECK (capacity > 0),
+    CONSTRAINT chk_seats_taken CHECK (seats_taken >= 0),
     CONSTRAINT chk_semester CHECK (semester IN (1, 2)),
     CONSTRAINT chk_time CHECK (start_time < end_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -179,6 +194,9 @@ INSERT INTO enrollments (enrollment_id, student_id, section_id, status) VALUES
 ('ENR-002', 'USR-STU-002', 'SEC-OS-001', 'ACTIVE'),
 ('ENR-003', 'USR-STU-001', 'SEC-HI-001', 'ACTIVE');
 
+UPDATE sections s
+SET s.seats_taken = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id);
+
 INSERT INTO grade_books (enrollment_id, final_grade) VALUES
 ('ENR-001', NULL),
 ('ENR-002', NULL),
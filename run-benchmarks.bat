@@ -0,0 +1,29 @@
+@echo off
+setlocal enabledelayedexpansion
+
+REM Runs the JMH benchmarks in src\jmh\java. Extra arguments go to JMH, e.g.
+REM   run-benchmarks.bat StudentServiceBenchmark -p enrollments=1000,100000
+REM JMH jars are kept in lib\jmh so they stay off the application classpath.
+
+if not exist lib\jmh (
+    echo JMH jars not found. Place them in lib\jmh\ as described in lib\README.txt.
+    exit /b 1
+)
+
+call build.bat
+
+if exist out\jmh-classes rmdir /s /q out\jmh-classes
+mkdir out\jmh-classes
+
+set CLASSPATH=out\classes
+for %%f in (lib\*.jar) do set CLASSPATH=!CLASSPATH!;%%f
+for %%f in (lib\jmh\*.jar) do set CLASSPATH=!CLASSPATH!;%%f
+
+if exist sources-jmh.txt del sources-jmh.txt
+for /r src\jmh\java %%f in (*.java) do echo %%f>>sources-jmh.txt
+
+REM jmh-generator-annprocess on the classpath generates the benchmark stubs during javac
+javac -d out\jmh-classes -classpath "%CLASSPATH%" @sources-jmh.txt
+del sources-jmh.txt
+
+java -cp "out\jmh-classes;%CLASSPATH%" org.openjdk.jmh.Main %*
@@ -11,6 +11,9 @@ set "ERP_DATA_DB_URL=jdbc:mysql://localhost:3306/erp_data?useSSL=false&allowPubl
 set "ERP_DATA_DB_USER=root"
 set "ERP_DATA_DB_PASSWORD=rijul"
 set "ERP_DB_POOL_SIZE=8"
+set "ERP_CACHE_ENABLED=true"
+set "ERP_CACHE_MAX_ENTRIES=1000"
+set "ERP_CACHE_TTL_SECONDS=60"
 
 echo Database configuration loaded.
 echo Auth DB: "%ERP_AUTH_DB_URL%"
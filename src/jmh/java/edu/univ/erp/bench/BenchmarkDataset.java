@@ -0,0 +1,104 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.enrollment.EnrollmentStatus;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.student.Student;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Deterministic in-memory dataset sized by enrollment count. Every student takes
+ * {@link #COURSES_PER_STUDENT} sections, sections hold about {@link #SECTION_SIZE} students and
+ * keep as many seats free again for registration benchmarks, and every enrollment is graded.
+ */
+final class BenchmarkDataset {
+
+    static final int COURSES_PER_STUDENT = 5;
+    static final int SECTION_SIZE = 50;
+
+    final InMemoryDataStore store;
+    final int studentCount;
+    final int sectionCount;
+
+    private BenchmarkDataset(InMemoryDataStore store, int studentCount, int sectionCount) {
+        this.store = store;
+        this.studentCount = studentCount;
+        this.sectionCount = sectionCount;
+    }
+
+    static BenchmarkDataset build(int enrollmentCount) {
+        int studentCount = Math.max(1, enrollmentCount / COURSES_PER_STUDENT);
+        // At least one section more than a student takes, so each student has one left to join.
+        int sectionCount = Math.max(COURSES_PER_STUDENT + 1, enrollmentCount / SECTION_SIZE);
+        int courseCount = Math.max(1, sectionCount / 4);
+        int instructorCount = Math.max(1, sectionCount / 8);
+        InMemoryDataStore store = InMemoryDataStore.empty();
+        LocalDate deadline = LocalDate.now().plusYears(1);
+
+        for (int i = 0; i < instructorCount; i++) {
+            store.putInstructor(new Instructor(instructorId(i), "Computer Science", "Professor"));
+        }
+        for (int i = 0; i < courseCount; i++) {
+            store.putCourse(new Course("course-" + i, String.format("CS%05d", i), "Course " + i, 4));
+        }
+        for (int i = 0; i < sectionCount; i++) {
+            store.putSection(new Section(
+                    sectionId(i),
+                    "course-" + (i % courseCount),
+                    instructorId(i % instructorCount),
+                    DayOfWeek.of(1 + i % 5),
+                    LocalTime.of(8 + i % 9, 0),
+                    LocalTime.of(9 + i % 9, 30),
+                    "LT" + (100 + i % 50),
+                    SECTION_SIZE * 2,
+                    1,
+                    2025,
+                    deadline,
+                    "20,30,50",
+                    "Quiz,Midsem,Endsem"));
+        }
+        for (int i = 0; i < studentCount; i++) {
+            store.putStudent(new Student(studentId(i), String.format("R%07d", i), "B.Tech CS", 1 + i % 4));
+        }
+        for (int e = 0; e < studentCount * COURSES_PER_STUDENT; e++) {
+            String enrollmentId = "enroll-" + e;
+            store.putEnrollment(new Enrollment(
+                    enrollmentId,
+                    studentId(e / COURSES_PER_STUDENT),
+                    sectionId(e % sectionCount),
+                    EnrollmentStatus.ACTIVE));
+            double base = 40 + e % 60;
+            store.putGradeBook(new GradeBook(enrollmentId, List.of(
+                    new GradeComponent("Quiz", base, 0.2),
+                    new GradeComponent("Midsem", Math.min(100, base + 5), 0.3),
+                    new GradeComponent("Endsem", Math.max(0, base - 5), 0.5)), null));
+        }
+        return new BenchmarkDataset(store, studentCount, sectionCount);
+    }
+
+    /** A section the given student is not enrolled in. */
+    String freeSectionFor(int student) {
+        return sectionId((student * COURSES_PER_STUDENT + COURSES_PER_STUDENT) % sectionCount);
+    }
+
+    static String studentId(int index) {
+        return "student-" + index;
+    }
+
+    static String sectionId(int index) {
+        return "section-" + index;
+    }
+
+    static String instructorId(int index) {
+        return "instructor-" + index;
+    }
+}
@@ -0,0 +1,82 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.grade.GradeBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InMemoryRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int enrollments;
+
+    private BenchmarkDataset dataset;
+    private InMemoryErpRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = BenchmarkDataset.build(enrollments);
+        repository = new InMemoryErpRepository(dataset.store);
+    }
+
+    @Benchmark
+    public Optional<Section> findSection() {
+        return repository.findSection(randomSectionId());
+    }
+
+    @Benchmark
+    public Optional<Enrollment> findEnrollment() {
+        int student = ThreadLocalRandom.current().nextInt(dataset.studentCount);
+        return repository.findEnrollment(BenchmarkDataset.studentId(student), randomSectionId());
+    }
+
+    @Benchmark
+    public List<Enrollment> findEnrollmentsByStudent() {
+        int student = ThreadLocalRandom.current().nextInt(dataset.studentCount);
+        return repository.findEnrollmentsByStudent(BenchmarkDataset.studentId(student));
+    }
+
+    @Benchmark
+    public List<Enrollment> findEnrollmentsBySection() {
+        return repository.findEnrollmentsBySection(randomSectionId());
+    }
+
+    @Benchmark
+    public Map<String, Course> findCourses() {
+        return repository.findCourses(List.of("course-0", "course-1", "course-2", "course-3", "course-4"));
+    }
+
+    @Benchmark
+    public Map<String, GradeBook> findGradeBooksBySection() {
+        return repository.findGradeBooksBySection(randomSectionId());
+    }
+
+    private String randomSectionId() {
+        return BenchmarkDataset.sectionId(ThreadLocalRandom.current().nextInt(dataset.sectionCount));
+    }
+}
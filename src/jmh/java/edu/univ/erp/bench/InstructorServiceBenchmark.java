@@ -0,0 +1,68 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.access.AccessController;
+import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.api.types.GradeComputationSummary;
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.service.impl.DefaultInstructorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class InstructorServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int enrollments;
+
+    private BenchmarkDataset dataset;
+    private DefaultInstructorService service;
+    private Map<String, Double> weights;
+    private boolean alternate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = BenchmarkDataset.build(enrollments);
+        service = new DefaultInstructorService(new InMemoryErpRepository(dataset.store), new AccessController());
+    }
+
+    /**
+     * Switches between two weightings before each measurement iteration, not each call. The
+     * first call to reach a section in an iteration recomputes and saves its finals; later calls
+     * for that section only recompute, because nothing has changed. The score therefore mixes
+     * writing and read-only calls, tilting towards read-only as more sections are revisited.
+     */
+    @Setup(Level.Iteration)
+    public void flipWeights() {
+        alternate = !alternate;
+        weights = alternate
+                ? Map.of("Quiz", 0.2, "Midsem", 0.3, "Endsem", 0.5)
+                : Map.of("Quiz", 0.25, "Midsem", 0.25, "Endsem", 0.5);
+    }
+
+    @Benchmark
+    public OperationResult<GradeComputationSummary> computeFinalGrades() {
+        String sectionId = BenchmarkDataset.sectionId(ThreadLocalRandom.current().nextInt(dataset.sectionCount));
+        Section section = dataset.store.sections().get(sectionId);
+        return service.computeFinalGrades(section.getInstructorId(), sectionId, weights);
+    }
+}
@@ -0,0 +1,83 @@
+package edu.univ.erp.bench;
+
+import edu.univ.erp.access.AccessController;
+import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.api.types.CourseCatalogRow;
+import edu.univ.erp.api.types.GradeView;
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.service.impl.DefaultStudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int enrollments;
+
+    private BenchmarkDataset dataset;
+    private DefaultStudentService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = BenchmarkDataset.build(enrollments);
+        service = new DefaultStudentService(new InMemoryErpRepository(dataset.store), new AccessController());
+    }
+
+    @Benchmark
+    public OperationResult<List<CourseCatalogRow>> viewCatalog() {
+        return service.viewCatalog();
+    }
+
+    @Benchmark
+    public OperationResult<List<GradeView>> viewGrades() {
+        return service.viewGrades(randomStudentId());
+    }
+
+    @Benchmark
+    public OperationResult<byte[]> downloadTranscriptCsv() {
+        return service.downloadTranscriptCsv(randomStudentId());
+    }
+
+    @Benchmark
+    public OperationResult<Integer> writeTranscriptCsv() {
+        return service.writeTranscriptCsv(randomStudentId(), OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Registers a student into a section they are not in and drops it again, so the dataset is
+     * the same after every invocation.
+     */
+    @Benchmark
+    public OperationResult<Void> registerAndDropSection() {
+        int student = ThreadLocalRandom.current().nextInt(dataset.studentCount);
+        String studentId = BenchmarkDataset.studentId(student);
+        String sectionId = dataset.freeSectionFor(student);
+        service.registerSection(studentId, sectionId);
+        return service.dropSection(studentId, sectionId);
+    }
+
+    private String randomStudentId() {
+        return BenchmarkDataset.studentId(ThreadLocalRandom.current().nextInt(dataset.studentCount));
+    }
+}
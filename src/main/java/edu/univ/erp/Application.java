@@ -18,6 +18,7 @@ public final class Application {
 
     public static void main(String[] args) {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ServiceLocator.shutdown();
             DataSourceConfig.shutdown();
             System.out.println("Database connections closed.");
         }));
@@ -1,5 +1,9 @@
 package edu.univ.erp.api.types;
 
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
 public record CourseCatalogRow(
         String sectionId,
         String courseCode,
@@ -9,5 +13,17 @@ public record CourseCatalogRow(
         String schedule,
         int capacity,
         int seatsTaken) {
-}
 
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    public static String formatSchedule(DayOfWeek day, LocalTime start, LocalTime end) {
+        return day.name() + " " + TIME_FORMAT.format(start) + "-" + TIME_FORMAT.format(end);
+    }
+
+    public static String formatInstructor(String title, String department) {
+        if (title == null) {
+            return "TBD";
+        }
+        return title + " (" + department + ")";
+    }
+}
@@ -0,0 +1,12 @@
+package edu.univ.erp.api.types;
+
+public record GradeComputationSummary(
+        int enrollments,
+        int components,
+        int updated,
+        long elapsedNanos) {
+
+    public double enrollmentsPerSecond() {
+        return elapsedNanos == 0 ? 0d : enrollments * 1_000_000_000d / elapsedNanos;
+    }
+}
@@ -0,0 +1,9 @@
+package edu.univ.erp.api.types;
+
+/** Layout of a cohort transcript export. */
+public enum TranscriptExportFormat {
+    /** A ZIP archive with one transcript CSV per student. */
+    ZIP,
+    /** A single CSV with every student's rows, each prefixed by the student's id and roll number. */
+    CSV
+}
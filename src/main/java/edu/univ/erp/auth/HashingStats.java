@@ -0,0 +1,21 @@
+package edu.univ.erp.auth;
+
+public record HashingStats(
+        long submitted,
+        long rejected,
+        long completed,
+        long cacheHits,
+        int queueDepth,
+        long totalQueueWaitNanos,
+        long maxQueueWaitNanos,
+        long totalHashNanos,
+        long maxHashNanos) {
+
+    public double meanQueueWaitMillis() {
+        return completed == 0 ? 0d : totalQueueWaitNanos / 1_000_000d / completed;
+    }
+
+    public double meanHashMillis() {
+        return completed == 0 ? 0d : totalHashNanos / 1_000_000d / completed;
+    }
+}
@@ -2,17 +2,57 @@ package edu.univ.erp.auth;
 
 import org.mindrot.jbcrypt.BCrypt;
 
+/**
+ * BCrypt hashing at a configurable work factor. Hashes made at an older cost keep verifying;
+ * {@link #needsRehash(String)} tells the caller when a stored hash should be replaced, which
+ * is done on the next successful login while the plaintext is at hand.
+ */
 public final class PasswordHasher {
 
+    public static final int DEFAULT_COST = 12;
+    private static final int MIN_COST = 4;
+    private static final int MAX_COST = 31;
+
+    private static volatile int cost = DEFAULT_COST;
+
     private PasswordHasher() {
     }
 
+    /** Sets the work factor used for every hash made from now on. */
+    public static void setCost(int newCost) {
+        if (newCost < MIN_COST || newCost > MAX_COST) {
+            throw new IllegalArgumentException("BCrypt cost must be between " + MIN_COST + " and " + MAX_COST);
+        }
+        cost = newCost;
+    }
+
+    public static int cost() {
+        return cost;
+    }
+
     public static String hash(String rawPassword) {
-        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(12));
+        return BCrypt.hashpw(rawPassword, BCrypt.gensalt(cost));
     }
 
     public static boolean verify(String rawPassword, String hash) {
         return BCrypt.checkpw(rawPassword, hash);
     }
-}
 
+    /** True when {@code hash} was not made at the current cost, or its cost cannot be read. */
+    public static boolean needsRehash(String hash) {
+        return costOf(hash) != cost;
+    }
+
+    /** Reads the cost out of a {@code $2a$NN$...} hash; -1 if it is not in that form. */
+    static int costOf(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = hash.charAt(4);
+        char ones = hash.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+}
@@ -0,0 +1,151 @@
+package edu.univ.erp.auth;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs password checks on a dedicated, fixed-size pool with a bounded queue. A BCrypt check is
+ * a quarter of a second of pure CPU, so a burst of logins must neither run on the callers'
+ * threads nor pile up without limit: once {@code queueCapacity} checks are waiting, further
+ * ones are refused at once and the caller can tell the user to retry. New hashes are made on
+ * the same pool, for the same reason. Time spent queued and time spent hashing are recorded
+ * separately. Pairs found in the {@link VerifiedCredentialCache} are answered straight away
+ * without touching the pool.
+ */
+public final class PasswordVerifier implements AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+    private final BiPredicate<String, String> check;
+    private final UnaryOperator<String> hasher;
+    private final VerifiedCredentialCache verified;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder totalQueueWait = new LongAdder();
+    private final LongAccumulator maxQueueWait = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalHash = new LongAdder();
+    private final LongAccumulator maxHash = new LongAccumulator(Math::max, 0);
+
+    public PasswordVerifier(int threads, int queueCapacity, VerifiedCredentialCache verified) {
+        this(threads, queueCapacity, verified, PasswordHasher::verify, PasswordHasher::hash);
+    }
+
+    PasswordVerifier(int threads,
+                     int queueCapacity,
+                     VerifiedCredentialCache verified,
+                     BiPredicate<String, String> check) {
+        this(threads, queueCapacity, verified, check, PasswordHasher::hash);
+    }
+
+    PasswordVerifier(int threads,
+                     int queueCapacity,
+                     VerifiedCredentialCache verified,
+                     BiPredicate<String, String> check,
+                     UnaryOperator<String> hasher) {
+        this.check = check;
+        this.hasher = hasher;
+        this.verified = verified;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Checks {@code rawPassword} against {@code hash} on the hashing pool. The future fails with
+     * {@link RejectedExecutionException} straight away when the queue is full.
+     */
+    public CompletableFuture<Boolean> verify(String rawPassword, String hash) {
+        if (verified.contains(rawPassword, hash)) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(true);
+        }
+        return submit(() -> {
+            boolean matches = check.test(rawPassword, hash);
+            if (matches) {
+                verified.remember(rawPassword, hash);
+            }
+            return matches;
+        });
+    }
+
+    /**
+     * Hashes {@code rawPassword} at the current cost on the hashing pool. The future fails with
+     * {@link RejectedExecutionException} straight away when the queue is full.
+     */
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> hasher.apply(rawPassword));
+    }
+
+    public HashingStats stats() {
+        return new HashingStats(
+                submitted.sum(),
+                rejected.sum(),
+                completed.sum(),
+                cacheHits.sum(),
+                executor.getQueue().size(),
+                totalQueueWait.sum(),
+                maxQueueWait.get(),
+                totalHash.sum(),
+                maxHash.get());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // Counted before the task can run, so completed never gets ahead of submitted.
+        submitted.increment();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                T value;
+                try {
+                    value = work.get();
+                } catch (RuntimeException e) {
+                    record(startedAt - queuedAt, System.nanoTime() - startedAt);
+                    result.completeExceptionally(e);
+                    return;
+                }
+                // Counted before completing, so a caller that has the result also sees it in stats().
+                record(startedAt - queuedAt, System.nanoTime() - startedAt);
+                result.complete(value);
+            });
+        } catch (RejectedExecutionException e) {
+            submitted.decrement();
+            rejected.increment();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void record(long queueWaitNanos, long hashNanos) {
+        completed.increment();
+        totalQueueWait.add(queueWaitNanos);
+        maxQueueWait.accumulate(queueWaitNanos);
+        totalHash.add(hashNanos);
+        maxHash.accumulate(hashNanos);
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "erp-password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package edu.univ.erp.auth;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers, for a short while, password and hash pairs that BCrypt has already accepted, so a
+ * user who signs in again within the same session is not charged another full hash. Entries are
+ * keyed by an HMAC-SHA256 of the pair under a key generated at startup; neither the plaintext
+ * nor anything that can be checked against it offline is kept. The stored hash is part of the
+ * key, so changing a password makes the old entry unreachable. Only successful checks are
+ * cached, and the cache is an LRU bounded by {@code maxEntries}.
+ */
+public final class VerifiedCredentialCache {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final LinkedHashMap<String, Long> entries;
+
+    /** @param maxEntries zero or less disables the cache */
+    public VerifiedCredentialCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > VerifiedCredentialCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static VerifiedCredentialCache disabled() {
+        return new VerifiedCredentialCache(0, Duration.ZERO);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0 && ttlNanos > 0;
+    }
+
+    /** True if this pair was verified within the time-to-live. */
+    public boolean contains(String rawPassword, String hash) {
+        if (!isEnabled()) {
+            return false;
+        }
+        String digest = digest(rawPassword, hash);
+        synchronized (this) {
+            Long verifiedAt = entries.get(digest);
+            if (verifiedAt == null) {
+                return false;
+            }
+            if (System.nanoTime() - verifiedAt >= ttlNanos) {
+                entries.remove(digest);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /** Records that BCrypt accepted {@code rawPassword} for {@code hash}. */
+    public void remember(String rawPassword, String hash) {
+        if (!isEnabled()) {
+            return;
+        }
+        String digest = digest(rawPassword, hash);
+        synchronized (this) {
+            entries.put(digest, System.nanoTime());
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private String digest(String rawPassword, String hash) {
+        Mac mac = macs.get();
+        mac.update(hash.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return HexFormat.of().formatHex(mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialise " + ALGORITHM, e);
+        }
+    }
+}
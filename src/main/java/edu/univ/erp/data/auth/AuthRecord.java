@@ -4,6 +4,7 @@ import edu.univ.erp.domain.user.Role;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 public record AuthRecord(
         String userId,
@@ -15,6 +16,14 @@ public record AuthRecord(
         int failedAttempts,
         LocalDateTime lockoutUntil) implements Serializable {
 
+    /**
+     * The case-folded form usernames are looked up by. It matches the {@code username_normalized}
+     * column, which MySQL derives with {@code LOWER(username)}.
+     */
+    public static String normalizeUsername(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
     public AuthRecord withPasswordHash(String newHash) {
         return new AuthRecord(userId, username, role, newHash, active, lastLogin, failedAttempts, lockoutUntil);
     }
@@ -1,6 +1,11 @@
 package edu.univ.erp.data.auth;
 
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface AuthRepository {
@@ -10,6 +15,25 @@ public interface AuthRepository {
 
     void save(AuthRecord record);
 
+    // Narrow updates for the login path, which changes one or two columns of a record it has
+    // just read and should not rewrite the rest. Unknown user ids are ignored.
+
+    /** Sets the failed-attempt count and lockout deadline, leaving every other column alone. */
+    void updateLockout(String userId, int failedAttempts, LocalDateTime lockoutUntil);
+
+    void updatePasswordHash(String userId, String passwordHash);
+
+    void recordLogin(String userId, LocalDateTime loginTime);
+
+    /** Records several logins, keyed by user id, in one round trip where the backend allows. */
+    void recordLogins(Map<String, LocalDateTime> loginTimes);
+
     List<AuthRecord> findAll();
+
+    /**
+     * Returns the next page of users matching {@code filter}, ordered by username. The page's
+     * key is a username.
+     */
+    Page<AuthRecord> findAll(UserFilter filter, PageRequest request);
 }
 
@@ -0,0 +1,125 @@
+package edu.univ.erp.data.auth;
+
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defers last-login timestamps and writes them in batches, so a successful login does not wait
+ * for its own write. Logins by the same user between flushes collapse into the latest one, and
+ * reads made through this repository already show the pending timestamps. Everything else goes
+ * straight to the delegate. A failed flush is retried on the next one; {@link #close()} flushes
+ * whatever is left.
+ */
+public final class LoginBatchingAuthRepository implements AuthRepository, AutoCloseable {
+
+    private final AuthRepository delegate;
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public LoginBatchingAuthRepository(AuthRepository delegate, Duration flushInterval) {
+        this.delegate = delegate;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "erp-login-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Optional<AuthRecord> findByUsername(String username) {
+        return delegate.findByUsername(username).map(this::withPending);
+    }
+
+    @Override
+    public Optional<AuthRecord> findByUserId(String userId) {
+        return delegate.findByUserId(userId).map(this::withPending);
+    }
+
+    @Override
+    public void save(AuthRecord record) {
+        delegate.save(record);
+    }
+
+    @Override
+    public void updateLockout(String userId, int failedAttempts, LocalDateTime lockoutUntil) {
+        delegate.updateLockout(userId, failedAttempts, lockoutUntil);
+    }
+
+    @Override
+    public void updatePasswordHash(String userId, String passwordHash) {
+        delegate.updatePasswordHash(userId, passwordHash);
+    }
+
+    @Override
+    public void recordLogin(String userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (earlier, later) -> later.isAfter(earlier) ? later : earlier);
+    }
+
+    @Override
+    public void recordLogins(Map<String, LocalDateTime> loginTimes) {
+        loginTimes.forEach(this::recordLogin);
+    }
+
+    @Override
+    public List<AuthRecord> findAll() {
+        return delegate.findAll().stream().map(this::withPending).toList();
+    }
+
+    @Override
+    public Page<AuthRecord> findAll(UserFilter filter, PageRequest request) {
+        Page<AuthRecord> page = delegate.findAll(filter, request);
+        return new Page<>(page.items().stream().map(this::withPending).toList(), page.nextKey());
+    }
+
+    /** Writes every pending login in one batch. */
+    public void flush() {
+        Map<String, LocalDateTime> batch = new HashMap<>();
+        for (Map.Entry<String, LocalDateTime> entry : pending.entrySet()) {
+            // Only take the value seen here; a newer login for the user stays for the next flush.
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            delegate.recordLogins(batch);
+        } catch (RuntimeException e) {
+            batch.forEach(this::recordLogin);
+            System.err.println("Failed to record logins, will retry: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private AuthRecord withPending(AuthRecord record) {
+        LocalDateTime loginTime = pending.get(record.userId());
+        if (loginTime == null || (record.lastLogin() != null && !loginTime.isAfter(record.lastLogin()))) {
+            return record;
+        }
+        return record.withLastLogin(loginTime);
+    }
+}
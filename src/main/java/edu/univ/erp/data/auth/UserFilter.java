@@ -0,0 +1,16 @@
+package edu.univ.erp.data.auth;
+
+import edu.univ.erp.domain.user.Role;
+
+/**
+ * Narrows {@link AuthRepository#findAll(UserFilter, edu.univ.erp.data.page.PageRequest)}. A
+ * {@code null} role or blank username prefix matches every user; prefix matching ignores case.
+ */
+public record UserFilter(Role role, String usernamePrefix) {
+
+    public static final UserFilter ALL = new UserFilter(null, null);
+
+    public UserFilter {
+        usernamePrefix = usernamePrefix == null || usernamePrefix.isBlank() ? null : usernamePrefix.trim();
+    }
+}
@@ -0,0 +1,138 @@
+package edu.univ.erp.data.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded LRU cache with a time-to-live per entry. Loads run outside the lock; a load that
+ * overlaps a write or invalidation is not cached, so a slow reader cannot put back a value that
+ * a writer has just replaced.
+ */
+final class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long generation;
+
+    BoundedCache(String name, int maxEntries, Duration ttl) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return Optional.of(entry.value());
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresent(value -> {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    store(key, value);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Returns the cached values for {@code keys} and loads every missing key with a single call
+     * to {@code loader}. Keys the loader does not return are absent from the result.
+     */
+    Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, V> found = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (K key : keys) {
+                if (found.containsKey(key) || missing.contains(key)) {
+                    continue;
+                }
+                Entry<V> entry = entries.get(key);
+                if (entry != null && now - entry.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    found.put(key, entry.value());
+                    continue;
+                }
+                if (entry != null) {
+                    entries.remove(key);
+                    evictions.increment();
+                }
+                misses.increment();
+                missing.add(key);
+            }
+            loadGeneration = generation;
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        Map<K, V> loaded = loader.apply(new ArrayList<>(missing));
+        found.putAll(loaded);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                loaded.forEach(this::store);
+            }
+        }
+        return found;
+    }
+
+    synchronized void put(K key, V value) {
+        generation++;
+        store(key, value);
+    }
+
+    synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    synchronized CacheStats stats() {
+        return new CacheStats(name, hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private void store(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,14 @@
+package edu.univ.erp.data.cache;
+
+public record CacheStats(
+        String name,
+        long hits,
+        long misses,
+        long evictions,
+        int size) {
+
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0d : (double) hits / lookups;
+    }
+}
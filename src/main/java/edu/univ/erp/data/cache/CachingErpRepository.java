@@ -0,0 +1,267 @@
+package edu.univ.erp.data.cache;
+
+import edu.univ.erp.api.types.CourseCatalogRow;
+import edu.univ.erp.data.erp.CatalogSource;
+import edu.univ.erp.data.erp.CohortFilter;
+import edu.univ.erp.data.erp.CourseFilter;
+import edu.univ.erp.data.erp.ErpDataSource;
+import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.erp.SeatReservation;
+import edu.univ.erp.data.erp.SectionFilter;
+import edu.univ.erp.data.erp.StudentTranscript;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.settings.MaintenanceSetting;
+import edu.univ.erp.domain.student.Student;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of another {@link ErpRepository}. Only courses, sections and
+ * instructors are cached: they are read on nearly every screen and change rarely. Enrollments,
+ * grades, the catalog (which carries live seat counts) and the maintenance flag always go to
+ * the delegate. Writes go to the delegate first and then refresh or drop the cached entry, so
+ * this process never reads its own stale data; changes made by other processes become visible
+ * once the entry's time-to-live runs out.
+ */
+public final class CachingErpRepository implements ErpRepository {
+
+    private final ErpRepository delegate;
+    private final BoundedCache<String, Course> courses;
+    private final BoundedCache<String, Section> sections;
+    private final BoundedCache<String, Instructor> instructors;
+
+    public CachingErpRepository(ErpRepository delegate, int maxEntries, Duration ttl) {
+        this.delegate = delegate;
+        this.courses = new BoundedCache<>("courses", maxEntries, ttl);
+        this.sections = new BoundedCache<>("sections", maxEntries, ttl);
+        this.instructors = new BoundedCache<>("instructors", maxEntries, ttl);
+    }
+
+    public List<CacheStats> stats() {
+        return List.of(courses.stats(), sections.stats(), instructors.stats());
+    }
+
+    public void invalidateAll() {
+        courses.clear();
+        sections.clear();
+        instructors.clear();
+    }
+
+    @Override
+    public Optional<Student> findStudent(String userId) {
+        return delegate.findStudent(userId);
+    }
+
+    @Override
+    public void saveStudent(Student student) {
+        delegate.saveStudent(student);
+    }
+
+    @Override
+    public Optional<Instructor> findInstructor(String userId) {
+        return instructors.get(userId, delegate::findInstructor);
+    }
+
+    @Override
+    public void saveInstructor(Instructor instructor) {
+        delegate.saveInstructor(instructor);
+        instructors.put(instructor.getUserId(), instructor);
+    }
+
+    @Override
+    public Optional<Course> findCourse(String courseId) {
+        return courses.get(courseId, delegate::findCourse);
+    }
+
+    @Override
+    public Map<String, Course> findCourses(Collection<String> courseIds) {
+        return courses.getAll(courseIds, delegate::findCourses);
+    }
+
+    @Override
+    public List<Course> listCourses() {
+        return delegate.listCourses();
+    }
+
+    @Override
+    public Page<Course> listCourses(CourseFilter filter, PageRequest request) {
+        return delegate.listCourses(filter, request);
+    }
+
+    @Override
+    public void saveCourse(Course course) {
+        delegate.saveCourse(course);
+        courses.put(course.getCourseId(), course);
+    }
+
+    @Override
+    public void deleteCourse(String courseId) {
+        delegate.deleteCourse(courseId);
+        courses.invalidate(courseId);
+        // Sections of the course go with it (ON DELETE CASCADE); which ones is not known here.
+        sections.clear();
+    }
+
+    @Override
+    public Optional<Section> findSection(String sectionId) {
+        return sections.get(sectionId, delegate::findSection);
+    }
+
+    @Override
+    public Map<String, Section> findSections(Collection<String> sectionIds) {
+        return sections.getAll(sectionIds, delegate::findSections);
+    }
+
+    @Override
+    public List<Section> listSections() {
+        return delegate.listSections();
+    }
+
+    @Override
+    public Page<Section> listSections(SectionFilter filter, PageRequest request) {
+        return delegate.listSections(filter, request);
+    }
+
+    @Override
+    public void saveSection(Section section) {
+        delegate.saveSection(section);
+        sections.put(section.getSectionId(), section);
+    }
+
+    @Override
+    public void deleteSection(String sectionId) {
+        delegate.deleteSection(sectionId);
+        sections.invalidate(sectionId);
+    }
+
+    @Override
+    public int replaceCatalog(CatalogSource source) {
+        int stored = delegate.replaceCatalog(source);
+        courses.clear();
+        sections.clear();
+        return stored;
+    }
+
+    @Override
+    public List<CourseCatalogRow> listCatalog() {
+        return delegate.listCatalog();
+    }
+
+    @Override
+    public List<Enrollment> findEnrollmentsByStudent(String studentId) {
+        return delegate.findEnrollmentsByStudent(studentId);
+    }
+
+    @Override
+    public List<Enrollment> findEnrollmentsBySection(String sectionId) {
+        return delegate.findEnrollmentsBySection(sectionId);
+    }
+
+    @Override
+    public Optional<Enrollment> findEnrollment(String studentId, String sectionId) {
+        return delegate.findEnrollment(studentId, sectionId);
+    }
+
+    @Override
+    public void saveEnrollment(Enrollment enrollment) {
+        delegate.saveEnrollment(enrollment);
+    }
+
+    @Override
+    public SeatReservation reserveSeat(Enrollment enrollment) {
+        return delegate.reserveSeat(enrollment);
+    }
+
+    @Override
+    public void deleteEnrollment(String enrollmentId) {
+        delegate.deleteEnrollment(enrollmentId);
+    }
+
+    @Override
+    public Optional<GradeBook> findGradeBook(String enrollmentId) {
+        return delegate.findGradeBook(enrollmentId);
+    }
+
+    @Override
+    public Map<String, GradeBook> findGradeBooks(Collection<String> enrollmentIds) {
+        return delegate.findGradeBooks(enrollmentIds);
+    }
+
+    @Override
+    public Map<String, GradeBook> findGradeBooksBySection(String sectionId) {
+        return delegate.findGradeBooksBySection(sectionId);
+    }
+
+    @Override
+    public void saveGradeBook(GradeBook gradeBook) {
+        delegate.saveGradeBook(gradeBook);
+    }
+
+    @Override
+    public void saveGradeBooks(Collection<GradeBook> gradeBooks) {
+        delegate.saveGradeBooks(gradeBooks);
+    }
+
+    @Override
+    public void saveFinalGrades(Map<String, Double> finalGrades) {
+        delegate.saveFinalGrades(finalGrades);
+    }
+
+    @Override
+    public int countStudents(CohortFilter filter) {
+        return delegate.countStudents(filter);
+    }
+
+    @Override
+    public void streamTranscripts(CohortFilter filter, Consumer<StudentTranscript> sink) {
+        delegate.streamTranscripts(filter, sink);
+    }
+
+    @Override
+    public void streamStudents(Consumer<Student> sink) {
+        delegate.streamStudents(sink);
+    }
+
+    @Override
+    public void streamInstructors(Consumer<Instructor> sink) {
+        delegate.streamInstructors(sink);
+    }
+
+    @Override
+    public void streamEnrollments(Consumer<Enrollment> sink) {
+        delegate.streamEnrollments(sink);
+    }
+
+    @Override
+    public void streamGradeBooks(Consumer<GradeBook> sink) {
+        delegate.streamGradeBooks(sink);
+    }
+
+    @Override
+    public int replaceAll(ErpDataSource source) {
+        int stored = delegate.replaceAll(source);
+        invalidateAll();
+        return stored;
+    }
+
+    @Override
+    public MaintenanceSetting getMaintenanceSetting() {
+        return delegate.getMaintenanceSetting();
+    }
+
+    @Override
+    public void saveMaintenanceSetting(boolean maintenanceOn) {
+        delegate.saveMaintenanceSetting(maintenanceOn);
+    }
+}
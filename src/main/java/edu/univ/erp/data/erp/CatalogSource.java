@@ -0,0 +1,16 @@
+package edu.univ.erp.data.erp;
+
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+
+import java.util.function.Consumer;
+
+/**
+ * Produces the courses and sections of a catalog that replaces the stored one, as it reads
+ * them. Every course must be handed over before the first section. Throwing abandons the
+ * replacement and leaves the stored catalog as it was.
+ */
+@FunctionalInterface
+public interface CatalogSource {
+    void read(Consumer<Course> courses, Consumer<Section> sections);
+}
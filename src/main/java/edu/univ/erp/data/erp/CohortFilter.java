@@ -0,0 +1,14 @@
+package edu.univ.erp.data.erp;
+
+/**
+ * Selects the students whose transcripts {@link ErpRepository#streamTranscripts} produces. A
+ * {@code null} program or year matches every student; the program comparison ignores case.
+ */
+public record CohortFilter(String program, Integer year) {
+
+    public static final CohortFilter ALL = new CohortFilter(null, null);
+
+    public CohortFilter {
+        program = program == null || program.isBlank() ? null : program.trim();
+    }
+}
@@ -0,0 +1,14 @@
+package edu.univ.erp.data.erp;
+
+/**
+ * Narrows {@link ErpRepository#listCourses(CourseFilter, edu.univ.erp.data.page.PageRequest)}.
+ * A {@code null} or blank code prefix matches every course; matching ignores case.
+ */
+public record CourseFilter(String codePrefix) {
+
+    public static final CourseFilter ALL = new CourseFilter(null);
+
+    public CourseFilter {
+        codePrefix = codePrefix == null || codePrefix.isBlank() ? null : codePrefix.trim();
+    }
+}
@@ -0,0 +1,38 @@
+package edu.univ.erp.data.erp;
+
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.settings.MaintenanceSetting;
+import edu.univ.erp.domain.student.Student;
+
+/**
+ * Produces a complete ERP data set that replaces the stored one, as it reads it. Records must
+ * arrive table by table in {@link Sink}'s declaration order, so everything a record refers to
+ * has been handed over before it. Throwing abandons the replacement and leaves the stored data
+ * as it was.
+ */
+@FunctionalInterface
+public interface ErpDataSource {
+
+    void read(Sink sink);
+
+    interface Sink {
+        void student(Student student);
+
+        void instructor(Instructor instructor);
+
+        void course(Course course);
+
+        void section(Section section);
+
+        void enrollment(Enrollment enrollment);
+
+        /** Components included. */
+        void gradeBook(GradeBook gradeBook);
+
+        void maintenanceSetting(MaintenanceSetting setting);
+    }
+}
@@ -1,5 +1,8 @@
 package edu.univ.erp.data.erp;
 
+import edu.univ.erp.api.types.CourseCatalogRow;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
 import edu.univ.erp.domain.course.Course;
 import edu.univ.erp.domain.course.Section;
 import edu.univ.erp.domain.enrollment.Enrollment;
@@ -8,8 +11,11 @@ import edu.univ.erp.domain.instructor.Instructor;
 import edu.univ.erp.domain.settings.MaintenanceSetting;
 import edu.univ.erp.domain.student.Student;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ErpRepository {
     Optional<Student> findStudent(String userId);
@@ -22,34 +28,138 @@ public interface ErpRepository {
 
     Optional<Course> findCourse(String courseId);
 
+    /**
+     * Looks up several courses at once. The result is keyed by course id; ids with no matching
+     * course are left out.
+     */
+    Map<String, Course> findCourses(Collection<String> courseIds);
+
     List<Course> listCourses();
 
+    /**
+     * Returns the next page of courses matching {@code filter}, ordered by course code. The
+     * page's key is a course code.
+     */
+    Page<Course> listCourses(CourseFilter filter, PageRequest request);
+
     void saveCourse(Course course);
 
     void deleteCourse(String courseId);
 
     Optional<Section> findSection(String sectionId);
 
+    /**
+     * Looks up several sections at once. The result is keyed by section id; ids with no
+     * matching section are left out.
+     */
+    Map<String, Section> findSections(Collection<String> sectionIds);
+
     List<Section> listSections();
 
+    /**
+     * Returns the next page of sections matching {@code filter}, ordered by section id. The
+     * page's key is a section id.
+     */
+    Page<Section> listSections(SectionFilter filter, PageRequest request);
+
     void saveSection(Section section);
 
     void deleteSection(String sectionId);
 
+    /**
+     * Deletes every course and section, and with them every enrollment and grade book, and
+     * stores the courses and sections {@code source} produces instead, as one unit of work: if
+     * the source or a write fails, the old data is kept. Returns the number of courses and
+     * sections stored.
+     */
+    int replaceCatalog(CatalogSource source);
+
+    /**
+     * Returns one catalog row per section whose course exists, with the seat count already
+     * aggregated, so callers do not need a lookup per section.
+     */
+    List<CourseCatalogRow> listCatalog();
+
     List<Enrollment> findEnrollmentsByStudent(String studentId);
 
     List<Enrollment> findEnrollmentsBySection(String sectionId);
 
     Optional<Enrollment> findEnrollment(String studentId, String sectionId);
 
+    /**
+     * Inserts or updates the enrollment, keeping the sections' seat counts in step. Moving an
+     * existing enrollment to another section frees its old seat and claims one in the new
+     * section, failing with {@link IllegalStateException} if that section is full.
+     */
     void saveEnrollment(Enrollment enrollment);
 
+    /**
+     * Claims a seat in the enrollment's section and stores the enrollment in one atomic step.
+     * The capacity check is made against a per-section counter rather than by counting rows.
+     */
+    SeatReservation reserveSeat(Enrollment enrollment);
+
     void deleteEnrollment(String enrollmentId);
 
     Optional<GradeBook> findGradeBook(String enrollmentId);
 
+    /**
+     * Looks up the grade books, components included, of several enrollments at once. The result
+     * is keyed by enrollment id; enrollments without a grade book are left out.
+     */
+    Map<String, GradeBook> findGradeBooks(Collection<String> enrollmentIds);
+
+    /**
+     * Returns every grade book in a section, components included, keyed by enrollment id.
+     * Enrollments without a grade book are left out.
+     */
+    Map<String, GradeBook> findGradeBooksBySection(String sectionId);
+
     void saveGradeBook(GradeBook gradeBook);
 
+    /**
+     * Saves several grade books as one unit of work: either every book and its components is
+     * written, or none is.
+     */
+    void saveGradeBooks(Collection<GradeBook> gradeBooks);
+
+    /**
+     * Sets the final grade of each enrollment in {@code finalGrades} without touching its
+     * components, creating an empty grade book where none exists. All values are written in
+     * one batch.
+     */
+    void saveFinalGrades(Map<String, Double> finalGrades);
+
+    int countStudents(CohortFilter filter);
+
+    /**
+     * Hands the transcript of every student matching {@code filter} to {@code sink}, in user id
+     * order, as it is read. Only one student's grades are held at a time, so a whole cohort can
+     * be exported without loading it; students with no enrollments get an empty transcript.
+     */
+    void streamTranscripts(CohortFilter filter, Consumer<StudentTranscript> sink);
+
+    /**
+     * Hands every student to {@code sink} in user id order as it is read, without loading the
+     * table. This and the other {@code stream} methods are meant for full backups.
+     */
+    void streamStudents(Consumer<Student> sink);
+
+    void streamInstructors(Consumer<Instructor> sink);
+
+    void streamEnrollments(Consumer<Enrollment> sink);
+
+    /** Hands every grade book, components included, to {@code sink} in enrollment id order. */
+    void streamGradeBooks(Consumer<GradeBook> sink);
+
+    /**
+     * Deletes every student, instructor, course, section, enrollment and grade book and stores
+     * those {@code source} produces instead, together with its maintenance setting, as one unit
+     * of work: if the source or a write fails, the old data is kept. Seat counts are recomputed
+     * from the restored enrollments. Returns the number of records stored.
+     */
+    int replaceAll(ErpDataSource source);
+
     MaintenanceSetting getMaintenanceSetting();
 
     void saveMaintenanceSetting(boolean maintenanceOn);
@@ -0,0 +1,11 @@
+package edu.univ.erp.data.erp;
+
+/**
+ * Outcome of {@link ErpRepository#reserveSeat}. The seat counter and the enrollment row are
+ * updated together, so a result other than {@link #RESERVED} means nothing was written.
+ */
+public enum SeatReservation {
+    RESERVED,
+    SECTION_FULL,
+    ALREADY_ENROLLED
+}
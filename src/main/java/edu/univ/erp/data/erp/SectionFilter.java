@@ -0,0 +1,16 @@
+package edu.univ.erp.data.erp;
+
+/**
+ * Narrows {@link ErpRepository#listSections(SectionFilter, edu.univ.erp.data.page.PageRequest)}.
+ * Each {@code null} field matches everything. {@code department} is the teaching instructor's
+ * department and {@code codePrefix} applies to the section's course code; both ignore case.
+ */
+public record SectionFilter(Integer semester, Integer year, String department, String codePrefix) {
+
+    public static final SectionFilter ALL = new SectionFilter(null, null, null, null);
+
+    public SectionFilter {
+        department = department == null || department.isBlank() ? null : department.trim();
+        codePrefix = codePrefix == null || codePrefix.isBlank() ? null : codePrefix.trim();
+    }
+}
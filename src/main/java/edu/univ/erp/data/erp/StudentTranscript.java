@@ -0,0 +1,13 @@
+package edu.univ.erp.data.erp;
+
+import edu.univ.erp.api.types.GradeView;
+import edu.univ.erp.domain.student.Student;
+
+import java.util.List;
+
+/**
+ * One student's grades as stored, one view per enrollment whose section and course still exist.
+ * A final grade that was never computed is left {@code null}.
+ */
+public record StudentTranscript(Student student, List<GradeView> grades) {
+}
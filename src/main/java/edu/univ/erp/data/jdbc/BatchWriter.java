@@ -0,0 +1,70 @@
+package edu.univ.erp.data.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Adds rows to a batch statement and executes it every {@link #BATCH_SIZE} rows. Writers for
+ * the tables a row may refer to are flushed just before this writer's own batch is executed,
+ * so rows may arrive interleaved across tables without shrinking any table's batches.
+ */
+final class BatchWriter<T> implements Consumer<T> {
+
+    static final int BATCH_SIZE = 1_000;
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement ps, T value) throws SQLException;
+    }
+
+    private final PreparedStatement ps;
+    private final Binder<T> binder;
+    private final List<BatchWriter<?>> dependencies;
+    private int pending;
+    private int written;
+
+    BatchWriter(PreparedStatement ps, Binder<T> binder) {
+        this(ps, binder, List.of());
+    }
+
+    BatchWriter(PreparedStatement ps, Binder<T> binder, List<BatchWriter<?>> dependencies) {
+        this.ps = ps;
+        this.binder = binder;
+        this.dependencies = dependencies;
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            binder.bind(ps, value);
+            ps.addBatch();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to write batch", e);
+        }
+        if (++pending == BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    /** Executes the pending batch, after the pending batches of every writer it depends on. */
+    void flush() {
+        if (pending == 0) {
+            return;
+        }
+        dependencies.forEach(BatchWriter::flush);
+        try {
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to write batch", e);
+        }
+        written += pending;
+        pending = 0;
+    }
+
+    /** Rows executed so far; rows still pending are not counted. */
+    int written() {
+        return written;
+    }
+}
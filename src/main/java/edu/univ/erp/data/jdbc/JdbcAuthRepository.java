@@ -2,6 +2,9 @@ package edu.univ.erp.data.jdbc;
 
 import edu.univ.erp.data.auth.AuthRecord;
 import edu.univ.erp.data.auth.AuthRepository;
+import edu.univ.erp.data.auth.UserFilter;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
 import edu.univ.erp.domain.user.Role;
 
 import javax.sql.DataSource;
@@ -13,6 +16,7 @@ import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public final class JdbcAuthRepository implements AuthRepository {
@@ -22,6 +26,8 @@ public final class JdbcAuthRepository implements AuthRepository {
             FROM auth_users
             """;
 
+    private static final String RECORD_LOGIN = "UPDATE auth_users SET last_login = ? WHERE user_id = ?";
+
     private final DataSource dataSource;
 
     public JdbcAuthRepository(DataSource dataSource) {
@@ -30,8 +36,10 @@ public final class JdbcAuthRepository implements AuthRepository {
 
     @Override
     public Optional<AuthRecord> findByUsername(String username) {
-        String sql = SELECT_BASE + " WHERE LOWER(username) = LOWER(?)";
-        return queryForSingle(sql, ps -> ps.setString(1, username));
+        // Compares against the indexed, already lower-cased column rather than LOWER(username),
+        // which would have to be computed for every row.
+        String sql = SELECT_BASE + " WHERE username_normalized = ?";
+        return queryForSingle(sql, ps -> ps.setString(1, AuthRecord.normalizeUsername(username)));
     }
 
     @Override
@@ -80,6 +88,46 @@ public final class JdbcAuthRepository implements AuthRepository {
         }
     }
 
+    @Override
+    public void updateLockout(String userId, int failedAttempts, LocalDateTime lockoutUntil) {
+        update("UPDATE auth_users SET failed_attempts = ?, lockout_until = ? WHERE user_id = ?", ps -> {
+            ps.setInt(1, failedAttempts);
+            ps.setTimestamp(2, lockoutUntil == null ? null : Timestamp.valueOf(lockoutUntil));
+            ps.setString(3, userId);
+        });
+    }
+
+    @Override
+    public void updatePasswordHash(String userId, String passwordHash) {
+        update("UPDATE auth_users SET password_hash = ? WHERE user_id = ?", ps -> {
+            ps.setString(1, passwordHash);
+            ps.setString(2, userId);
+        });
+    }
+
+    @Override
+    public void recordLogin(String userId, LocalDateTime loginTime) {
+        recordLogins(Map.of(userId, loginTime));
+    }
+
+    @Override
+    public void recordLogins(Map<String, LocalDateTime> loginTimes) {
+        if (loginTimes.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(RECORD_LOGIN)) {
+            for (Map.Entry<String, LocalDateTime> entry : loginTimes.entrySet()) {
+                ps.setTimestamp(1, Timestamp.valueOf(entry.getValue()));
+                ps.setString(2, entry.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to record logins", e);
+        }
+    }
+
     @Override
     public List<AuthRecord> findAll() {
         List<AuthRecord> records = new ArrayList<>();
@@ -95,6 +143,37 @@ public final class JdbcAuthRepository implements AuthRepository {
         return records;
     }
 
+    @Override
+    public Page<AuthRecord> findAll(UserFilter filter, PageRequest request) {
+        KeysetQuery query = new KeysetQuery()
+                .equalTo("role", filter.role() == null ? null : filter.role().name())
+                .startsWith("username", filter.usernamePrefix());
+        String sql = query.sql(SELECT_BASE, "username", request);
+        List<AuthRecord> records = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            query.bind(ps, request);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    records.add(mapRecord(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to list auth records", e);
+        }
+        return Page.fromLookahead(records, request.limit(), AuthRecord::username);
+    }
+
+    private void update(String sql, SqlConsumer<PreparedStatement> binder) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            binder.accept(ps);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to update auth record", e);
+        }
+    }
+
     private Optional<AuthRecord> queryForSingle(String sql, SqlConsumer<PreparedStatement> binder) {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
@@ -1,6 +1,17 @@
 package edu.univ.erp.data.jdbc;
 
+import edu.univ.erp.api.types.CourseCatalogRow;
+import edu.univ.erp.api.types.GradeView;
+import edu.univ.erp.data.erp.CatalogSource;
+import edu.univ.erp.data.erp.CohortFilter;
+import edu.univ.erp.data.erp.CourseFilter;
+import edu.univ.erp.data.erp.ErpDataSource;
 import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.erp.SeatReservation;
+import edu.univ.erp.data.erp.SectionFilter;
+import edu.univ.erp.data.erp.StudentTranscript;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
 import edu.univ.erp.domain.course.Course;
 import edu.univ.erp.domain.course.Section;
 import edu.univ.erp.domain.enrollment.Enrollment;
@@ -17,16 +28,29 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Time;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public final class JdbcErpRepository implements ErpRepository {
 
+    /** Upper bound on the number of ids bound into one {@code IN (...)} list. */
+    private static final int IN_CLAUSE_CHUNK = 500;
+    /** MySQL's error code for a duplicate key; other integrity violations are real failures. */
+    private static final int ER_DUP_ENTRY = 1062;
+
     private final DataSource dataSource;
 
     public JdbcErpRepository(DataSource dataSource) {
@@ -85,6 +109,12 @@ public final class JdbcErpRepository implements ErpRepository {
         return querySingle(sql, ps -> ps.setString(1, courseId), this::mapCourse);
     }
 
+    @Override
+    public Map<String, Course> findCourses(Collection<String> courseIds) {
+        String sql = "SELECT course_id, code, title, credits FROM courses WHERE course_id IN (%s)";
+        return queryByIds(sql, courseIds, this::mapCourse, Course::getCourseId);
+    }
+
     @Override
     public List<Course> listCourses() {
         String sql = "SELECT course_id, code, title, credits FROM courses";
@@ -92,6 +122,14 @@ public final class JdbcErpRepository implements ErpRepository {
         }, this::mapCourse);
     }
 
+    @Override
+    public Page<Course> listCourses(CourseFilter filter, PageRequest request) {
+        KeysetQuery query = new KeysetQuery().startsWith("code", filter.codePrefix());
+        String sql = query.sql("SELECT course_id, code, title, credits FROM courses", "code", request);
+        List<Course> rows = queryList(sql, ps -> query.bind(ps, request), this::mapCourse);
+        return Page.fromLookahead(rows, request.limit(), Course::getCode);
+    }
+
     @Override
     public void saveCourse(Course course) {
         String sql = """
@@ -102,12 +140,7 @@ public final class JdbcErpRepository implements ErpRepository {
                     title = VALUES(title),
                     credits = VALUES(credits)
                 """;
-        executeUpdate(sql, ps -> {
-            ps.setString(1, course.getCourseId());
-            ps.setString(2, course.getCode());
-            ps.setString(3, course.getTitle());
-            ps.setInt(4, course.getCredits());
-        });
+        executeUpdate(sql, ps -> bindCourse(ps, course));
     }
 
     @Override
@@ -128,6 +161,16 @@ public final class JdbcErpRepository implements ErpRepository {
         return querySingle(sql, ps -> ps.setString(1, sectionId), this::mapSection);
     }
 
+    @Override
+    public Map<String, Section> findSections(Collection<String> sectionIds) {
+        String sql = """
+                SELECT section_id, course_id, instructor_id, day_of_week, start_time, end_time,
+                       room, capacity, semester, academic_year, registration_deadline, weighting_rule, component_names
+                FROM sections WHERE section_id IN (%s)
+                """;
+        return queryByIds(sql, sectionIds, this::mapSection, Section::getSectionId);
+    }
+
     @Override
     public List<Section> listSections() {
         String sql = """
@@ -139,6 +182,31 @@ public final class JdbcErpRepository implements ErpRepository {
         }, this::mapSection);
     }
 
+    @Override
+    public Page<Section> listSections(SectionFilter filter, PageRequest request) {
+        StringBuilder select = new StringBuilder("""
+                SELECT s.section_id, s.course_id, s.instructor_id, s.day_of_week, s.start_time, s.end_time,
+                       s.room, s.capacity, s.semester, s.academic_year, s.registration_deadline,
+                       s.weighting_rule, s.component_names
+                FROM sections s
+                """);
+        // Join only what the filter needs, so the common unfiltered page stays a primary key range scan.
+        if (filter.codePrefix() != null) {
+            select.append(" JOIN courses c ON c.course_id = s.course_id");
+        }
+        if (filter.department() != null) {
+            select.append(" JOIN instructors i ON i.user_id = s.instructor_id");
+        }
+        KeysetQuery query = new KeysetQuery()
+                .equalTo("s.semester", filter.semester())
+                .equalTo("s.academic_year", filter.year())
+                .equalTo("i.department", filter.department())
+                .startsWith("c.code", filter.codePrefix());
+        String sql = query.sql(select.toString(), "s.section_id", request);
+        List<Section> rows = queryList(sql, ps -> query.bind(ps, request), this::mapSection);
+        return Page.fromLookahead(rows, request.limit(), Section::getSectionId);
+    }
+
     @Override
     public void saveSection(Section section) {
         String sql = """
@@ -159,21 +227,7 @@ public final class JdbcErpRepository implements ErpRepository {
                     weighting_rule = VALUES(weighting_rule),
                     component_names = VALUES(component_names)
                 """;
-        executeUpdate(sql, ps -> {
-            ps.setString(1, section.getSectionId());
-            ps.setString(2, section.getCourseId());
-            ps.setString(3, section.getInstructorId());
-            ps.setString(4, section.getDayOfWeek().name());
-            ps.setTime(5, Time.valueOf(section.getStartTime()));
-            ps.setTime(6, Time.valueOf(section.getEndTime()));
-            ps.setString(7, section.getRoom());
-            ps.setInt(8, section.getCapacity());
-            ps.setInt(9, section.getSemester());
-            ps.setInt(10, section.getYear());
-            ps.setDate(11, Date.valueOf(section.getRegistrationDeadline()));
-            ps.setString(12, section.getWeightingRule());
-            ps.setString(13, section.getComponentNames());
-        });
+        executeUpdate(sql, ps -> bindSection(ps, section));
     }
 
     @Override
@@ -184,6 +238,53 @@ public final class JdbcErpRepository implements ErpRepository {
         });
     }
 
+    @Override
+    public int replaceCatalog(CatalogSource source) {
+        String insertCourse = "INSERT INTO courses (course_id, code, title, credits) VALUES (?, ?, ?, ?)";
+        String insertSection = """
+                INSERT INTO sections (section_id, course_id, instructor_id, day_of_week, start_time, end_time,
+                                      room, capacity, semester, academic_year, registration_deadline, weighting_rule, component_names)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+        // Deleting and inserting on one connection inside one transaction means readers see
+        // either the old catalog or the new one. Rows go out in batches, which the driver
+        // rewrites into multi-row INSERTs, so only one batch is held at a time.
+        return inTransaction(connection -> {
+            try (PreparedStatement deleteSections = connection.prepareStatement("DELETE FROM sections");
+                 PreparedStatement deleteCourses = connection.prepareStatement("DELETE FROM courses");
+                 PreparedStatement courses = connection.prepareStatement(insertCourse);
+                 PreparedStatement sections = connection.prepareStatement(insertSection)) {
+                deleteSections.executeUpdate();
+                deleteCourses.executeUpdate();
+                BatchWriter<Course> courseWriter = new BatchWriter<>(courses, JdbcErpRepository::bindCourse);
+                // Sections reference courses, so pending courses are written before each
+                // batch of sections.
+                BatchWriter<Section> sectionWriter = new BatchWriter<>(sections, JdbcErpRepository::bindSection,
+                        List.of(courseWriter));
+                source.read(courseWriter, sectionWriter);
+                courseWriter.flush();
+                sectionWriter.flush();
+                return courseWriter.written() + sectionWriter.written();
+            }
+        });
+    }
+
+    @Override
+    public List<CourseCatalogRow> listCatalog() {
+        String sql = """
+                SELECT s.section_id, s.day_of_week, s.start_time, s.end_time, s.capacity,
+                       c.code, c.title AS course_title, c.credits,
+                       i.title AS instructor_title, i.department,
+                       s.seats_taken
+                FROM sections s
+                JOIN courses c ON c.course_id = s.course_id
+                LEFT JOIN instructors i ON i.user_id = s.instructor_id
+                ORDER BY c.code
+                """;
+        return queryList(sql, ps -> {
+        }, this::mapCatalogRow);
+    }
+
     @Override
     public List<Enrollment> findEnrollmentsByStudent(String studentId) {
         String sql = "SELECT enrollment_id, student_id, section_id, status FROM enrollments WHERE student_id = ?";
@@ -211,26 +312,105 @@ public final class JdbcErpRepository implements ErpRepository {
 
     @Override
     public void saveEnrollment(Enrollment enrollment) {
-        String sql = """
+        String lockExisting = "SELECT section_id FROM enrollments WHERE enrollment_id = ? FOR UPDATE";
+        String insert = """
                 INSERT INTO enrollments (enrollment_id, student_id, section_id, status)
                 VALUES (?, ?, ?, ?)
-                ON DUPLICATE KEY UPDATE
-                    student_id = VALUES(student_id),
-                    section_id = VALUES(section_id),
-                    status = VALUES(status)
                 """;
-        executeUpdate(sql, ps -> {
-            ps.setString(1, enrollment.getEnrollmentId());
-            ps.setString(2, enrollment.getStudentId());
-            ps.setString(3, enrollment.getSectionId());
-            ps.setString(4, enrollment.getStatus().name());
+        String update = """
+                UPDATE enrollments SET student_id = ?, section_id = ?, status = ?
+                WHERE enrollment_id = ?
+                """;
+        inTransaction(connection -> {
+            String previousSectionId = null;
+            try (PreparedStatement ps = connection.prepareStatement(lockExisting)) {
+                ps.setString(1, enrollment.getEnrollmentId());
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        previousSectionId = rs.getString("section_id");
+                    }
+                }
+            }
+            if (previousSectionId == null) {
+                try (PreparedStatement ps = connection.prepareStatement(insert)) {
+                    bindEnrollment(ps, enrollment);
+                    ps.executeUpdate();
+                }
+                adjustSeatsTaken(connection, enrollment.getSectionId(), 1);
+                return null;
+            }
+            if (!previousSectionId.equals(enrollment.getSectionId())) {
+                // A move frees the old seat and has to win a seat in the new section.
+                adjustSeatsTaken(connection, previousSectionId, -1);
+                claimSeat(connection, enrollment.getSectionId());
+            }
+            try (PreparedStatement ps = connection.prepareStatement(update)) {
+                ps.setString(1, enrollment.getStudentId());
+                ps.setString(2, enrollment.getSectionId());
+                ps.setString(3, enrollment.getStatus().name());
+                ps.setString(4, enrollment.getEnrollmentId());
+                ps.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public SeatReservation reserveSeat(Enrollment enrollment) {
+        String claimSeat = """
+                UPDATE sections SET seats_taken = seats_taken + 1
+                WHERE section_id = ? AND seats_taken < capacity
+                """;
+        String insert = """
+                INSERT INTO enrollments (enrollment_id, student_id, section_id, status)
+                VALUES (?, ?, ?, ?)
+                """;
+        return inTransaction(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(claimSeat)) {
+                ps.setString(1, enrollment.getSectionId());
+                if (ps.executeUpdate() == 0) {
+                    connection.rollback();
+                    return SeatReservation.SECTION_FULL;
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(insert)) {
+                bindEnrollment(ps, enrollment);
+                ps.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException violation) {
+                if (violation.getErrorCode() != ER_DUP_ENTRY) {
+                    throw violation;
+                }
+                connection.rollback();
+                return SeatReservation.ALREADY_ENROLLED;
+            }
+            return SeatReservation.RESERVED;
         });
     }
 
     @Override
     public void deleteEnrollment(String enrollmentId) {
-        String sql = "DELETE FROM enrollments WHERE enrollment_id = ?";
-        executeUpdate(sql, ps -> ps.setString(1, enrollmentId));
+        String lockExisting = "SELECT section_id FROM enrollments WHERE enrollment_id = ? FOR UPDATE";
+        String delete = "DELETE FROM enrollments WHERE enrollment_id = ?";
+        inTransaction(connection -> {
+            String sectionId = null;
+            try (PreparedStatement ps = connection.prepareStatement(lockExisting)) {
+                ps.setString(1, enrollmentId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        sectionId = rs.getString("section_id");
+                    }
+                }
+            }
+            if (sectionId == null) {
+                return null;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(delete)) {
+                ps.setString(1, enrollmentId);
+                ps.executeUpdate();
+            }
+            adjustSeatsTaken(connection, sectionId, -1);
+            return null;
+        });
     }
 
     @Override
@@ -252,40 +432,456 @@ public final class JdbcErpRepository implements ErpRepository {
         }
     }
 
+    @Override
+    public Map<String, GradeBook> findGradeBooks(Collection<String> enrollmentIds) {
+        String booksSql = "SELECT enrollment_id, final_grade FROM grade_books WHERE enrollment_id IN (%s)";
+        String componentsSql = """
+                SELECT enrollment_id, name, score, weight
+                FROM grade_components
+                WHERE enrollment_id IN (%s)
+                """;
+        List<String> ids = distinct(enrollmentIds);
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            Map<String, Double> finalGrades = new HashMap<>();
+            queryInChunks(connection, booksSql, ids, rs -> finalGrades.put(
+                    rs.getString("enrollment_id"),
+                    rs.getObject("final_grade") == null ? null : rs.getDouble("final_grade")));
+            if (finalGrades.isEmpty()) {
+                return new HashMap<>();
+            }
+            Map<String, List<GradeComponent>> components = new HashMap<>();
+            queryInChunks(connection, componentsSql, new ArrayList<>(finalGrades.keySet()), rs -> components
+                    .computeIfAbsent(rs.getString("enrollment_id"), id -> new ArrayList<>())
+                    .add(new GradeComponent(rs.getString("name"), rs.getDouble("score"), rs.getDouble("weight"))));
+            Map<String, GradeBook> gradeBooks = new HashMap<>();
+            finalGrades.forEach((enrollmentId, finalGrade) -> gradeBooks.put(enrollmentId, new GradeBook(
+                    enrollmentId, components.getOrDefault(enrollmentId, List.of()), finalGrade)));
+            return gradeBooks;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load grade books", e);
+        }
+    }
+
+    @Override
+    public Map<String, GradeBook> findGradeBooksBySection(String sectionId) {
+        String sql = """
+                SELECT gb.enrollment_id, gb.final_grade, gc.name, gc.score, gc.weight
+                FROM enrollments e
+                JOIN grade_books gb ON gb.enrollment_id = e.enrollment_id
+                LEFT JOIN grade_components gc ON gc.enrollment_id = gb.enrollment_id
+                WHERE e.section_id = ?
+                ORDER BY gb.enrollment_id, gc.component_id
+                """;
+        Map<String, GradeBook> gradeBooks = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                // Rows arrive grouped by enrollment; close each book when the id changes.
+                String currentId = null;
+                Double currentFinal = null;
+                List<GradeComponent> components = new ArrayList<>();
+                while (rs.next()) {
+                    String enrollmentId = rs.getString("enrollment_id");
+                    if (!enrollmentId.equals(currentId)) {
+                        if (currentId != null) {
+                            gradeBooks.put(currentId, new GradeBook(currentId, components, currentFinal));
+                        }
+                        currentId = enrollmentId;
+                        currentFinal = rs.getObject("final_grade") == null ? null : rs.getDouble("final_grade");
+                        components = new ArrayList<>();
+                    }
+                    String name = rs.getString("name");
+                    if (name != null) {
+                        components.add(new GradeComponent(name, rs.getDouble("score"), rs.getDouble("weight")));
+                    }
+                }
+                if (currentId != null) {
+                    gradeBooks.put(currentId, new GradeBook(currentId, components, currentFinal));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to load section grade books", e);
+        }
+        return gradeBooks;
+    }
+
     @Override
     public void saveGradeBook(GradeBook gradeBook) {
+        saveGradeBooks(List.of(gradeBook));
+    }
+
+    @Override
+    public void saveGradeBooks(Collection<GradeBook> gradeBooks) {
+        if (gradeBooks.isEmpty()) {
+            return;
+        }
         String upsertBook = """
                 INSERT INTO grade_books (enrollment_id, final_grade)
                 VALUES (?, ?)
                 ON DUPLICATE KEY UPDATE final_grade = VALUES(final_grade)
                 """;
-        executeUpdate(upsertBook, ps -> {
-            ps.setString(1, gradeBook.getEnrollmentId());
-            ps.setObject(2, gradeBook.getFinalGrade().orElse(null));
-        });
-
         String deleteComponents = "DELETE FROM grade_components WHERE enrollment_id = ?";
-        executeUpdate(deleteComponents, ps -> ps.setString(1, gradeBook.getEnrollmentId()));
-
         String insertComponent = """
                 INSERT INTO grade_components (enrollment_id, name, score, weight)
                 VALUES (?, ?, ?, ?)
                 """;
+        // One connection and one commit for the whole set, so no reader sees a book whose old
+        // components are gone but whose new ones are not written yet.
+        inTransaction(connection -> {
+            try (PreparedStatement books = connection.prepareStatement(upsertBook);
+                 PreparedStatement deletes = connection.prepareStatement(deleteComponents);
+                 PreparedStatement inserts = connection.prepareStatement(insertComponent)) {
+                for (GradeBook gradeBook : gradeBooks) {
+                    books.setString(1, gradeBook.getEnrollmentId());
+                    books.setObject(2, gradeBook.getFinalGrade().orElse(null));
+                    books.addBatch();
+                    deletes.setString(1, gradeBook.getEnrollmentId());
+                    deletes.addBatch();
+                    for (GradeComponent component : gradeBook.getComponents()) {
+                        inserts.setString(1, gradeBook.getEnrollmentId());
+                        inserts.setString(2, component.getName());
+                        inserts.setDouble(3, component.getScore());
+                        inserts.setDouble(4, component.getWeight());
+                        inserts.addBatch();
+                    }
+                }
+                books.executeBatch();
+                deletes.executeBatch();
+                inserts.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void saveFinalGrades(Map<String, Double> finalGrades) {
+        if (finalGrades.isEmpty()) {
+            return;
+        }
+        String sql = """
+                INSERT INTO grade_books (enrollment_id, final_grade)
+                VALUES (?, ?)
+                ON DUPLICATE KEY UPDATE final_grade = VALUES(final_grade)
+                """;
+        inTransaction(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (Map.Entry<String, Double> entry : finalGrades.entrySet()) {
+                    ps.setString(1, entry.getKey());
+                    ps.setObject(2, entry.getValue());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int countStudents(CohortFilter filter) {
+        String sql = "SELECT COUNT(*) FROM students s" + cohortWhere(filter);
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(insertComponent)) {
-            for (GradeComponent component : gradeBook.getComponents()) {
-                ps.setString(1, gradeBook.getEnrollmentId());
-                ps.setString(2, component.getName());
-                ps.setDouble(3, component.getScore());
-                ps.setDouble(4, component.getWeight());
-                ps.addBatch();
-            }
-            ps.executeBatch();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            bindCohort(ps, filter);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
         } catch (SQLException e) {
-            throw new IllegalStateException("Failed to persist grade components", e);
+            throw new IllegalStateException("Failed to count students", e);
         }
     }
 
+    @Override
+    public void streamTranscripts(CohortFilter filter, Consumer<StudentTranscript> sink) {
+        // One pass over the whole cohort. The nested join keeps students with no enrollments,
+        // and enrollments whose section or course is gone are dropped as in viewGrades.
+        String sql = """
+                SELECT s.user_id, s.roll_no, s.program, s.academic_year,
+                       e.enrollment_id, e.section_id, c.code, gb.final_grade, gc.name, gc.score, gc.weight
+                FROM students s
+                LEFT JOIN (enrollments e
+                           JOIN sections sec ON sec.section_id = e.section_id
+                           JOIN courses c ON c.course_id = sec.course_id)
+                       ON e.student_id = s.user_id
+                LEFT JOIN grade_books gb ON gb.enrollment_id = e.enrollment_id
+                LEFT JOIN grade_components gc ON gc.enrollment_id = gb.enrollment_id
+                """ + cohortWhere(filter) + """
+
+                ORDER BY s.user_id, e.enrollment_id, gc.component_id
+                """;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Tells Connector/J to stream rows instead of buffering the whole result.
+            ps.setFetchSize(Integer.MIN_VALUE);
+            bindCohort(ps, filter);
+            try (ResultSet rs = ps.executeQuery()) {
+                // Rows arrive grouped by student, then enrollment; close each group when its id changes.
+                Student student = null;
+                List<GradeView> grades = new ArrayList<>();
+                String enrollmentId = null;
+                GradeView grade = null;
+                while (rs.next()) {
+                    String userId = rs.getString("user_id");
+                    if (student == null || !student.getUserId().equals(userId)) {
+                        if (student != null) {
+                            sink.accept(new StudentTranscript(student, grades));
+                        }
+                        student = mapStudent(rs);
+                        grades = new ArrayList<>();
+                        enrollmentId = null;
+                    }
+                    String rowEnrollmentId = rs.getString("enrollment_id");
+                    if (rowEnrollmentId == null) {
+                        continue;
+                    }
+                    if (!rowEnrollmentId.equals(enrollmentId)) {
+                        enrollmentId = rowEnrollmentId;
+                        Double finalGrade = rs.getObject("final_grade") == null ? null : rs.getDouble("final_grade");
+                        grade = new GradeView(rs.getString("code"), rs.getString("section_id"), new ArrayList<>(), finalGrade);
+                        grades.add(grade);
+                    }
+                    String name = rs.getString("name");
+                    if (name != null) {
+                        grade.components().add(new GradeView.ComponentScore(name, rs.getDouble("score"), rs.getDouble("weight")));
+                    }
+                }
+                if (student != null) {
+                    sink.accept(new StudentTranscript(student, grades));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to stream transcripts", e);
+        }
+    }
+
+    private static String cohortWhere(CohortFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.program() != null) {
+            conditions.add("s.program = ?");
+        }
+        if (filter.year() != null) {
+            conditions.add("s.academic_year = ?");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void bindCohort(PreparedStatement ps, CohortFilter filter) throws SQLException {
+        int index = 1;
+        if (filter.program() != null) {
+            ps.setString(index++, filter.program());
+        }
+        if (filter.year() != null) {
+            ps.setInt(index, filter.year());
+        }
+    }
+
+    @Override
+    public void streamStudents(Consumer<Student> sink) {
+        String sql = "SELECT user_id, roll_no, program, academic_year FROM students ORDER BY user_id";
+        streamQuery(sql, rs -> {
+            while (rs.next()) {
+                sink.accept(mapStudent(rs));
+            }
+        });
+    }
+
+    @Override
+    public void streamInstructors(Consumer<Instructor> sink) {
+        String sql = "SELECT user_id, department, title FROM instructors ORDER BY user_id";
+        streamQuery(sql, rs -> {
+            while (rs.next()) {
+                sink.accept(mapInstructor(rs));
+            }
+        });
+    }
+
+    @Override
+    public void streamEnrollments(Consumer<Enrollment> sink) {
+        String sql = "SELECT enrollment_id, student_id, section_id, status FROM enrollments ORDER BY enrollment_id";
+        streamQuery(sql, rs -> {
+            while (rs.next()) {
+                sink.accept(mapEnrollment(rs));
+            }
+        });
+    }
+
+    @Override
+    public void streamGradeBooks(Consumer<GradeBook> sink) {
+        String sql = """
+                SELECT gb.enrollment_id, gb.final_grade, gc.name, gc.score, gc.weight
+                FROM grade_books gb
+                LEFT JOIN grade_components gc ON gc.enrollment_id = gb.enrollment_id
+                ORDER BY gb.enrollment_id, gc.component_id
+                """;
+        streamQuery(sql, rs -> {
+            // Rows arrive grouped by enrollment; hand each book over when the id changes.
+            String enrollmentId = null;
+            Double finalGrade = null;
+            List<GradeComponent> components = new ArrayList<>();
+            while (rs.next()) {
+                String rowEnrollmentId = rs.getString("enrollment_id");
+                if (!rowEnrollmentId.equals(enrollmentId)) {
+                    if (enrollmentId != null) {
+                        sink.accept(new GradeBook(enrollmentId, components, finalGrade));
+                    }
+                    enrollmentId = rowEnrollmentId;
+                    finalGrade = rs.getObject("final_grade") == null ? null : rs.getDouble("final_grade");
+                    components = new ArrayList<>();
+                }
+                String name = rs.getString("name");
+                if (name != null) {
+                    components.add(new GradeComponent(name, rs.getDouble("score"), rs.getDouble("weight")));
+                }
+            }
+            if (enrollmentId != null) {
+                sink.accept(new GradeBook(enrollmentId, components, finalGrade));
+            }
+        });
+    }
+
+    @Override
+    public int replaceAll(ErpDataSource source) {
+        String insertStudent = "INSERT INTO students (user_id, roll_no, program, academic_year) VALUES (?, ?, ?, ?)";
+        String insertInstructor = "INSERT INTO instructors (user_id, department, title) VALUES (?, ?, ?)";
+        String insertCourse = "INSERT INTO courses (course_id, code, title, credits) VALUES (?, ?, ?, ?)";
+        String insertSection = """
+                INSERT INTO sections (section_id, course_id, instructor_id, day_of_week, start_time, end_time,
+                                      room, capacity, semester, academic_year, registration_deadline, weighting_rule, component_names)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """;
+        String insertEnrollment = "INSERT INTO enrollments (enrollment_id, student_id, section_id, status) VALUES (?, ?, ?, ?)";
+        String insertBook = "INSERT INTO grade_books (enrollment_id, final_grade) VALUES (?, ?)";
+        String insertComponent = "INSERT INTO grade_components (enrollment_id, name, score, weight) VALUES (?, ?, ?, ?)";
+        String recountSeats = """
+                UPDATE sections s
+                SET seats_taken = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id)
+                """;
+        String saveMaintenance = """
+                INSERT INTO settings (key_name, value)
+                VALUES ('maintenance_on', ?)
+                ON DUPLICATE KEY UPDATE value = VALUES(value)
+                """;
+        // Children before parents, so no foreign key is left dangling part way.
+        List<String> deletes = List.of(
+                "DELETE FROM grade_components",
+                "DELETE FROM grade_books",
+                "DELETE FROM enrollments",
+                "DELETE FROM sections",
+                "DELETE FROM courses",
+                "DELETE FROM instructors",
+                "DELETE FROM students");
+        return inTransaction(connection -> {
+            for (String delete : deletes) {
+                try (PreparedStatement ps = connection.prepareStatement(delete)) {
+                    ps.executeUpdate();
+                }
+            }
+            try (PreparedStatement students = connection.prepareStatement(insertStudent);
+                 PreparedStatement instructors = connection.prepareStatement(insertInstructor);
+                 PreparedStatement courses = connection.prepareStatement(insertCourse);
+                 PreparedStatement sections = connection.prepareStatement(insertSection);
+                 PreparedStatement enrollments = connection.prepareStatement(insertEnrollment);
+                 PreparedStatement books = connection.prepareStatement(insertBook);
+                 PreparedStatement components = connection.prepareStatement(insertComponent);
+                 PreparedStatement settings = connection.prepareStatement(saveMaintenance)) {
+                // In foreign key order; a table's pending batch is written before any later
+                // table's batch, whose rows may refer to it.
+                List<BatchWriter<?>> writers = new ArrayList<>();
+                BatchWriter<Student> studentWriter = ordered(writers, students, (ps, student) -> {
+                    ps.setString(1, student.getUserId());
+                    ps.setString(2, student.getRollNumber());
+                    ps.setString(3, student.getProgram());
+                    ps.setInt(4, student.getYear());
+                });
+                BatchWriter<Instructor> instructorWriter = ordered(writers, instructors, (ps, instructor) -> {
+                    ps.setString(1, instructor.getUserId());
+                    ps.setString(2, instructor.getDepartment());
+                    ps.setString(3, instructor.getTitle());
+                });
+                BatchWriter<Course> courseWriter = ordered(writers, courses, JdbcErpRepository::bindCourse);
+                BatchWriter<Section> sectionWriter = ordered(writers, sections, JdbcErpRepository::bindSection);
+                BatchWriter<Enrollment> enrollmentWriter = ordered(writers, enrollments, this::bindEnrollment);
+                BatchWriter<GradeBook> bookWriter = ordered(writers, books, (ps, book) -> {
+                    ps.setString(1, book.getEnrollmentId());
+                    ps.setObject(2, book.getFinalGrade().orElse(null));
+                });
+                BatchWriter<ComponentRow> componentWriter = ordered(writers, components, (ps, row) -> {
+                    ps.setString(1, row.enrollmentId());
+                    ps.setString(2, row.component().getName());
+                    ps.setDouble(3, row.component().getScore());
+                    ps.setDouble(4, row.component().getWeight());
+                });
+                MaintenanceSetting[] maintenance = {null};
+                source.read(new ErpDataSource.Sink() {
+                    @Override
+                    public void student(Student student) {
+                        studentWriter.accept(student);
+                    }
+
+                    @Override
+                    public void instructor(Instructor instructor) {
+                        instructorWriter.accept(instructor);
+                    }
+
+                    @Override
+                    public void course(Course course) {
+                        courseWriter.accept(course);
+                    }
+
+                    @Override
+                    public void section(Section section) {
+                        sectionWriter.accept(section);
+                    }
+
+                    @Override
+                    public void enrollment(Enrollment enrollment) {
+                        enrollmentWriter.accept(enrollment);
+                    }
+
+                    @Override
+                    public void gradeBook(GradeBook gradeBook) {
+                        bookWriter.accept(gradeBook);
+                        for (GradeComponent component : gradeBook.getComponents()) {
+                            componentWriter.accept(new ComponentRow(gradeBook.getEnrollmentId(), component));
+                        }
+                    }
+
+                    @Override
+                    public void maintenanceSetting(MaintenanceSetting setting) {
+                        maintenance[0] = setting;
+                    }
+                });
+                int stored = 0;
+                for (BatchWriter<?> writer : writers) {
+                    writer.flush();
+                    stored += writer.written();
+                }
+                // Components are part of their grade book, not records of their own.
+                stored -= componentWriter.written();
+                try (PreparedStatement ps = connection.prepareStatement(recountSeats)) {
+                    ps.executeUpdate();
+                }
+                if (maintenance[0] != null) {
+                    settings.setString(1, String.valueOf(maintenance[0].isMaintenanceOn()));
+                    settings.executeUpdate();
+                    stored++;
+                }
+                return stored;
+            }
+        });
+    }
+
+    private static <T> BatchWriter<T> ordered(List<BatchWriter<?>> writers, PreparedStatement ps, BatchWriter.Binder<T> binder) {
+        List<BatchWriter<?>> earlier = List.copyOf(writers);
+        BatchWriter<T> writer = new BatchWriter<>(ps, binder, earlier);
+        writers.add(writer);
+        return writer;
+    }
+
     @Override
     public MaintenanceSetting getMaintenanceSetting() {
         String sql = "SELECT value FROM settings WHERE key_name = 'maintenance_on'";
@@ -333,6 +929,59 @@ public final class JdbcErpRepository implements ErpRepository {
         return components;
     }
 
+    private void bindEnrollment(PreparedStatement ps, Enrollment enrollment) throws SQLException {
+        ps.setString(1, enrollment.getEnrollmentId());
+        ps.setString(2, enrollment.getStudentId());
+        ps.setString(3, enrollment.getSectionId());
+        ps.setString(4, enrollment.getStatus().name());
+    }
+
+    private static void bindCourse(PreparedStatement ps, Course course) throws SQLException {
+        ps.setString(1, course.getCourseId());
+        ps.setString(2, course.getCode());
+        ps.setString(3, course.getTitle());
+        ps.setInt(4, course.getCredits());
+    }
+
+    private static void bindSection(PreparedStatement ps, Section section) throws SQLException {
+        ps.setString(1, section.getSectionId());
+        ps.setString(2, section.getCourseId());
+        ps.setString(3, section.getInstructorId());
+        ps.setString(4, section.getDayOfWeek().name());
+        ps.setTime(5, Time.valueOf(section.getStartTime()));
+        ps.setTime(6, Time.valueOf(section.getEndTime()));
+        ps.setString(7, section.getRoom());
+        ps.setInt(8, section.getCapacity());
+        ps.setInt(9, section.getSemester());
+        ps.setInt(10, section.getYear());
+        ps.setDate(11, Date.valueOf(section.getRegistrationDeadline()));
+        ps.setString(12, section.getWeightingRule());
+        ps.setString(13, section.getComponentNames());
+    }
+
+    private void adjustSeatsTaken(Connection connection, String sectionId, int delta) throws SQLException {
+        String sql = "UPDATE sections SET seats_taken = seats_taken + ? WHERE section_id = ? AND seats_taken + ? >= 0";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, delta);
+            ps.setString(2, sectionId);
+            ps.setInt(3, delta);
+            if (ps.executeUpdate() == 0) {
+                // The counter no longer matches the enrollments; clamping would hide that.
+                throw new IllegalStateException("Seat count for section " + sectionId + " cannot change by " + delta);
+            }
+        }
+    }
+
+    private void claimSeat(Connection connection, String sectionId) throws SQLException {
+        String sql = "UPDATE sections SET seats_taken = seats_taken + 1 WHERE section_id = ? AND seats_taken < capacity";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, sectionId);
+            if (ps.executeUpdate() == 0) {
+                throw new IllegalStateException("Section " + sectionId + " is full");
+            }
+        }
+    }
+
     private Student mapStudent(ResultSet rs) throws SQLException {
         return new Student(
                 rs.getString("user_id"),
@@ -377,6 +1026,22 @@ public final class JdbcErpRepository implements ErpRepository {
         );
     }
 
+    private CourseCatalogRow mapCatalogRow(ResultSet rs) throws SQLException {
+        return new CourseCatalogRow(
+                rs.getString("section_id"),
+                rs.getString("code"),
+                rs.getString("course_title"),
+                rs.getInt("credits"),
+                CourseCatalogRow.formatInstructor(rs.getString("instructor_title"), rs.getString("department")),
+                CourseCatalogRow.formatSchedule(
+                        DayOfWeek.valueOf(rs.getString("day_of_week")),
+                        rs.getTime("start_time").toLocalTime(),
+                        rs.getTime("end_time").toLocalTime()),
+                rs.getInt("capacity"),
+                rs.getInt("seats_taken")
+        );
+    }
+
     private Enrollment mapEnrollment(ResultSet rs) throws SQLException {
         return new Enrollment(
                 rs.getString("enrollment_id"),
@@ -421,6 +1086,69 @@ public final class JdbcErpRepository implements ErpRepository {
         return results;
     }
 
+    private <T> Map<String, T> queryByIds(String sqlTemplate,
+                                          Collection<String> ids,
+                                          SqlFunction<ResultSet, T> mapper,
+                                          Function<T, String> keyOf) {
+        Map<String, T> results = new HashMap<>();
+        List<String> distinctIds = distinct(ids);
+        if (distinctIds.isEmpty()) {
+            return results;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            queryInChunks(connection, sqlTemplate, distinctIds, rs -> {
+                T value = mapper.apply(rs);
+                results.put(keyOf.apply(value), value);
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to execute query", e);
+        }
+        return results;
+    }
+
+    /**
+     * Runs {@code sqlTemplate} once per chunk of {@code ids}, with its {@code %s} replaced by the
+     * chunk's placeholders. Short chunks are padded to a power of two by repeating the last id,
+     * which keeps the number of distinct statements small enough for the prepared statement cache.
+     */
+    private void queryInChunks(Connection connection,
+                               String sqlTemplate,
+                               List<String> ids,
+                               SqlConsumer<ResultSet> rowHandler) throws SQLException {
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + IN_CLAUSE_CHUNK));
+            int slots = Math.min(IN_CLAUSE_CHUNK, Integer.highestOneBit(chunk.size() * 2 - 1));
+            String sql = sqlTemplate.formatted(String.join(", ", Collections.nCopies(slots, "?")));
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (int i = 0; i < slots; i++) {
+                    ps.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rowHandler.accept(rs);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> distinct(Collection<String> ids) {
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    /** Runs {@code sql} with Connector/J streaming its rows rather than buffering the result. */
+    private void streamQuery(String sql, SqlConsumer<ResultSet> reader) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = ps.executeQuery()) {
+                reader.accept(rs);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to stream query", e);
+        }
+    }
+
     private void executeUpdate(String sql, SqlConsumer<PreparedStatement> binder) {
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
@@ -431,11 +1159,33 @@ public final class JdbcErpRepository implements ErpRepository {
         }
     }
 
+    private <T> T inTransaction(SqlFunction<Connection, T> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.apply(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to execute transaction", e);
+        }
+    }
+
     @FunctionalInterface
     private interface SqlConsumer<T> {
         void accept(T t) throws SQLException;
     }
 
+    private record ComponentRow(String enrollmentId, GradeComponent component) {
+    }
+
     @FunctionalInterface
     private interface SqlFunction<T, R> {
         R apply(T t) throws SQLException;
@@ -0,0 +1,62 @@
+package edu.univ.erp.data.jdbc;
+
+import edu.univ.erp.data.page.PageRequest;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the filtered, keyset-paginated form of a listing query. Conditions are added one at a
+ * time with their bind values; {@link #sql} then appends the seek predicate, the ordering on the
+ * key column in the requested direction and a limit one past the page size so the caller can
+ * tell whether more rows follow.
+ */
+final class KeysetQuery {
+
+    private final List<String> conditions = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    KeysetQuery equalTo(String column, Object value) {
+        if (value != null) {
+            conditions.add(column + " = ?");
+            values.add(value);
+        }
+        return this;
+    }
+
+    KeysetQuery startsWith(String column, String prefix) {
+        if (prefix != null) {
+            conditions.add(column + " LIKE ? ESCAPE '!'");
+            values.add(prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+        }
+        return this;
+    }
+
+    String sql(String select, String keyColumn, PageRequest request) {
+        List<String> predicates = new ArrayList<>(conditions);
+        if (request.after() != null) {
+            predicates.add(keyColumn + (request.descending() ? " < ?" : " > ?"));
+        }
+        StringBuilder sql = new StringBuilder(select.strip());
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        return sql.append(" ORDER BY ").append(keyColumn)
+                .append(request.descending() ? " DESC" : "")
+                .append(" LIMIT ?")
+                .toString();
+    }
+
+    void bind(PreparedStatement ps, PageRequest request) throws SQLException {
+        int index = 1;
+        for (Object value : values) {
+            ps.setObject(index++, value);
+        }
+        if (request.after() != null) {
+            ps.setString(index++, request.after());
+        }
+        ps.setInt(index, request.limit() + 1);
+    }
+}
@@ -2,9 +2,14 @@ package edu.univ.erp.data.memory;
 
 import edu.univ.erp.data.auth.AuthRecord;
 import edu.univ.erp.data.auth.AuthRepository;
+import edu.univ.erp.data.auth.UserFilter;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public final class InMemoryAuthRepository implements AuthRepository {
@@ -17,11 +22,7 @@ public final class InMemoryAuthRepository implements AuthRepository {
 
     @Override
     public Optional<AuthRecord> findByUsername(String username) {
-        return store.authRecords()
-                .values()
-                .stream()
-                .filter(record -> record.username().equalsIgnoreCase(username))
-                .findFirst();
+        return store.findAuthRecordByUsername(username);
     }
 
     @Override
@@ -31,13 +32,38 @@ public final class InMemoryAuthRepository implements AuthRepository {
 
     @Override
     public void save(AuthRecord record) {
-        store.authRecords().put(record.userId(), record);
-        store.save();
+        store.putAuthRecord(record);
+    }
+
+    @Override
+    public void updateLockout(String userId, int failedAttempts, LocalDateTime lockoutUntil) {
+        store.updateAuthRecord(userId, record -> record.withFailedAttempts(failedAttempts).withLockoutUntil(lockoutUntil));
+    }
+
+    @Override
+    public void updatePasswordHash(String userId, String passwordHash) {
+        store.updateAuthRecord(userId, record -> record.withPasswordHash(passwordHash));
+    }
+
+    @Override
+    public void recordLogin(String userId, LocalDateTime loginTime) {
+        store.updateAuthRecord(userId, record -> record.withLastLogin(loginTime));
+    }
+
+    @Override
+    public void recordLogins(Map<String, LocalDateTime> loginTimes) {
+        loginTimes.forEach(this::recordLogin);
     }
 
     @Override
     public List<AuthRecord> findAll() {
         return new ArrayList<>(store.authRecords().values());
     }
-}
 
+    @Override
+    public Page<AuthRecord> findAll(UserFilter filter, PageRequest request) {
+        return InMemoryPaging.page(store.authRecords().values(), AuthRecord::username, request,
+                record -> (filter.role() == null || record.role() == filter.role())
+                        && InMemoryPaging.hasPrefix(record.username(), filter.usernamePrefix()));
+    }
+}
@@ -2,6 +2,8 @@ package edu.univ.erp.data.memory;
 
 import edu.univ.erp.auth.PasswordHasher;
 import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.data.erp.ErpDataSource;
+import edu.univ.erp.data.erp.SeatReservation;
 import edu.univ.erp.domain.course.Course;
 import edu.univ.erp.domain.course.Section;
 import edu.univ.erp.domain.enrollment.Enrollment;
@@ -13,33 +15,56 @@ import edu.univ.erp.domain.settings.MaintenanceSetting;
 import edu.univ.erp.domain.student.Student;
 import edu.univ.erp.domain.user.Role;
 
+import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 public final class InMemoryDataStore implements Serializable {
 
     private static final long serialVersionUID = 1L;
     private static final String DATA_DIR = "data";
     private static final String DATA_FILE = "erp-data.dat";
+    private static final String JOURNAL_FILE = "erp-data.journal";
+    private static final long SNAPSHOT_EVERY = Long.getLong("erp.memory.snapshotEvery", 5_000L);
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 4;
     private static final boolean ENABLE_DISK_CACHE = Boolean.parseBoolean(System.getProperty("erp.memory.disk", "false"));
     
     private static Path getDataFilePath() {
+        return getDataDirectory().resolve(DATA_FILE);
+    }
+
+    private static Path getJournalFilePath() {
+        return getDataDirectory().resolve(JOURNAL_FILE);
+    }
+
+    private static Path getDataDirectory() {
         // Try to use a data directory in the current working directory
         // This ensures the file is always in a predictable location
         Path dataDir = Paths.get(DATA_DIR);
@@ -49,19 +74,35 @@ public final class InMemoryDataStore implements Serializable {
             }
         } catch (IOException e) {
             System.err.println("Warning: Could not create data directory, using current directory: " + e.getMessage());
-            return Paths.get(DATA_FILE);
+            return Paths.get("");
         }
-        return dataDir.resolve(DATA_FILE);
+        return dataDir;
     }
 
-    private final Map<String, AuthRecord> authRecords = new HashMap<>();
-    private final Map<String, Student> students = new HashMap<>();
-    private final Map<String, Instructor> instructors = new HashMap<>();
-    private final Map<String, Course> courses = new HashMap<>();
-    private final Map<String, Section> sections = new HashMap<>();
-    private final Map<String, Enrollment> enrollments = new HashMap<>();
-    private final Map<String, GradeBook> gradeBooks = new HashMap<>();
-    private MaintenanceSetting maintenanceSetting = new MaintenanceSetting(false);
+    private final Map<String, AuthRecord> authRecords = new ConcurrentHashMap<>();
+    private final Map<String, Student> students = new ConcurrentHashMap<>();
+    private final Map<String, Instructor> instructors = new ConcurrentHashMap<>();
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+    private final Map<String, Section> sections = new ConcurrentHashMap<>();
+    private final Map<String, Enrollment> enrollments = new ConcurrentHashMap<>();
+    private final Map<String, GradeBook> gradeBooks = new ConcurrentHashMap<>();
+    private volatile MaintenanceSetting maintenanceSetting = new MaintenanceSetting(false);
+    // Derived state, rebuilt in readResolve rather than written to disk.
+    private final transient Map<String, Map<String, Enrollment>> enrollmentsByStudent = new ConcurrentHashMap<>();
+    private final transient Map<String, Map<String, Enrollment>> enrollmentsBySection = new ConcurrentHashMap<>();
+    private final transient Map<StudentSection, Enrollment> enrollmentsByStudentSection = new ConcurrentHashMap<>();
+    private final transient Map<String, AtomicInteger> seatsTaken = new ConcurrentHashMap<>();
+    private final transient Map<String, String> userIdsByUsername = new ConcurrentHashMap<>();
+    // Writers hold the read side, so they only contend on their entity's stripe; whole-store
+    // snapshots take the write side to see every map at the same instant.
+    private final transient ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final transient StripedLock entityLocks = new StripedLock(64);
+    private final transient StripedLock registrationLocks = new StripedLock(64);
+    // Bumped around every single-entity write, so readConsistent can tell whether one started,
+    // or was still running, while it read.
+    private final transient AtomicLong writesStarted = new AtomicLong();
+    private final transient AtomicLong writesFinished = new AtomicLong();
+    private transient InMemoryJournal journal;
 
     public static InMemoryDataStore seed() {
         InMemoryDataStore store = ENABLE_DISK_CACHE ? load() : null;
@@ -69,10 +110,21 @@ public final class InMemoryDataStore implements Serializable {
             store = new InMemoryDataStore();
             store.bootstrap();
             store.save();
+            store.openJournal();
         }
         return store;
     }
 
+    /**
+     * Returns a store with no data and no journal, for tools that build their own dataset.
+     */
+    public static InMemoryDataStore empty() {
+        return new InMemoryDataStore();
+    }
+
+    /**
+     * Loads the last snapshot and replays the journal written since it was taken.
+     */
     public static InMemoryDataStore load() {
         if (!ENABLE_DISK_CACHE) {
             return null;
@@ -81,30 +133,416 @@ public final class InMemoryDataStore implements Serializable {
         if (!Files.exists(dataPath)) {
             return null;
         }
+        InMemoryDataStore store;
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(dataPath.toFile()))) {
-            return (InMemoryDataStore) ois.readObject();
+            store = (InMemoryDataStore) ois.readObject();
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Failed to load data store: " + e.getMessage());
             e.printStackTrace();
             return null;
         }
+        store.openJournal();
+        return store;
     }
 
+    /**
+     * Writes a full snapshot and empties the journal. Individual mutations are persisted through
+     * the {@code record*} methods instead; this runs at bootstrap and every
+     * {@code erp.memory.snapshotEvery} journal records.
+     */
     public void save() {
         if (!ENABLE_DISK_CACHE) {
             return;
         }
+        snapshotLock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.checkpoint(this::writeSnapshot);
+                return;
+            }
+            writeSnapshot();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        try {
+            // A journal without the snapshot it was written against cannot be replayed.
+            Files.deleteIfExists(getJournalFilePath());
+        } catch (IOException e) {
+            System.err.println("Failed to remove stale journal: " + e.getMessage());
+        }
+    }
+
+    public void putAuthRecord(AuthRecord record) {
+        mutate(record.userId(), () -> {
+            indexAuthRecord(record);
+            append(JournalRecords.putAuth(record));
+            return null;
+        });
+    }
+
+    /** Applies {@code change} to the user's current record under its lock; a no-op for unknown ids. */
+    public void updateAuthRecord(String userId, UnaryOperator<AuthRecord> change) {
+        mutate(userId, () -> {
+            AuthRecord current = authRecords.get(userId);
+            if (current != null) {
+                AuthRecord updated = change.apply(current);
+                indexAuthRecord(updated);
+                append(JournalRecords.putAuth(updated));
+            }
+            return null;
+        });
+    }
+
+    public void putStudent(Student student) {
+        mutate(student.getUserId(), () -> {
+            students.put(student.getUserId(), student);
+            append(JournalRecords.putStudent(student));
+            return null;
+        });
+    }
+
+    public void putInstructor(Instructor instructor) {
+        mutate(instructor.getUserId(), () -> {
+            instructors.put(instructor.getUserId(), instructor);
+            append(JournalRecords.putInstructor(instructor));
+            return null;
+        });
+    }
+
+    public void putCourse(Course course) {
+        mutate(course.getCourseId(), () -> {
+            courses.put(course.getCourseId(), course);
+            append(JournalRecords.putCourse(course));
+            return null;
+        });
+    }
+
+    public void removeCourse(String courseId) {
+        mutate(courseId, () -> {
+            courses.remove(courseId);
+            append(JournalRecords.deleteCourse(courseId));
+            return null;
+        });
+    }
+
+    public void putSection(Section section) {
+        mutate(section.getSectionId(), () -> {
+            sections.put(section.getSectionId(), section);
+            append(JournalRecords.putSection(section));
+            return null;
+        });
+    }
+
+    public void removeSection(String sectionId) {
+        mutate(sectionId, () -> {
+            sections.remove(sectionId);
+            append(JournalRecords.deleteSection(sectionId));
+            return null;
+        });
+    }
+
+    /**
+     * Swaps the whole catalog for {@code newCourses} and {@code newSections} while writers are
+     * held off, so no other change interleaves with the swap. Every enrollment and grade book
+     * goes with the old sections, mirroring the cascade in the SQL schema. As in
+     * {@link #replaceAll}, a fresh snapshot replaces the journal afterwards.
+     */
+    public void replaceCatalog(Collection<Course> newCourses, Collection<Section> newSections) {
+        snapshotLock.writeLock().lock();
+        try {
+            courses.clear();
+            sections.clear();
+            enrollments.clear();
+            gradeBooks.clear();
+            enrollmentsByStudent.clear();
+            enrollmentsBySection.clear();
+            enrollmentsByStudentSection.clear();
+            seatsTaken.clear();
+            newCourses.forEach(course -> courses.put(course.getCourseId(), course));
+            newSections.forEach(section -> sections.put(section.getSectionId(), section));
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        save();
+    }
+
+    /**
+     * Swaps every ERP table for {@code contents}; auth records are kept. Writers are held off
+     * for the swap, after which a fresh snapshot replaces the journal rather than journaling
+     * each record.
+     */
+    public void replaceAll(Contents contents) {
+        snapshotLock.writeLock().lock();
+        try {
+            students.clear();
+            instructors.clear();
+            courses.clear();
+            sections.clear();
+            enrollments.clear();
+            gradeBooks.clear();
+            enrollmentsByStudent.clear();
+            enrollmentsBySection.clear();
+            enrollmentsByStudentSection.clear();
+            // Seat counters are seeded again from the restored enrollments on first use.
+            seatsTaken.clear();
+            contents.students.forEach(student -> students.put(student.getUserId(), student));
+            contents.instructors.forEach(instructor -> instructors.put(instructor.getUserId(), instructor));
+            contents.courses.forEach(course -> courses.put(course.getCourseId(), course));
+            contents.sections.forEach(section -> sections.put(section.getSectionId(), section));
+            contents.enrollments.forEach(this::indexEnrollment);
+            contents.gradeBooks.forEach(gradeBook -> gradeBooks.put(gradeBook.getEnrollmentId(), gradeBook));
+            if (contents.maintenanceSetting != null) {
+                maintenanceSetting = contents.maintenanceSetting;
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        save();
+    }
+
+    /**
+     * Stores the enrollment, keeps the indexes and seat counter in step and returns the
+     * enrollment it replaced, if any.
+     */
+    public Enrollment putEnrollment(Enrollment enrollment) {
+        return mutate(enrollment.getEnrollmentId(), () -> storeEnrollment(enrollment));
+    }
+
+    /**
+     * Removes the enrollment together with its grade book, mirroring the cascade in the SQL
+     * schema, and frees its seat.
+     */
+    public Enrollment removeEnrollment(String enrollmentId) {
+        return mutate(enrollmentId, () -> {
+            Enrollment removed = enrollments.get(enrollmentId);
+            if (removed != null) {
+                adjustSeats(removed.getSectionId(), -1, () -> {
+                    enrollments.remove(enrollmentId);
+                    unindex(removed);
+                });
+                gradeBooks.remove(enrollmentId);
+            }
+            append(JournalRecords.deleteEnrollment(enrollmentId));
+            return removed;
+        });
+    }
+
+    /**
+     * Checks for an existing registration, claims a seat and stores the enrollment as one step.
+     * Registrations for the same student and section are serialized on a lock stripe; the seat
+     * itself is claimed with a compare-and-set loop on the section's counter.
+     */
+    public SeatReservation reserveSeat(Enrollment enrollment, int capacity) {
+        StudentSection key = new StudentSection(enrollment.getStudentId(), enrollment.getSectionId());
+        Lock registration = registrationLocks.forKey(key);
+        SeatReservation result;
+        snapshotLock.readLock().lock();
+        registration.lock();
+        writesStarted.incrementAndGet();
+        try {
+            if (enrollmentsByStudentSection.containsKey(key)) {
+                result = SeatReservation.ALREADY_ENROLLED;
+            } else if (!tryReserveSeat(enrollment.getSectionId(), capacity)) {
+                result = SeatReservation.SECTION_FULL;
+            } else {
+                Lock stripe = entityLocks.forKey(enrollment.getEnrollmentId());
+                stripe.lock();
+                try {
+                    indexEnrollment(enrollment);
+                    append(JournalRecords.putEnrollment(enrollment));
+                } finally {
+                    stripe.unlock();
+                }
+                result = SeatReservation.RESERVED;
+            }
+        } finally {
+            writesFinished.incrementAndGet();
+            registration.unlock();
+            snapshotLock.readLock().unlock();
+        }
+        checkpointIfDue();
+        return result;
+    }
+
+    public void putGradeBook(GradeBook gradeBook) {
+        mutate(gradeBook.getEnrollmentId(), () -> {
+            gradeBooks.put(gradeBook.getEnrollmentId(), gradeBook);
+            append(JournalRecords.putGradeBook(gradeBook));
+            return null;
+        });
+    }
+
+    public void setMaintenanceSetting(boolean maintenanceOn) {
+        mutate("maintenance_on", () -> {
+            maintenanceSetting = new MaintenanceSetting(maintenanceOn);
+            append(JournalRecords.setMaintenance(maintenanceOn));
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code reader} so that it sees every map as of one instant, for reads that span
+     * several maps. The read is first tried optimistically, alongside other readers and writers,
+     * and kept only if no write was running or started meanwhile; otherwise it is retried a few
+     * times and then run once more with writers held off. {@code reader} may therefore run more
+     * than once and must have no side effects.
+     */
+    public <T> T readConsistent(Supplier<T> reader) {
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            snapshotLock.readLock().lock();
+            try {
+                long finished = writesFinished.get();
+                if (writesStarted.get() != finished) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                T result;
+                try {
+                    result = reader.get();
+                } catch (RuntimeException e) {
+                    // A torn view can make the reader fail; only a clean read's failure counts.
+                    if (writesStarted.get() == finished) {
+                        throw e;
+                    }
+                    continue;
+                }
+                if (writesStarted.get() == finished) {
+                    return result;
+                }
+            } finally {
+                snapshotLock.readLock().unlock();
+            }
+        }
+        snapshotLock.writeLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    private <T> T mutate(Object key, Supplier<T> change) {
+        Lock stripe = entityLocks.forKey(key);
+        T result;
+        snapshotLock.readLock().lock();
+        stripe.lock();
+        writesStarted.incrementAndGet();
+        try {
+            result = change.get();
+        } finally {
+            writesFinished.incrementAndGet();
+            stripe.unlock();
+            snapshotLock.readLock().unlock();
+        }
+        checkpointIfDue();
+        return result;
+    }
+
+    private Enrollment storeEnrollment(Enrollment enrollment) {
+        Enrollment previous = enrollments.get(enrollment.getEnrollmentId());
+        if (previous != null) {
+            if (!previous.getSectionId().equals(enrollment.getSectionId())) {
+                // A move has to win a seat in the new section before it frees the old one.
+                Section target = sections.get(enrollment.getSectionId());
+                if (target != null && !tryReserveSeat(enrollment.getSectionId(), target.getCapacity())) {
+                    throw new IllegalStateException("Section " + enrollment.getSectionId() + " is full");
+                }
+            }
+            // The new section's counter, if it has one, already holds the seat won above.
+            int freed = previous.getSectionId().equals(enrollment.getSectionId()) ? 0 : -1;
+            adjustSeats(previous.getSectionId(), freed, () -> {
+                enrollments.put(enrollment.getEnrollmentId(), enrollment);
+                unindex(previous);
+                index(enrollment);
+            });
+            append(JournalRecords.putEnrollment(enrollment));
+            return previous;
+        }
+        adjustSeats(enrollment.getSectionId(), 1, () -> indexEnrollment(enrollment));
+        append(JournalRecords.putEnrollment(enrollment));
+        return null;
+    }
+
+    /**
+     * Runs {@code change} to the section's enrollments and moves its seat counter by
+     * {@code delta} as one step. The counter's entry is locked throughout, so a counter being
+     * seeded from the section index at the same time counts either both or neither, never the
+     * index change alone.
+     */
+    private void adjustSeats(String sectionId, int delta, Runnable change) {
+        seatsTaken.compute(sectionId, (id, counter) -> {
+            change.run();
+            if (counter != null && delta != 0) {
+                counter.updateAndGet(taken -> Math.max(0, taken + delta));
+            }
+            return counter;
+        });
+    }
+
+    private void indexAuthRecord(AuthRecord record) {
+        AuthRecord previous = authRecords.put(record.userId(), record);
+        String username = AuthRecord.normalizeUsername(record.username());
+        if (previous != null) {
+            String previousUsername = AuthRecord.normalizeUsername(previous.username());
+            if (!previousUsername.equals(username)) {
+                userIdsByUsername.remove(previousUsername, record.userId());
+            }
+        }
+        userIdsByUsername.put(username, record.userId());
+    }
+
+    private void indexEnrollment(Enrollment enrollment) {
+        enrollments.put(enrollment.getEnrollmentId(), enrollment);
+        index(enrollment);
+    }
+
+    private void append(byte[] record) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(record);
+        } catch (UncheckedIOException e) {
+            System.err.println("Failed to journal change: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void checkpointIfDue() {
+        InMemoryJournal current = journal;
+        if (current != null && current.recordCount() >= SNAPSHOT_EVERY) {
+            save();
+        }
+    }
+
+    private void openJournal() {
+        if (!ENABLE_DISK_CACHE) {
+            return;
+        }
+        try {
+            journal = InMemoryJournal.open(getJournalFilePath(), record -> JournalRecords.apply(this, record));
+        } catch (IOException e) {
+            System.err.println("Failed to open journal, changes will not be persisted: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void writeSnapshot() {
         Path dataPath = getDataFilePath();
+        Path tempPath = dataPath.resolveSibling(DATA_FILE + ".tmp");
         try {
             // Ensure parent directory exists
             Path parent = dataPath.getParent();
             if (parent != null && !Files.exists(parent)) {
                 Files.createDirectories(parent);
             }
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(dataPath.toFile()))) {
+            try (FileOutputStream fos = new FileOutputStream(tempPath.toFile());
+                 ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(fos))) {
                 oos.writeObject(this);
                 oos.flush();
+                fos.getFD().sync();
             }
+            Files.move(tempPath, dataPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             System.err.println("Failed to save data store: " + e.getMessage());
             e.printStackTrace();
@@ -117,7 +555,7 @@ public final class InMemoryDataStore implements Serializable {
         var stu1Id = UUID.randomUUID().toString();
         var stu2Id = UUID.randomUUID().toString();
 
-        authRecords.put(adminId, new AuthRecord(
+        indexAuthRecord(new AuthRecord(
                 adminId,
                 "admin1",
                 Role.ADMIN,
@@ -126,7 +564,7 @@ public final class InMemoryDataStore implements Serializable {
                 LocalDateTime.now().minusDays(1),
                 0,
                 null));
-        authRecords.put(instId, new AuthRecord(
+        indexAuthRecord(new AuthRecord(
                 instId,
                 "inst1",
                 Role.INSTRUCTOR,
@@ -135,7 +573,7 @@ public final class InMemoryDataStore implements Serializable {
                 LocalDateTime.now().minusDays(2),
                 0,
                 null));
-        authRecords.put(stu1Id, new AuthRecord(
+        indexAuthRecord(new AuthRecord(
                 stu1Id,
                 "stu1",
                 Role.STUDENT,
@@ -144,7 +582,7 @@ public final class InMemoryDataStore implements Serializable {
                 LocalDateTime.now().minusDays(5),
                 0,
                 null));
-        authRecords.put(stu2Id, new AuthRecord(
+        indexAuthRecord(new AuthRecord(
                 stu2Id,
                 "stu2",
                 Role.STUDENT,
@@ -197,8 +635,8 @@ public final class InMemoryDataStore implements Serializable {
 
         Enrollment enr1 = new Enrollment("enroll-1", stu1Id, sec1.getSectionId(), EnrollmentStatus.ACTIVE);
         Enrollment enr2 = new Enrollment("enroll-2", stu2Id, sec1.getSectionId(), EnrollmentStatus.ACTIVE);
-        enrollments.put(enr1.getEnrollmentId(), enr1);
-        enrollments.put(enr2.getEnrollmentId(), enr2);
+        indexEnrollment(enr1);
+        indexEnrollment(enr2);
 
         List<GradeComponent> components = List.of(
                 new GradeComponent("Quiz", 18, 0.2),
@@ -208,54 +646,182 @@ public final class InMemoryDataStore implements Serializable {
         gradeBooks.put(enr1.getEnrollmentId(), new GradeBook(enr1.getEnrollmentId(), components, 86.0));
     }
 
+    // The maps below are read-only views: change state through the put/remove methods above so
+    // that indexes, seat counters and the journal stay in step.
+
     public Map<String, AuthRecord> authRecords() {
-        return authRecords;
+        return Collections.unmodifiableMap(authRecords);
+    }
+
+    /** Case-insensitive lookup through the username index. */
+    public Optional<AuthRecord> findAuthRecordByUsername(String username) {
+        String userId = userIdsByUsername.get(AuthRecord.normalizeUsername(username));
+        return userId == null ? Optional.empty() : Optional.ofNullable(authRecords.get(userId));
     }
 
     public Map<String, Student> students() {
-        return students;
+        return Collections.unmodifiableMap(students);
     }
 
     public Map<String, Instructor> instructors() {
-        return instructors;
+        return Collections.unmodifiableMap(instructors);
     }
 
     public Map<String, Course> courses() {
-        return courses;
+        return Collections.unmodifiableMap(courses);
     }
 
     public Map<String, Section> sections() {
-        return sections;
+        return Collections.unmodifiableMap(sections);
     }
 
     public Map<String, Enrollment> enrollments() {
-        return enrollments;
+        return Collections.unmodifiableMap(enrollments);
     }
 
     public Map<String, GradeBook> gradeBooks() {
-        return gradeBooks;
+        return Collections.unmodifiableMap(gradeBooks);
     }
 
     public MaintenanceSetting maintenanceSetting() {
         return maintenanceSetting;
     }
 
-    public void setMaintenanceSetting(boolean maintenanceOn) {
-        maintenanceSetting = new MaintenanceSetting(maintenanceOn);
-    }
-
     public String nextId(String prefix) {
         return prefix + "-" + UUID.randomUUID();
     }
 
+    public List<Enrollment> enrollmentsForStudent(String studentId) {
+        return new ArrayList<>(enrollmentsByStudent.getOrDefault(studentId, Map.of()).values());
+    }
+
     public List<Enrollment> enrollmentsForSection(String sectionId) {
-        List<Enrollment> list = new ArrayList<>();
-        for (Enrollment enrollment : enrollments.values()) {
-            if (enrollment.getSectionId().equals(sectionId)) {
-                list.add(enrollment);
+        return new ArrayList<>(enrollmentsBySection.getOrDefault(sectionId, Map.of()).values());
+    }
+
+    public Optional<Enrollment> findEnrollment(String studentId, String sectionId) {
+        return Optional.ofNullable(enrollmentsByStudentSection.get(new StudentSection(studentId, sectionId)));
+    }
+
+    public int enrollmentCountForSection(String sectionId) {
+        return enrollmentsBySection.getOrDefault(sectionId, Map.of()).size();
+    }
+
+    /**
+     * Claims a seat with a compare-and-set loop on the section's counter. Counters are seeded
+     * lazily from the enrollments already stored for the section.
+     */
+    private boolean tryReserveSeat(String sectionId, int capacity) {
+        AtomicInteger counter = seatsTaken.computeIfAbsent(sectionId,
+                id -> new AtomicInteger(enrollmentCountForSection(id)));
+        while (true) {
+            int taken = counter.get();
+            if (taken >= capacity) {
+                return false;
+            }
+            if (counter.compareAndSet(taken, taken + 1)) {
+                return true;
             }
         }
-        return list;
     }
-}
 
+    private void index(Enrollment enrollment) {
+        addToBucket(enrollmentsByStudent, enrollment.getStudentId(), enrollment);
+        addToBucket(enrollmentsBySection, enrollment.getSectionId(), enrollment);
+        enrollmentsByStudentSection.put(new StudentSection(enrollment.getStudentId(), enrollment.getSectionId()), enrollment);
+    }
+
+    private void unindex(Enrollment enrollment) {
+        removeFromBucket(enrollmentsByStudent, enrollment.getStudentId(), enrollment.getEnrollmentId());
+        removeFromBucket(enrollmentsBySection, enrollment.getSectionId(), enrollment.getEnrollmentId());
+        enrollmentsByStudentSection.remove(new StudentSection(enrollment.getStudentId(), enrollment.getSectionId()), enrollment);
+    }
+
+    private static void addToBucket(Map<String, Map<String, Enrollment>> index, String key, Enrollment enrollment) {
+        index.compute(key, (id, bucket) -> {
+            Map<String, Enrollment> target = bucket == null ? new ConcurrentHashMap<>() : bucket;
+            target.put(enrollment.getEnrollmentId(), enrollment);
+            return target;
+        });
+    }
+
+    private static void removeFromBucket(Map<String, Map<String, Enrollment>> index, String key, String enrollmentId) {
+        index.computeIfPresent(key, (id, bucket) -> {
+            bucket.remove(enrollmentId);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    /**
+     * Rebuilds the store through its constructor so that snapshots written before the maps became
+     * concurrent load into concurrent maps, and the transient indexes and locks are recreated.
+     */
+    private Object readResolve() {
+        InMemoryDataStore store = new InMemoryDataStore();
+        authRecords.values().forEach(store::indexAuthRecord);
+        store.students.putAll(students);
+        store.instructors.putAll(instructors);
+        store.courses.putAll(courses);
+        store.sections.putAll(sections);
+        store.gradeBooks.putAll(gradeBooks);
+        enrollments.values().forEach(store::indexEnrollment);
+        store.maintenanceSetting = maintenanceSetting;
+        return store;
+    }
+
+    private record StudentSection(String studentId, String sectionId) {
+    }
+
+    /** Collects a complete ERP data set for {@link #replaceAll}. */
+    public static final class Contents implements ErpDataSource.Sink {
+
+        private final List<Student> students = new ArrayList<>();
+        private final List<Instructor> instructors = new ArrayList<>();
+        private final List<Course> courses = new ArrayList<>();
+        private final List<Section> sections = new ArrayList<>();
+        private final List<Enrollment> enrollments = new ArrayList<>();
+        private final List<GradeBook> gradeBooks = new ArrayList<>();
+        private MaintenanceSetting maintenanceSetting;
+
+        @Override
+        public void student(Student student) {
+            students.add(student);
+        }
+
+        @Override
+        public void instructor(Instructor instructor) {
+            instructors.add(instructor);
+        }
+
+        @Override
+        public void course(Course course) {
+            courses.add(course);
+        }
+
+        @Override
+        public void section(Section section) {
+            sections.add(section);
+        }
+
+        @Override
+        public void enrollment(Enrollment enrollment) {
+            enrollments.add(enrollment);
+        }
+
+        @Override
+        public void gradeBook(GradeBook gradeBook) {
+            gradeBooks.add(gradeBook);
+        }
+
+        @Override
+        public void maintenanceSetting(MaintenanceSetting setting) {
+            maintenanceSetting = setting;
+        }
+
+        /** The number of records collected, the maintenance setting counting as one. */
+        public int size() {
+            return students.size() + instructors.size() + courses.size() + sections.size()
+                    + enrollments.size() + gradeBooks.size() + (maintenanceSetting != null ? 1 : 0);
+        }
+    }
+}
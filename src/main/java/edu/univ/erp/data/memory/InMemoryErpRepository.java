@@ -1,17 +1,35 @@
 package edu.univ.erp.data.memory;
 
+import edu.univ.erp.api.types.CourseCatalogRow;
+import edu.univ.erp.api.types.GradeView;
+import edu.univ.erp.data.erp.CatalogSource;
+import edu.univ.erp.data.erp.CohortFilter;
+import edu.univ.erp.data.erp.CourseFilter;
+import edu.univ.erp.data.erp.ErpDataSource;
 import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.erp.SeatReservation;
+import edu.univ.erp.data.erp.SectionFilter;
+import edu.univ.erp.data.erp.StudentTranscript;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
 import edu.univ.erp.domain.course.Course;
 import edu.univ.erp.domain.course.Section;
 import edu.univ.erp.domain.enrollment.Enrollment;
 import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
 import edu.univ.erp.domain.instructor.Instructor;
 import edu.univ.erp.domain.settings.MaintenanceSetting;
 import edu.univ.erp.domain.student.Student;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public final class InMemoryErpRepository implements ErpRepository {
 
@@ -28,8 +46,7 @@ public final class InMemoryErpRepository implements ErpRepository {
 
     @Override
     public void saveStudent(Student student) {
-        store.students().put(student.getUserId(), student);
-        store.save();
+        store.putStudent(student);
     }
 
     @Override
@@ -39,8 +56,7 @@ public final class InMemoryErpRepository implements ErpRepository {
 
     @Override
     public void saveInstructor(Instructor instructor) {
-        store.instructors().put(instructor.getUserId(), instructor);
-        store.save();
+        store.putInstructor(instructor);
     }
 
     @Override
@@ -48,21 +64,30 @@ public final class InMemoryErpRepository implements ErpRepository {
         return Optional.ofNullable(store.courses().get(courseId));
     }
 
+    @Override
+    public Map<String, Course> findCourses(Collection<String> courseIds) {
+        return collect(store.courses(), courseIds);
+    }
+
     @Override
     public List<Course> listCourses() {
         return new ArrayList<>(store.courses().values());
     }
 
+    @Override
+    public Page<Course> listCourses(CourseFilter filter, PageRequest request) {
+        return InMemoryPaging.page(store.courses().values(), Course::getCode, request,
+                course -> InMemoryPaging.hasPrefix(course.getCode(), filter.codePrefix()));
+    }
+
     @Override
     public void saveCourse(Course course) {
-        store.courses().put(course.getCourseId(), course);
-        store.save();
+        store.putCourse(course);
     }
 
     @Override
     public void deleteCourse(String courseId) {
-        store.courses().remove(courseId);
-        store.save();
+        store.removeCourse(courseId);
     }
 
     @Override
@@ -70,30 +95,92 @@ public final class InMemoryErpRepository implements ErpRepository {
         return Optional.ofNullable(store.sections().get(sectionId));
     }
 
+    @Override
+    public Map<String, Section> findSections(Collection<String> sectionIds) {
+        return collect(store.sections(), sectionIds);
+    }
+
     @Override
     public List<Section> listSections() {
         return new ArrayList<>(store.sections().values());
     }
 
+    @Override
+    public Page<Section> listSections(SectionFilter filter, PageRequest request) {
+        return InMemoryPaging.page(store.sections().values(), Section::getSectionId, request, section -> {
+            if (filter.semester() != null && section.getSemester() != filter.semester()) {
+                return false;
+            }
+            if (filter.year() != null && section.getYear() != filter.year()) {
+                return false;
+            }
+            if (filter.department() != null) {
+                Instructor instructor = store.instructors().get(section.getInstructorId());
+                if (instructor == null || !filter.department().equalsIgnoreCase(instructor.getDepartment())) {
+                    return false;
+                }
+            }
+            if (filter.codePrefix() != null) {
+                Course course = store.courses().get(section.getCourseId());
+                return course != null && InMemoryPaging.hasPrefix(course.getCode(), filter.codePrefix());
+            }
+            return true;
+        });
+    }
+
     @Override
     public void saveSection(Section section) {
-        store.sections().put(section.getSectionId(), section);
-        store.save();
+        store.putSection(section);
     }
 
     @Override
     public void deleteSection(String sectionId) {
-        store.sections().remove(sectionId);
-        store.save();
+        store.removeSection(sectionId);
+    }
+
+    @Override
+    public int replaceCatalog(CatalogSource source) {
+        // The source is read in full before anything changes, so a failure part way through
+        // leaves the store untouched.
+        List<Course> courses = new ArrayList<>();
+        List<Section> sections = new ArrayList<>();
+        source.read(courses::add, sections::add);
+        store.replaceCatalog(courses, sections);
+        return courses.size() + sections.size();
+    }
+
+    @Override
+    public List<CourseCatalogRow> listCatalog() {
+        return store.readConsistent(this::buildCatalog);
+    }
+
+    private List<CourseCatalogRow> buildCatalog() {
+        List<CourseCatalogRow> rows = new ArrayList<>();
+        for (Section section : store.sections().values()) {
+            Course course = store.courses().get(section.getCourseId());
+            if (course == null) {
+                continue;
+            }
+            Instructor instructor = store.instructors().get(section.getInstructorId());
+            rows.add(new CourseCatalogRow(
+                    section.getSectionId(),
+                    course.getCode(),
+                    course.getTitle(),
+                    course.getCredits(),
+                    instructor == null
+                            ? CourseCatalogRow.formatInstructor(null, null)
+                            : CourseCatalogRow.formatInstructor(instructor.getTitle(), instructor.getDepartment()),
+                    CourseCatalogRow.formatSchedule(section.getDayOfWeek(), section.getStartTime(), section.getEndTime()),
+                    section.getCapacity(),
+                    store.enrollmentCountForSection(section.getSectionId())
+            ));
+        }
+        return rows;
     }
 
     @Override
     public List<Enrollment> findEnrollmentsByStudent(String studentId) {
-        return store.enrollments()
-                .values()
-                .stream()
-                .filter(enrollment -> enrollment.getStudentId().equals(studentId))
-                .toList();
+        return store.enrollmentsForStudent(studentId);
     }
 
     @Override
@@ -103,24 +190,24 @@ public final class InMemoryErpRepository implements ErpRepository {
 
     @Override
     public Optional<Enrollment> findEnrollment(String studentId, String sectionId) {
-        return store.enrollments()
-                .values()
-                .stream()
-                .filter(enrollment -> enrollment.getStudentId().equals(studentId)
-                        && enrollment.getSectionId().equals(sectionId))
-                .findFirst();
+        return store.findEnrollment(studentId, sectionId);
     }
 
     @Override
     public void saveEnrollment(Enrollment enrollment) {
-        store.enrollments().put(enrollment.getEnrollmentId(), enrollment);
-        store.save();
+        store.putEnrollment(enrollment);
+    }
+
+    @Override
+    public SeatReservation reserveSeat(Enrollment enrollment) {
+        Section section = store.sections().get(enrollment.getSectionId());
+        int capacity = section == null ? 0 : section.getCapacity();
+        return store.reserveSeat(enrollment, capacity);
     }
 
     @Override
     public void deleteEnrollment(String enrollmentId) {
-        store.enrollments().remove(enrollmentId);
-        store.save();
+        store.removeEnrollment(enrollmentId);
     }
 
     @Override
@@ -128,10 +215,101 @@ public final class InMemoryErpRepository implements ErpRepository {
         return Optional.ofNullable(store.gradeBooks().get(enrollmentId));
     }
 
+    @Override
+    public Map<String, GradeBook> findGradeBooks(Collection<String> enrollmentIds) {
+        return collect(store.gradeBooks(), enrollmentIds);
+    }
+
+    @Override
+    public Map<String, GradeBook> findGradeBooksBySection(String sectionId) {
+        return collect(store.gradeBooks(), store.enrollmentsForSection(sectionId).stream()
+                .map(Enrollment::getEnrollmentId)
+                .toList());
+    }
+
     @Override
     public void saveGradeBook(GradeBook gradeBook) {
-        store.gradeBooks().put(gradeBook.getEnrollmentId(), gradeBook);
-        store.save();
+        store.putGradeBook(gradeBook);
+    }
+
+    @Override
+    public void saveGradeBooks(Collection<GradeBook> gradeBooks) {
+        gradeBooks.forEach(store::putGradeBook);
+    }
+
+    @Override
+    public void saveFinalGrades(Map<String, Double> finalGrades) {
+        finalGrades.forEach((enrollmentId, finalGrade) -> {
+            GradeBook existing = store.gradeBooks().get(enrollmentId);
+            List<GradeComponent> components = existing == null ? List.of() : existing.getComponents();
+            store.putGradeBook(new GradeBook(enrollmentId, components, finalGrade));
+        });
+    }
+
+    @Override
+    public int countStudents(CohortFilter filter) {
+        return (int) store.students().values().stream().filter(student -> inCohort(student, filter)).count();
+    }
+
+    @Override
+    public void streamTranscripts(CohortFilter filter, Consumer<StudentTranscript> sink) {
+        List<Student> cohort = store.students().values().stream()
+                .filter(student -> inCohort(student, filter))
+                .sorted(Comparator.comparing(Student::getUserId))
+                .toList();
+        for (Student student : cohort) {
+            List<Enrollment> enrollments = new ArrayList<>(store.enrollmentsForStudent(student.getUserId()));
+            enrollments.sort(Comparator.comparing(Enrollment::getEnrollmentId));
+            List<GradeView> grades = new ArrayList<>();
+            for (Enrollment enrollment : enrollments) {
+                Section section = store.sections().get(enrollment.getSectionId());
+                Course course = section == null ? null : store.courses().get(section.getCourseId());
+                if (course == null) {
+                    continue;
+                }
+                GradeBook gradeBook = store.gradeBooks().get(enrollment.getEnrollmentId());
+                List<GradeView.ComponentScore> components = gradeBook == null ? List.of() : gradeBook.getComponents().stream()
+                        .map(component -> new GradeView.ComponentScore(component.getName(), component.getScore(), component.getWeight()))
+                        .toList();
+                Double finalGrade = gradeBook == null ? null : gradeBook.getFinalGrade().orElse(null);
+                grades.add(new GradeView(course.getCode(), section.getSectionId(), components, finalGrade));
+            }
+            sink.accept(new StudentTranscript(student, grades));
+        }
+    }
+
+    private static boolean inCohort(Student student, CohortFilter filter) {
+        return (filter.program() == null || filter.program().equalsIgnoreCase(student.getProgram()))
+                && (filter.year() == null || student.getYear() == filter.year());
+    }
+
+    @Override
+    public void streamStudents(Consumer<Student> sink) {
+        streamSorted(store.students().values(), Student::getUserId, sink);
+    }
+
+    @Override
+    public void streamInstructors(Consumer<Instructor> sink) {
+        streamSorted(store.instructors().values(), Instructor::getUserId, sink);
+    }
+
+    @Override
+    public void streamEnrollments(Consumer<Enrollment> sink) {
+        streamSorted(store.enrollments().values(), Enrollment::getEnrollmentId, sink);
+    }
+
+    @Override
+    public void streamGradeBooks(Consumer<GradeBook> sink) {
+        streamSorted(store.gradeBooks().values(), GradeBook::getEnrollmentId, sink);
+    }
+
+    @Override
+    public int replaceAll(ErpDataSource source) {
+        // As with replaceCatalog, the source is read in full before the store changes.
+        InMemoryDataStore.Contents contents = new InMemoryDataStore.Contents();
+        source.read(contents);
+        store.replaceAll(contents);
+        return contents.size();
     }
 
     @Override
@@ -142,7 +320,20 @@ public final class InMemoryErpRepository implements ErpRepository {
     @Override
     public void saveMaintenanceSetting(boolean maintenanceOn) {
         store.setMaintenanceSetting(maintenanceOn);
-        store.save();
     }
-}
 
+    private static <T> void streamSorted(Collection<T> values, Function<T, String> id, Consumer<T> sink) {
+        values.stream().sorted(Comparator.comparing(id)).forEach(sink);
+    }
+
+    private static <T> Map<String, T> collect(Map<String, T> source, Collection<String> ids) {
+        Map<String, T> found = new HashMap<>();
+        for (String id : ids) {
+            T value = source.get(id);
+            if (value != null) {
+                found.put(id, value);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,234 @@
+package edu.univ.erp.data.memory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal for the in-memory store.
+ *
+ * <p>Each record is framed as {@code [int length][int crc32][payload]}. Appenders hand their
+ * record to a single flusher thread and block until it is on disk; while one fsync is running,
+ * later appends accumulate and are written and forced together in the next batch (group commit).
+ * A torn or corrupt tail left by a crash is detected by the checksum and cut off on replay.</p>
+ */
+final class InMemoryJournal implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+
+    private final FileChannel channel;
+    private final Object lock = new Object();
+    private final Thread flusher;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSeq;
+    private long durableSeq;
+    private long recordCount;
+    private IOException failure;
+    private boolean closed;
+
+    private InMemoryJournal(FileChannel channel, long recordCount) {
+        this.channel = channel;
+        this.recordCount = recordCount;
+        this.flusher = new Thread(this::flushLoop, "erp-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens the journal at {@code path}, handing every intact record to {@code replay} in the
+     * order it was written. Anything after the last intact record is truncated.
+     */
+    static InMemoryJournal open(Path path, Consumer<byte[]> replay) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validEnd = 0;
+        long records = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        while (true) {
+            header.clear();
+            if (!readFully(channel, header, validEnd)) {
+                break;
+            }
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0 || validEnd + HEADER_BYTES + length > channel.size()) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (!readFully(channel, payload, validEnd + HEADER_BYTES)) {
+                break;
+            }
+            crc.reset();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            replay.accept(payload.array());
+            validEnd += HEADER_BYTES + length;
+            records++;
+        }
+        if (validEnd < channel.size()) {
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+        return new InMemoryJournal(channel, records);
+    }
+
+    /**
+     * Appends one record and returns once it, and every record appended before it, has been
+     * forced to disk.
+     */
+    void append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue());
+        long seq;
+        synchronized (lock) {
+            ensureOpen();
+            pending.writeBytes(header.array());
+            pending.writeBytes(payload);
+            seq = ++appendedSeq;
+            recordCount++;
+            lock.notifyAll();
+        }
+        awaitDurable(seq);
+    }
+
+    long recordCount() {
+        synchronized (lock) {
+            return recordCount;
+        }
+    }
+
+    /**
+     * Waits for every appended record to reach disk, runs {@code snapshot} while no further
+     * appends can start, and then empties the journal. Replaying records that a snapshot already
+     * contains is harmless because every record carries the full new state of what it touched.
+     */
+    void checkpoint(Runnable snapshot) {
+        synchronized (lock) {
+            ensureOpen();
+            // Waiting releases the lock, so keep going until nothing is left in flight.
+            while (durableSeq < appendedSeq) {
+                awaitDurable(appendedSeq);
+            }
+            snapshot.run();
+            try {
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to reset journal", e);
+            }
+            recordCount = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            awaitDurable(appendedSeq);
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void awaitDurable(long seq) {
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (durableSeq < seq && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Journal write failed", failure);
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            byte[] batch;
+            long batchSeq;
+            synchronized (lock) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending.toByteArray();
+                batchSeq = appendedSeq;
+                pending = new ByteArrayOutputStream();
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                synchronized (lock) {
+                    durableSeq = batchSeq;
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                return false;
+            }
+            offset += read;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package edu.univ.erp.data.memory;
+
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Keyset paging over the store's maps. Keys are compared ignoring case, which is the order the
+ * database's collation gives the same listing, so both repositories page identically.
+ */
+final class InMemoryPaging {
+
+    private InMemoryPaging() {
+    }
+
+    static <T> Page<T> page(Collection<T> values,
+                            Function<T, String> keyOf,
+                            PageRequest request,
+                            Predicate<T> filter) {
+        String after = request.after();
+        Comparator<String> order = request.descending()
+                ? String.CASE_INSENSITIVE_ORDER.reversed()
+                : String.CASE_INSENSITIVE_ORDER;
+        List<T> rows = values.stream()
+                .filter(value -> after == null || order.compare(keyOf.apply(value), after) > 0)
+                .filter(filter)
+                .sorted(Comparator.comparing(keyOf, order))
+                .limit(request.limit() + 1L)
+                .toList();
+        return Page.fromLookahead(rows, request.limit(), keyOf);
+    }
+
+    static boolean hasPrefix(String value, String prefix) {
+        return prefix == null
+                || (value != null && value.regionMatches(true, 0, prefix, 0, prefix.length()));
+    }
+}
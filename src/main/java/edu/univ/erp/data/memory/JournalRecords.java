@@ -0,0 +1,265 @@
+package edu.univ.erp.data.memory;
+
+import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.enrollment.EnrollmentStatus;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.student.Student;
+import edu.univ.erp.domain.user.Role;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes store mutations as compact journal payloads and applies them back during replay.
+ * Every payload starts with an {@link Op} tag followed by the full new state of the entity
+ * (or just its id for deletes), so applying a record twice leaves the store unchanged. Replay
+ * goes through the store's own mutators, which do not journal while replay is running.
+ */
+final class JournalRecords {
+
+    enum Op {
+        PUT_AUTH,
+        PUT_STUDENT,
+        PUT_INSTRUCTOR,
+        PUT_COURSE,
+        DELETE_COURSE,
+        PUT_SECTION,
+        DELETE_SECTION,
+        PUT_ENROLLMENT,
+        DELETE_ENROLLMENT,
+        PUT_GRADE_BOOK,
+        SET_MAINTENANCE
+    }
+
+    private static final Op[] OPS = Op.values();
+
+    private JournalRecords() {
+    }
+
+    static byte[] putAuth(AuthRecord record) {
+        return encode(Op.PUT_AUTH, out -> {
+            out.writeUTF(record.userId());
+            out.writeUTF(record.username());
+            out.writeByte(record.role().ordinal());
+            out.writeUTF(record.passwordHash());
+            out.writeBoolean(record.active());
+            writeDateTime(out, record.lastLogin());
+            out.writeInt(record.failedAttempts());
+            writeDateTime(out, record.lockoutUntil());
+        });
+    }
+
+    static byte[] putStudent(Student student) {
+        return encode(Op.PUT_STUDENT, out -> {
+            out.writeUTF(student.getUserId());
+            writeString(out, student.getRollNumber());
+            writeString(out, student.getProgram());
+            out.writeInt(student.getYear());
+        });
+    }
+
+    static byte[] putInstructor(Instructor instructor) {
+        return encode(Op.PUT_INSTRUCTOR, out -> {
+            out.writeUTF(instructor.getUserId());
+            writeString(out, instructor.getDepartment());
+            writeString(out, instructor.getTitle());
+        });
+    }
+
+    static byte[] putCourse(Course course) {
+        return encode(Op.PUT_COURSE, out -> {
+            out.writeUTF(course.getCourseId());
+            writeString(out, course.getCode());
+            writeString(out, course.getTitle());
+            out.writeInt(course.getCredits());
+        });
+    }
+
+    static byte[] deleteCourse(String courseId) {
+        return encode(Op.DELETE_COURSE, out -> out.writeUTF(courseId));
+    }
+
+    static byte[] putSection(Section section) {
+        return encode(Op.PUT_SECTION, out -> {
+            out.writeUTF(section.getSectionId());
+            writeString(out, section.getCourseId());
+            writeString(out, section.getInstructorId());
+            out.writeByte(section.getDayOfWeek().ordinal());
+            out.writeInt(section.getStartTime().toSecondOfDay());
+            out.writeInt(section.getEndTime().toSecondOfDay());
+            writeString(out, section.getRoom());
+            out.writeInt(section.getCapacity());
+            out.writeInt(section.getSemester());
+            out.writeInt(section.getYear());
+            out.writeLong(section.getRegistrationDeadline().toEpochDay());
+            writeString(out, section.getWeightingRule());
+            writeString(out, section.getComponentNames());
+        });
+    }
+
+    static byte[] deleteSection(String sectionId) {
+        return encode(Op.DELETE_SECTION, out -> out.writeUTF(sectionId));
+    }
+
+    static byte[] putEnrollment(Enrollment enrollment) {
+        return encode(Op.PUT_ENROLLMENT, out -> {
+            out.writeUTF(enrollment.getEnrollmentId());
+            out.writeUTF(enrollment.getStudentId());
+            out.writeUTF(enrollment.getSectionId());
+            out.writeByte(enrollment.getStatus().ordinal());
+        });
+    }
+
+    static byte[] deleteEnrollment(String enrollmentId) {
+        return encode(Op.DELETE_ENROLLMENT, out -> out.writeUTF(enrollmentId));
+    }
+
+    static byte[] putGradeBook(GradeBook gradeBook) {
+        return encode(Op.PUT_GRADE_BOOK, out -> {
+            out.writeUTF(gradeBook.getEnrollmentId());
+            Double finalGrade = gradeBook.getFinalGrade().orElse(null);
+            out.writeBoolean(finalGrade != null);
+            if (finalGrade != null) {
+                out.writeDouble(finalGrade);
+            }
+            out.writeInt(gradeBook.getComponents().size());
+            for (GradeComponent component : gradeBook.getComponents()) {
+                writeString(out, component.getName());
+                out.writeDouble(component.getScore());
+                out.writeDouble(component.getWeight());
+            }
+        });
+    }
+
+    static byte[] setMaintenance(boolean maintenanceOn) {
+        return encode(Op.SET_MAINTENANCE, out -> out.writeBoolean(maintenanceOn));
+    }
+
+    static void apply(InMemoryDataStore store, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            Op op = OPS[in.readUnsignedByte()];
+            switch (op) {
+                case PUT_AUTH -> {
+                    AuthRecord record = new AuthRecord(
+                            in.readUTF(),
+                            in.readUTF(),
+                            Role.values()[in.readUnsignedByte()],
+                            in.readUTF(),
+                            in.readBoolean(),
+                            readDateTime(in),
+                            in.readInt(),
+                            readDateTime(in));
+                    store.putAuthRecord(record);
+                }
+                case PUT_STUDENT -> {
+                    Student student = new Student(in.readUTF(), readString(in), readString(in), in.readInt());
+                    store.putStudent(student);
+                }
+                case PUT_INSTRUCTOR -> {
+                    Instructor instructor = new Instructor(in.readUTF(), readString(in), readString(in));
+                    store.putInstructor(instructor);
+                }
+                case PUT_COURSE -> {
+                    Course course = new Course(in.readUTF(), readString(in), readString(in), in.readInt());
+                    store.putCourse(course);
+                }
+                case DELETE_COURSE -> store.removeCourse(in.readUTF());
+                case PUT_SECTION -> {
+                    Section section = new Section(
+                            in.readUTF(),
+                            readString(in),
+                            readString(in),
+                            DayOfWeek.values()[in.readUnsignedByte()],
+                            LocalTime.ofSecondOfDay(in.readInt()),
+                            LocalTime.ofSecondOfDay(in.readInt()),
+                            readString(in),
+                            in.readInt(),
+                            in.readInt(),
+                            in.readInt(),
+                            LocalDate.ofEpochDay(in.readLong()),
+                            readString(in),
+                            readString(in));
+                    store.putSection(section);
+                }
+                case DELETE_SECTION -> store.removeSection(in.readUTF());
+                case PUT_ENROLLMENT -> store.putEnrollment(new Enrollment(
+                        in.readUTF(),
+                        in.readUTF(),
+                        in.readUTF(),
+                        EnrollmentStatus.values()[in.readUnsignedByte()]));
+                case DELETE_ENROLLMENT -> store.removeEnrollment(in.readUTF());
+                case PUT_GRADE_BOOK -> {
+                    String enrollmentId = in.readUTF();
+                    Double finalGrade = in.readBoolean() ? in.readDouble() : null;
+                    int count = in.readInt();
+                    List<GradeComponent> components = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        components.add(new GradeComponent(readString(in), in.readDouble(), in.readDouble()));
+                    }
+                    store.putGradeBook(new GradeBook(enrollmentId, components, finalGrade));
+                }
+                case SET_MAINTENANCE -> store.setMaintenanceSetting(in.readBoolean());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt journal record", e);
+        }
+    }
+
+    private static byte[] encode(Op op, RecordWriter writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(op.ordinal());
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
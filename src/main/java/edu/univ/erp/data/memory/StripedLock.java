@@ -0,0 +1,27 @@
+package edu.univ.erp.data.memory;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks addressed by key hash. Operations on the same key always share a lock,
+ * while unrelated keys rarely contend, without keeping one lock object per entity.
+ */
+final class StripedLock {
+
+    private final ReentrantLock[] stripes;
+
+    StripedLock(int minimumStripes) {
+        int size = Integer.highestOneBit(Math.max(1, minimumStripes - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    Lock forKey(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,31 @@
+package edu.univ.erp.data.page;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextKey} is the sort key of the last item and
+ * is {@code null} when nothing follows it.
+ */
+public record Page<T>(List<T> items, String nextKey) {
+
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    public boolean hasMore() {
+        return nextKey != null;
+    }
+
+    /**
+     * Builds a page from up to {@code limit + 1} rows in key order. Fetching one row more than
+     * asked for tells whether another page exists without a separate count query.
+     */
+    public static <T> Page<T> fromLookahead(List<T> rows, int limit, Function<T, String> keyOf) {
+        if (rows.size() <= limit) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new Page<>(items, keyOf.apply(items.get(limit - 1)));
+    }
+}
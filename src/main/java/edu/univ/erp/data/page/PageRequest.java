@@ -0,0 +1,37 @@
+package edu.univ.erp.data.page;
+
+/**
+ * Asks for at most {@code limit} rows whose sort key comes strictly after {@code after} in the
+ * requested direction. A {@code null} key starts from the beginning. Paging by key rather than
+ * by offset keeps every page an index seek, no matter how deep into the listing it is, and rows
+ * inserted or deleted between requests never shift later pages.
+ */
+public record PageRequest(String after, int limit, boolean descending) {
+
+    public static final int MAX_LIMIT = 1000;
+
+    public PageRequest {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    public PageRequest(String after, int limit) {
+        this(after, limit, false);
+    }
+
+    public static PageRequest first(int limit) {
+        return new PageRequest(null, limit);
+    }
+
+    public static PageRequest first(int limit, boolean descending) {
+        return new PageRequest(null, limit, descending);
+    }
+
+    public PageRequest next(Page<?> page) {
+        if (!page.hasMore()) {
+            throw new IllegalStateException("No page after the last one");
+        }
+        return new PageRequest(page.nextKey(), limit, descending);
+    }
+}
@@ -75,6 +75,8 @@ public final class DataSourceConfig {
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
         config.addDataSourceProperty("useServerPrepStmts", "true");
+        // Let the driver send batched account inserts as multi-row statements
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
         
         return new HikariDataSource(config);
     }
@@ -114,6 +116,8 @@ public final class DataSourceConfig {
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
         config.addDataSourceProperty("useServerPrepStmts", "true");
+        // Let the driver send batched grade writes as multi-row statements
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
         
         return new HikariDataSource(config);
     }
@@ -0,0 +1,32 @@
+package edu.univ.erp.infra;
+
+import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.student.Student;
+
+/**
+ * Receives rows from {@link SyntheticDatasetGenerator}. Rows arrive in dependency order
+ * (instructors, courses, sections, students, then enrollments), so a sink can write each one
+ * as soon as it arrives.
+ */
+public interface DatasetSink {
+
+    void instructor(AuthRecord account, Instructor instructor);
+
+    void course(Course course);
+
+    void section(Section section);
+
+    void student(AuthRecord account, Student student);
+
+    void enrollment(Enrollment enrollment, GradeBook gradeBook);
+
+    /**
+     * Called once after the last row.
+     */
+    void finish();
+}
@@ -10,7 +10,7 @@ public final class DemoCatalogSeeder {
     private static final int TARGET_COURSES = 100;
     private static final String DEMO_ID_PREFIX = "DEMO-COURSE-";
     private static final String DEMO_CODE_PREFIX = "DEMO";
-    private static final List<String> SUBJECTS = List.of(
+    static final List<String> SUBJECTS = List.of(
             "Algorithms", "Data Structures", "Networks", "Operating Systems", "Databases",
             "Machine Learning", "Artificial Intelligence", "Compilers", "Graphics", "Security",
             "Cloud Computing", "Distributed Systems", "Parallel Computing", "Cryptography",
@@ -0,0 +1,55 @@
+package edu.univ.erp.infra;
+
+import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.student.Student;
+
+/**
+ * Loads a generated dataset into an {@link InMemoryDataStore}.
+ */
+public final class InMemoryDatasetSink implements DatasetSink {
+
+    private final InMemoryDataStore store;
+
+    public InMemoryDatasetSink(InMemoryDataStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void instructor(AuthRecord account, Instructor instructor) {
+        store.putAuthRecord(account);
+        store.putInstructor(instructor);
+    }
+
+    @Override
+    public void course(Course course) {
+        store.putCourse(course);
+    }
+
+    @Override
+    public void section(Section section) {
+        store.putSection(section);
+    }
+
+    @Override
+    public void student(AuthRecord account, Student student) {
+        store.putAuthRecord(account);
+        store.putStudent(student);
+    }
+
+    @Override
+    public void enrollment(Enrollment enrollment, GradeBook gradeBook) {
+        store.putEnrollment(enrollment);
+        store.putGradeBook(gradeBook);
+    }
+
+    @Override
+    public void finish() {
+        // Nothing is buffered.
+    }
+}
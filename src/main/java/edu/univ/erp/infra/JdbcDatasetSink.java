@@ -0,0 +1,277 @@
+package edu.univ.erp.infra;
+
+import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.student.Student;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a generated dataset with batched inserts. Each database gets one connection with
+ * auto-commit off; rows are sent {@code batchSize} at a time and committed per batch. ERP
+ * batches are always executed in table dependency order, so a grade component never reaches
+ * the server before its enrollment does.
+ */
+public final class JdbcDatasetSink implements DatasetSink, AutoCloseable {
+
+    private final Connection authConnection;
+    private final Connection erpConnection;
+    private final int batchSize;
+    private final Batch users;
+    private final Batch instructors;
+    private final Batch courses;
+    private final Batch sections;
+    private final Batch students;
+    private final Batch enrollments;
+    private final Batch gradeBooks;
+    private final Batch gradeComponents;
+    private final List<Batch> erpBatches = new ArrayList<>();
+
+    public JdbcDatasetSink(DataSource authDataSource, DataSource erpDataSource, int batchSize) {
+        this.batchSize = batchSize;
+        try {
+            authConnection = authDataSource.getConnection();
+            erpConnection = erpDataSource.getConnection();
+            authConnection.setAutoCommit(false);
+            erpConnection.setAutoCommit(false);
+            users = new Batch(authConnection, """
+                    INSERT INTO auth_users (user_id, username, role, password_hash, active, failed_attempts)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    """);
+            instructors = erpBatch("INSERT INTO instructors (user_id, department, title) VALUES (?, ?, ?)");
+            courses = erpBatch("INSERT INTO courses (course_id, code, title, credits) VALUES (?, ?, ?, ?)");
+            sections = erpBatch("""
+                    INSERT INTO sections (section_id, course_id, instructor_id, day_of_week, start_time, end_time,
+                                          room, capacity, semester, academic_year, registration_deadline,
+                                          weighting_rule, component_names)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    """);
+            students = erpBatch("INSERT INTO students (user_id, roll_no, program, academic_year) VALUES (?, ?, ?, ?)");
+            enrollments = erpBatch("""
+                    INSERT INTO enrollments (enrollment_id, student_id, section_id, status)
+                    VALUES (?, ?, ?, ?)
+                    """);
+            gradeBooks = erpBatch("INSERT INTO grade_books (enrollment_id, final_grade) VALUES (?, ?)");
+            gradeComponents = erpBatch("""
+                    INSERT INTO grade_components (enrollment_id, name, score, weight)
+                    VALUES (?, ?, ?, ?)
+                    """);
+        } catch (SQLException e) {
+            close();
+            throw new IllegalStateException("Failed to prepare dataset load", e);
+        }
+    }
+
+    /**
+     * Removes rows left by an earlier run with the same id prefix, so a seed can be loaded again.
+     * Enrollments, grade books and components go with their sections through ON DELETE CASCADE.
+     */
+    public void deleteExisting(String idPrefix) {
+        String pattern = idPrefix + "%";
+        try {
+            deleteLike(erpConnection, "sections", "section_id", pattern);
+            deleteLike(erpConnection, "students", "user_id", pattern);
+            deleteLike(erpConnection, "courses", "course_id", pattern);
+            deleteLike(erpConnection, "instructors", "user_id", pattern);
+            erpConnection.commit();
+            deleteLike(authConnection, "auth_users", "user_id", pattern);
+            authConnection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to delete generated data", e);
+        }
+    }
+
+    @Override
+    public void instructor(AuthRecord account, Instructor instructor) {
+        addUser(account);
+        add(instructors, ps -> {
+            ps.setString(1, instructor.getUserId());
+            ps.setString(2, instructor.getDepartment());
+            ps.setString(3, instructor.getTitle());
+        });
+    }
+
+    @Override
+    public void course(Course course) {
+        add(courses, ps -> {
+            ps.setString(1, course.getCourseId());
+            ps.setString(2, course.getCode());
+            ps.setString(3, course.getTitle());
+            ps.setInt(4, course.getCredits());
+        });
+    }
+
+    @Override
+    public void section(Section section) {
+        add(sections, ps -> {
+            ps.setString(1, section.getSectionId());
+            ps.setString(2, section.getCourseId());
+            ps.setString(3, section.getInstructorId());
+            ps.setString(4, section.getDayOfWeek().name());
+            ps.setTime(5, Time.valueOf(section.getStartTime()));
+            ps.setTime(6, Time.valueOf(section.getEndTime()));
+            ps.setString(7, section.getRoom());
+            ps.setInt(8, section.getCapacity());
+            ps.setInt(9, section.getSemester());
+            ps.setInt(10, section.getYear());
+            ps.setDate(11, Date.valueOf(section.getRegistrationDeadline()));
+            ps.setString(12, section.getWeightingRule());
+            ps.setString(13, section.getComponentNames());
+        });
+    }
+
+    @Override
+    public void student(AuthRecord account, Student student) {
+        addUser(account);
+        add(students, ps -> {
+            ps.setString(1, student.getUserId());
+            ps.setString(2, student.getRollNumber());
+            ps.setString(3, student.getProgram());
+            ps.setInt(4, student.getYear());
+        });
+    }
+
+    @Override
+    public void enrollment(Enrollment enrollment, GradeBook gradeBook) {
+        add(enrollments, ps -> {
+            ps.setString(1, enrollment.getEnrollmentId());
+            ps.setString(2, enrollment.getStudentId());
+            ps.setString(3, enrollment.getSectionId());
+            ps.setString(4, enrollment.getStatus().name());
+        });
+        add(gradeBooks, ps -> {
+            ps.setString(1, gradeBook.getEnrollmentId());
+            ps.setObject(2, gradeBook.getFinalGrade().orElse(null));
+        });
+        for (GradeComponent component : gradeBook.getComponents()) {
+            add(gradeComponents, ps -> {
+                ps.setString(1, gradeBook.getEnrollmentId());
+                ps.setString(2, component.getName());
+                ps.setDouble(3, component.getScore());
+                ps.setDouble(4, component.getWeight());
+            });
+        }
+    }
+
+    /**
+     * Flushes what is left and recomputes {@code seats_taken} for every section, since the
+     * enrollments were inserted without going through seat reservation.
+     */
+    @Override
+    public void finish() {
+        try {
+            flushErp();
+            users.flush();
+            authConnection.commit();
+            try (Statement statement = erpConnection.createStatement()) {
+                statement.executeUpdate("""
+                        UPDATE sections s
+                        SET s.seats_taken = (SELECT COUNT(*) FROM enrollments e WHERE e.section_id = s.section_id)
+                        """);
+            }
+            erpConnection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to finish dataset load", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Connection connection : new Connection[] {authConnection, erpConnection}) {
+            if (connection == null) {
+                continue;
+            }
+            try {
+                connection.rollback();
+                connection.setAutoCommit(true);
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Failed to close dataset connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private Batch erpBatch(String sql) throws SQLException {
+        Batch batch = new Batch(erpConnection, sql);
+        erpBatches.add(batch);
+        return batch;
+    }
+
+    private void addUser(AuthRecord account) {
+        add(users, ps -> {
+            ps.setString(1, account.userId());
+            ps.setString(2, account.username());
+            ps.setString(3, account.role().name());
+            ps.setString(4, account.passwordHash());
+            ps.setBoolean(5, account.active());
+            ps.setInt(6, account.failedAttempts());
+        });
+    }
+
+    private void add(Batch batch, Binder binder) {
+        try {
+            binder.bind(batch.statement);
+            batch.statement.addBatch();
+            if (++batch.pending < batchSize) {
+                return;
+            }
+            if (batch == users) {
+                users.flush();
+                authConnection.commit();
+            } else {
+                flushErp();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to write generated data", e);
+        }
+    }
+
+    private void flushErp() throws SQLException {
+        for (Batch batch : erpBatches) {
+            batch.flush();
+        }
+        erpConnection.commit();
+    }
+
+    private static void deleteLike(Connection connection, String table, String column, String pattern) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "DELETE FROM " + table + " WHERE " + column + " LIKE ?")) {
+            ps.setString(1, pattern);
+            ps.executeUpdate();
+        }
+    }
+
+    private static final class Batch {
+        private final PreparedStatement statement;
+        private int pending;
+
+        private Batch(Connection connection, String sql) throws SQLException {
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        private void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+}
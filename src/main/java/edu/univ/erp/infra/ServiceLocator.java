@@ -1,8 +1,13 @@
 package edu.univ.erp.infra;
 
 import edu.univ.erp.access.AccessController;
+import edu.univ.erp.auth.PasswordHasher;
+import edu.univ.erp.auth.PasswordVerifier;
 import edu.univ.erp.auth.SessionContext;
+import edu.univ.erp.auth.VerifiedCredentialCache;
 import edu.univ.erp.data.auth.AuthRepository;
+import edu.univ.erp.data.auth.LoginBatchingAuthRepository;
+import edu.univ.erp.data.cache.CachingErpRepository;
 import edu.univ.erp.data.erp.ErpRepository;
 import edu.univ.erp.data.jdbc.JdbcAuthRepository;
 import edu.univ.erp.data.jdbc.JdbcErpRepository;
@@ -18,6 +23,8 @@ import edu.univ.erp.service.impl.DefaultInstructorService;
 import edu.univ.erp.service.impl.DefaultMaintenanceService;
 import edu.univ.erp.service.impl.DefaultStudentService;
 
+import java.time.Duration;
+
 public final class ServiceLocator {
 
     private static final AccessController ACCESS_CONTROLLER = new AccessController();
@@ -26,14 +33,15 @@ public final class ServiceLocator {
     private static final DataSource AUTH_DATA_SOURCE = DataSourceConfig.getAuthDataSource();
     private static final DataSource ERP_DATA_SOURCE = DataSourceConfig.getErpDataSource();
 
-    private static final AuthRepository AUTH_REPOSITORY = new JdbcAuthRepository(AUTH_DATA_SOURCE);
-    private static final ErpRepository ERP_REPOSITORY = new JdbcErpRepository(ERP_DATA_SOURCE);
+    private static final AuthRepository AUTH_REPOSITORY = createAuthRepository();
+    private static final ErpRepository ERP_REPOSITORY = createErpRepository();
 
     static {
         ACCESS_CONTROLLER.setMaintenanceMode(ERP_REPOSITORY.getMaintenanceSetting().isMaintenanceOn());
     }
 
-    private static final AuthService AUTH_SERVICE = new DefaultAuthService(AUTH_REPOSITORY, SESSION_CONTEXT);
+    private static final PasswordVerifier PASSWORD_VERIFIER = createPasswordVerifier();
+    private static final AuthService AUTH_SERVICE = new DefaultAuthService(AUTH_REPOSITORY, SESSION_CONTEXT, PASSWORD_VERIFIER);
     private static final StudentService STUDENT_SERVICE = new DefaultStudentService(ERP_REPOSITORY, ACCESS_CONTROLLER);
     private static final InstructorService INSTRUCTOR_SERVICE = new DefaultInstructorService(ERP_REPOSITORY, ACCESS_CONTROLLER);
     private static final AdminService ADMIN_SERVICE = new DefaultAdminService(AUTH_REPOSITORY, ERP_REPOSITORY, ACCESS_CONTROLLER);
@@ -42,6 +50,53 @@ public final class ServiceLocator {
     private ServiceLocator() {
     }
 
+    /**
+     * Batches last-login writes when AUTH_LOGIN_FLUSH_MILLIS is positive, so a successful login
+     * does not wait on that write; the timestamps reach the database within that interval.
+     */
+    private static AuthRepository createAuthRepository() {
+        AuthRepository repository = new JdbcAuthRepository(AUTH_DATA_SOURCE);
+        long flushMillis = Long.parseLong(System.getenv().getOrDefault("AUTH_LOGIN_FLUSH_MILLIS", "0"));
+        if (flushMillis <= 0) {
+            return repository;
+        }
+        return new LoginBatchingAuthRepository(repository, Duration.ofMillis(flushMillis));
+    }
+
+    /**
+     * Wraps the JDBC repository in a read-through cache when ERP_CACHE_ENABLED is true.
+     * ERP_CACHE_MAX_ENTRIES bounds each entity cache and ERP_CACHE_TTL_SECONDS limits how long
+     * a change made by another client can stay invisible.
+     */
+    private static ErpRepository createErpRepository() {
+        ErpRepository repository = new JdbcErpRepository(ERP_DATA_SOURCE);
+        if (!Boolean.parseBoolean(System.getenv().getOrDefault("ERP_CACHE_ENABLED", "false"))) {
+            return repository;
+        }
+        int maxEntries = Integer.parseInt(System.getenv().getOrDefault("ERP_CACHE_MAX_ENTRIES", "1000"));
+        long ttlSeconds = Long.parseLong(System.getenv().getOrDefault("ERP_CACHE_TTL_SECONDS", "60"));
+        return new CachingErpRepository(repository, maxEntries, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Sizes the password hashing pool from AUTH_HASH_THREADS (default: one per core) and
+     * AUTH_HASH_QUEUE_DEPTH, the number of checks allowed to wait before logins are refused.
+     * AUTH_BCRYPT_COST sets the work factor for new hashes; older ones are upgraded on login.
+     * AUTH_VERIFIED_CACHE_SIZE (0 disables) and AUTH_VERIFIED_CACHE_TTL_SECONDS bound how many
+     * recent successful checks are remembered, and for how long.
+     */
+    private static PasswordVerifier createPasswordVerifier() {
+        PasswordHasher.setCost(Integer.parseInt(System.getenv().getOrDefault("AUTH_BCRYPT_COST",
+                String.valueOf(PasswordHasher.DEFAULT_COST))));
+        int threads = Integer.parseInt(System.getenv().getOrDefault("AUTH_HASH_THREADS",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int queueDepth = Integer.parseInt(System.getenv().getOrDefault("AUTH_HASH_QUEUE_DEPTH", "32"));
+        int cacheSize = Integer.parseInt(System.getenv().getOrDefault("AUTH_VERIFIED_CACHE_SIZE", "256"));
+        long cacheTtlSeconds = Long.parseLong(System.getenv().getOrDefault("AUTH_VERIFIED_CACHE_TTL_SECONDS", "300"));
+        return new PasswordVerifier(threads, queueDepth,
+                new VerifiedCredentialCache(cacheSize, Duration.ofSeconds(cacheTtlSeconds)));
+    }
+
     public static AuthService authService() {
         return AUTH_SERVICE;
     }
@@ -78,6 +133,21 @@ public final class ServiceLocator {
         return AUTH_REPOSITORY;
     }
 
+    public static PasswordVerifier passwordVerifier() {
+        return PASSWORD_VERIFIER;
+    }
+
+    /**
+     * Flushes deferred writes and stops the password hashing pool. Call before the data sources
+     * are closed.
+     */
+    public static void shutdown() {
+        if (AUTH_REPOSITORY instanceof LoginBatchingAuthRepository batching) {
+            batching.close();
+        }
+        PASSWORD_VERIFIER.close();
+    }
+
     /**
      * Data is persisted immediately through JDBC, so this is a no-op that remains for
      * backwards compatibility.
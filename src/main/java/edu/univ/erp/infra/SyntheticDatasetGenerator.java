@@ -0,0 +1,271 @@
+package edu.univ.erp.infra;
+
+import edu.univ.erp.auth.PasswordHasher;
+import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.enrollment.EnrollmentStatus;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.student.Student;
+import edu.univ.erp.domain.user.Role;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a reproducible, university-sized dataset for load tests and benchmarks. The same
+ * {@link Spec} always produces the same rows. Course titles reuse the subjects of
+ * {@link DemoCatalogSeeder}; all ids start with {@link #ID_PREFIX} so a load can be removed again.
+ *
+ * <p>Run against the configured databases with
+ * {@code set MAIN_CLASS=edu.univ.erp.infra.SyntheticDatasetGenerator && run.bat --seed=42}.
+ * Every generated account uses the password {@link #DEFAULT_PASSWORD}.</p>
+ */
+public final class SyntheticDatasetGenerator {
+
+    public static final String ID_PREFIX = "GEN-";
+    public static final String DEFAULT_PASSWORD = "load123";
+
+    private static final List<String> PROGRAMS = List.of(
+            "B.Tech CS", "B.Tech ECE", "B.Tech ME", "B.Sc Mathematics", "B.Sc Physics", "M.Tech CS", "BBA");
+    private static final List<String> DEPARTMENTS = List.of(
+            "Computer Science", "Electronics", "Mechanical", "Mathematics", "Physics", "Management");
+    private static final List<String> TITLES = List.of("Assistant Professor", "Associate Professor", "Professor");
+    private static final String[][] GRADING_SCHEMES = {
+            {"Quiz,Midterm,Final", "20,30,50"},
+            {"Lab,Midterm,Final", "30,30,40"},
+            {"Assignment,Project,Final", "25,35,40"}
+    };
+
+    /**
+     * Dataset size and random seed. Sections are given about a quarter more seats in total
+     * than there are enrollments, and popular sections fill first.
+     */
+    public record Spec(int students, int instructors, int courses, int sections, int enrollments, long seed) {
+
+        public static Spec universityScale(long seed) {
+            return new Spec(50_000, 500, 1_000, 5_000, 500_000, seed);
+        }
+    }
+
+    private final Spec spec;
+    private final Random random;
+
+    private SyntheticDatasetGenerator(Spec spec) {
+        this.spec = spec;
+        this.random = new Random(spec.seed());
+    }
+
+    public static void generate(Spec spec, DatasetSink sink) {
+        new SyntheticDatasetGenerator(spec).run(sink);
+    }
+
+    private void run(DatasetSink sink) {
+        if (spec.enrollments() > (long) spec.students() * spec.sections()) {
+            throw new IllegalArgumentException("More enrollments than student/section pairs");
+        }
+        // One hash for every account: hashing each of 50k passwords would dominate the run.
+        String passwordHash = PasswordHasher.hash(DEFAULT_PASSWORD);
+
+        for (int i = 0; i < spec.instructors(); i++) {
+            String userId = ID_PREFIX + String.format("INST-%05d", i);
+            sink.instructor(
+                    account(userId, String.format("gen.inst%05d", i), Role.INSTRUCTOR, passwordHash),
+                    new Instructor(userId, pick(DEPARTMENTS), pick(TITLES)));
+        }
+
+        for (int i = 0; i < spec.courses(); i++) {
+            String subject = DemoCatalogSeeder.SUBJECTS.get(i % DemoCatalogSeeder.SUBJECTS.size());
+            sink.course(new Course(
+                    courseId(i),
+                    String.format("GEN%05d", i),
+                    subject + " " + (100 + i / DemoCatalogSeeder.SUBJECTS.size()),
+                    2 + random.nextInt(4)));
+        }
+
+        int[] capacities = new int[spec.sections()];
+        String[][] componentNames = new String[spec.sections()][];
+        double[][] componentWeights = new double[spec.sections()][];
+        int averageCapacity = (int) Math.ceil(spec.enrollments() * 1.25 / spec.sections());
+        LocalDate deadline = LocalDate.now().plusDays(30);
+        for (int i = 0; i < spec.sections(); i++) {
+            capacities[i] = Math.max(10, (int) (averageCapacity * (0.75 + random.nextDouble() / 2)));
+            String[] scheme = GRADING_SCHEMES[random.nextInt(GRADING_SCHEMES.length)];
+            componentNames[i] = scheme[0].split(",");
+            String[] weights = scheme[1].split(",");
+            componentWeights[i] = new double[weights.length];
+            for (int c = 0; c < weights.length; c++) {
+                componentWeights[i][c] = Integer.parseInt(weights[c]) / 100.0;
+            }
+            LocalTime start = LocalTime.of(8 + random.nextInt(9), random.nextBoolean() ? 0 : 30);
+            sink.section(new Section(
+                    sectionId(i),
+                    courseId(i % spec.courses()),
+                    ID_PREFIX + String.format("INST-%05d", random.nextInt(spec.instructors())),
+                    DayOfWeek.of(1 + random.nextInt(5)),
+                    start,
+                    start.plusMinutes(90),
+                    String.format("R-%03d", random.nextInt(400)),
+                    capacities[i],
+                    1 + random.nextInt(2),
+                    deadline.getYear(),
+                    deadline,
+                    scheme[1],
+                    scheme[0]));
+        }
+
+        double[] ability = new double[spec.students()];
+        for (int i = 0; i < spec.students(); i++) {
+            String userId = studentId(i);
+            ability[i] = 55 + random.nextDouble() * 35;
+            sink.student(
+                    account(userId, String.format("gen.stu%06d", i), Role.STUDENT, passwordHash),
+                    new Student(userId, String.format("GEN%07d", i), pick(PROGRAMS), 1 + random.nextInt(4)));
+        }
+
+        SeatAllocator seats = new SeatAllocator(capacities);
+        int perStudent = spec.enrollments() / spec.students();
+        int remainder = spec.enrollments() % spec.students();
+        long enrollmentSeq = 0;
+        for (int s = 0; s < spec.students(); s++) {
+            int wanted = perStudent + (s < remainder ? 1 : 0);
+            List<Integer> taken = new ArrayList<>(wanted);
+            for (int k = 0; k < wanted; k++) {
+                // Skewed towards low section numbers, so some sections fill up and others stay sparse.
+                int preferred = (int) (spec.sections() * Math.pow(random.nextDouble(), 1.5));
+                int section = seats.claim(preferred, taken);
+                taken.add(section);
+                String enrollmentId = ID_PREFIX + String.format("ENR-%07d", enrollmentSeq++);
+                sink.enrollment(
+                        new Enrollment(enrollmentId, studentId(s), sectionId(section), EnrollmentStatus.ACTIVE),
+                        gradeBook(enrollmentId, ability[s], componentNames[section], componentWeights[section]));
+            }
+        }
+        sink.finish();
+    }
+
+    private GradeBook gradeBook(String enrollmentId, double ability, String[] names, double[] weights) {
+        List<GradeComponent> components = new ArrayList<>(names.length);
+        double finalGrade = 0;
+        for (int c = 0; c < names.length; c++) {
+            double score = Math.round(Math.max(0, Math.min(100, ability + random.nextGaussian() * 12)) * 10) / 10.0;
+            components.add(new GradeComponent(names[c], score, weights[c]));
+            finalGrade += score * weights[c];
+        }
+        return new GradeBook(enrollmentId, components, Math.round(finalGrade * 100) / 100.0);
+    }
+
+    private AuthRecord account(String userId, String username, Role role, String passwordHash) {
+        return new AuthRecord(userId, username, role, passwordHash, true, null, 0, null);
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String courseId(int index) {
+        return ID_PREFIX + String.format("CRS-%05d", index);
+    }
+
+    private static String sectionId(int index) {
+        return ID_PREFIX + String.format("SEC-%06d", index);
+    }
+
+    public static String studentId(int index) {
+        return ID_PREFIX + String.format("STU-%06d", index);
+    }
+
+    /**
+     * Hands out seats, moving to the next section with room when the preferred one is full.
+     * Full sections are skipped through a union-find style "next open section" pointer, so
+     * claims stay cheap even once most of the popular sections have filled up.
+     */
+    private static final class SeatAllocator {
+        private final int[] remaining;
+        private final int[] next;
+
+        SeatAllocator(int[] capacities) {
+            remaining = capacities.clone();
+            next = new int[capacities.length];
+            for (int i = 0; i < next.length; i++) {
+                next[i] = i;
+            }
+        }
+
+        int claim(int preferred, List<Integer> exclude) {
+            int candidate = open(preferred);
+            for (int attempts = 0; exclude.contains(candidate); attempts++) {
+                if (attempts == next.length) {
+                    throw new IllegalStateException("Not enough section capacity for the requested enrollments");
+                }
+                candidate = open((candidate + 1) % next.length);
+            }
+            if (--remaining[candidate] == 0) {
+                next[candidate] = (candidate + 1) % next.length;
+            }
+            return candidate;
+        }
+
+        private int open(int start) {
+            int root = start;
+            int hops = 0;
+            while (next[root] != root) {
+                root = next[root];
+                if (++hops > next.length) {
+                    throw new IllegalStateException("Not enough section capacity for the requested enrollments");
+                }
+            }
+            for (int node = start; next[node] != node; ) {
+                int following = next[node];
+                next[node] = root;
+                node = following;
+            }
+            return root;
+        }
+    }
+
+    public static void main(String[] args) {
+        Spec defaults = Spec.universityScale(42L);
+        int students = defaults.students();
+        int instructors = defaults.instructors();
+        int courses = defaults.courses();
+        int sections = defaults.sections();
+        int enrollments = defaults.enrollments();
+        long seed = defaults.seed();
+        int batchSize = 1_000;
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            switch (pair[0]) {
+                case "students" -> students = Integer.parseInt(pair[1]);
+                case "instructors" -> instructors = Integer.parseInt(pair[1]);
+                case "courses" -> courses = Integer.parseInt(pair[1]);
+                case "sections" -> sections = Integer.parseInt(pair[1]);
+                case "enrollments" -> enrollments = Integer.parseInt(pair[1]);
+                case "seed" -> seed = Long.parseLong(pair[1]);
+                case "batch" -> batchSize = Integer.parseInt(pair[1]);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        Spec spec = new Spec(students, instructors, courses, sections, enrollments, seed);
+        System.out.println("Generating " + spec);
+        long started = System.nanoTime();
+        try (JdbcDatasetSink sink = new JdbcDatasetSink(
+                DataSourceConfig.getAuthDataSource(), DataSourceConfig.getErpDataSource(), batchSize)) {
+            sink.deleteExisting(ID_PREFIX);
+            generate(spec, sink);
+        } finally {
+            DataSourceConfig.shutdown();
+        }
+        System.out.printf("Loaded in %.1f s%n", (System.nanoTime() - started) / 1e9);
+    }
+}
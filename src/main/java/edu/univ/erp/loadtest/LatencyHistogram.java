@@ -0,0 +1,63 @@
+package edu.univ.erp.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets, each about 2% wider than the one
+ * before, so any percentile is reported to within 2% from one microsecond up to an hour. Many
+ * threads can record at once; reading while recording gives a close but not exact view.
+ */
+final class LatencyHistogram {
+
+    private static final double BUCKET_RATIO = 1.02;
+    private static final double LOG_RATIO = Math.log(BUCKET_RATIO);
+    private static final int BUCKETS = (int) Math.ceil(Math.log(3_600_000_000d) / LOG_RATIO) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    void recordNanos(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        int bucket = Math.min(BUCKETS - 1, (int) (Math.log(micros) / LOG_RATIO));
+        counts.incrementAndGet(bucket);
+        total.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    double meanMicros() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sumMicros.sum() / count;
+    }
+
+    long maxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Returns the upper bound, in microseconds, of the bucket holding the given percentile.
+     */
+    long percentileMicros(double percentile) {
+        long count = total.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(maxMicros(), (long) Math.ceil(Math.pow(BUCKET_RATIO, bucket + 1)));
+            }
+        }
+        return maxMicros();
+    }
+}
@@ -0,0 +1,293 @@
+package edu.univ.erp.loadtest;
+
+import edu.univ.erp.access.AccessController;
+import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.api.types.CourseCatalogRow;
+import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.infra.DataSourceConfig;
+import edu.univ.erp.infra.InMemoryDatasetSink;
+import edu.univ.erp.infra.ServiceLocator;
+import edu.univ.erp.infra.SyntheticDatasetGenerator;
+import edu.univ.erp.service.InstructorService;
+import edu.univ.erp.service.StudentService;
+import edu.univ.erp.service.impl.DefaultInstructorService;
+import edu.univ.erp.service.impl.DefaultStudentService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless load test for the service layer. Each simulated user is a virtual thread that acts as
+ * one student: it waits an exponentially distributed think time, picks an operation from the
+ * configured mix and calls {@link StudentService} or {@link InstructorService} directly. When the
+ * run ends it prints throughput and latency percentiles per operation and checks that no section
+ * was oversubscribed.
+ *
+ * <p>By default the services run over an in-memory store filled by
+ * {@link SyntheticDatasetGenerator}. With {@code --target=jdbc} they use the configured databases,
+ * which must already hold a generated dataset of the same {@code --students} size:</p>
+ * <pre>set MAIN_CLASS=edu.univ.erp.loadtest.LoadTestDriver &amp;&amp; run.bat --users=5000 --duration=120</pre>
+ */
+public final class LoadTestDriver {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final StudentService studentService;
+    private final InstructorService instructorService;
+    private final ErpRepository erpRepository;
+    private final List<String> studentIds;
+    private final List<Section> sections;
+    private final OperationMix mix;
+    private final long meanThinkMillis;
+    private final long seed;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicReference<RuntimeException> firstError = new AtomicReference<>();
+
+    LoadTestDriver(StudentService studentService,
+                   InstructorService instructorService,
+                   ErpRepository erpRepository,
+                   List<String> studentIds,
+                   OperationMix mix,
+                   long meanThinkMillis,
+                   long seed) {
+        this.studentService = studentService;
+        this.instructorService = instructorService;
+        this.erpRepository = erpRepository;
+        this.studentIds = studentIds;
+        this.sections = erpRepository.listSections();
+        this.mix = mix;
+        this.meanThinkMillis = meanThinkMillis;
+        this.seed = seed;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Runs {@code users} simulated users until {@code duration} has passed, waits for each of them
+     * to finish its current operation and returns how long the run actually took.
+     */
+    Duration run(int users, Duration duration) {
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                int id = user;
+                executor.submit(() -> simulateUser(id, deadline));
+            }
+        }
+        return Duration.ofNanos(System.nanoTime() - started);
+    }
+
+    private void simulateUser(int user, long deadline) {
+        SplittableRandom random = new SplittableRandom(seed ^ (user * 0x9E3779B97F4A7C15L));
+        String studentId = studentIds.get(user % studentIds.size());
+        while (System.nanoTime() < deadline) {
+            if (meanThinkMillis > 0) {
+                long think = (long) (-meanThinkMillis * Math.log(1 - random.nextDouble()));
+                try {
+                    Thread.sleep(think);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (System.nanoTime() >= deadline) {
+                    return;
+                }
+            }
+            execute(mix.next(random), studentId, random);
+        }
+    }
+
+    private void execute(Operation operation, String studentId, SplittableRandom random) {
+        Section section = sections.get(random.nextInt(sections.size()));
+        // Choosing what to drop is the user reading their timetable, so it is not timed.
+        String dropSectionId = null;
+        if (operation == Operation.DROP) {
+            List<Enrollment> enrollments = erpRepository.findEnrollmentsByStudent(studentId);
+            if (enrollments.isEmpty()) {
+                operation = Operation.REGISTER;
+            } else {
+                dropSectionId = enrollments.get(random.nextInt(enrollments.size())).getSectionId();
+            }
+        }
+        OperationStats operationStats = stats.get(operation);
+        long started = System.nanoTime();
+        try {
+            OperationResult<?> result = switch (operation) {
+                case CATALOG -> studentService.viewCatalog();
+                case REGISTER -> studentService.registerSection(studentId, section.getSectionId());
+                case DROP -> studentService.dropSection(studentId, dropSectionId);
+                case GRADES -> studentService.viewGrades(studentId);
+                case TIMETABLE -> studentService.viewTimetable(studentId);
+                case FINAL_GRADES -> instructorService.computeFinalGrades(
+                        section.getInstructorId(), section.getSectionId(), Map.of());
+            };
+            operationStats.latency.recordNanos(System.nanoTime() - started);
+            (result.isSuccess() ? operationStats.succeeded : operationStats.rejected).increment();
+        } catch (RuntimeException e) {
+            operationStats.latency.recordNanos(System.nanoTime() - started);
+            operationStats.errors.increment();
+            firstError.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Returns a description of every broken invariant: a section holding more students than its
+     * capacity, a student enrolled twice in one section, or a seat counter that disagrees with
+     * the enrollments actually stored.
+     */
+    List<String> checkInvariants() {
+        List<String> violations = new ArrayList<>();
+        Map<String, Integer> seatCounters = new HashMap<>();
+        for (CourseCatalogRow row : erpRepository.listCatalog()) {
+            seatCounters.put(row.sectionId(), row.seatsTaken());
+        }
+        for (Section section : erpRepository.listSections()) {
+            List<Enrollment> enrollments = erpRepository.findEnrollmentsBySection(section.getSectionId());
+            if (enrollments.size() > section.getCapacity()) {
+                violations.add(section.getSectionId() + " holds " + enrollments.size()
+                        + " students but has capacity " + section.getCapacity());
+            }
+            Set<String> students = new HashSet<>();
+            for (Enrollment enrollment : enrollments) {
+                if (!students.add(enrollment.getStudentId())) {
+                    violations.add(enrollment.getStudentId() + " is enrolled twice in " + section.getSectionId());
+                }
+            }
+            Integer counter = seatCounters.get(section.getSectionId());
+            if (counter != null && counter != enrollments.size()) {
+                violations.add(section.getSectionId() + " counts " + counter
+                        + " seats taken but has " + enrollments.size() + " enrollments");
+            }
+        }
+        return violations;
+    }
+
+    void printReport(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        System.out.printf("%-13s %9s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "ok", "rejected", "errors", "ops/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long totalOps = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            long count = operationStats.latency.count();
+            if (count == 0) {
+                continue;
+            }
+            totalOps += count;
+            StringBuilder percentiles = new StringBuilder();
+            for (double percentile : PERCENTILES) {
+                percentiles.append(String.format(" %9.2f", operationStats.latency.percentileMicros(percentile) / 1000.0));
+            }
+            System.out.printf("%-13s %9d %9d %7d %9.1f %9.2f%s %9.2f%n",
+                    entry.getKey().name().toLowerCase(),
+                    operationStats.succeeded.sum(),
+                    operationStats.rejected.sum(),
+                    operationStats.errors.sum(),
+                    count / seconds,
+                    operationStats.latency.meanMicros() / 1000.0,
+                    percentiles,
+                    operationStats.latency.maxMicros() / 1000.0);
+        }
+        System.out.printf("Total: %d operations, %.1f ops/s%n", totalOps, totalOps / seconds);
+        RuntimeException error = firstError.get();
+        if (error != null) {
+            System.out.println("First error:");
+            error.printStackTrace(System.out);
+        }
+    }
+
+    public static void main(String[] args) {
+        int users = 1_000;
+        int durationSeconds = 60;
+        long thinkMillis = 500;
+        String mixSpec = OperationMix.REGISTRATION_WEEK;
+        String target = "memory";
+        SyntheticDatasetGenerator.Spec defaults = SyntheticDatasetGenerator.Spec.universityScale(42L);
+        int students = defaults.students();
+        int sections = defaults.sections();
+        int enrollments = defaults.enrollments();
+        long seed = defaults.seed();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            switch (pair[0]) {
+                case "users" -> users = Integer.parseInt(pair[1]);
+                case "duration" -> durationSeconds = Integer.parseInt(pair[1]);
+                case "think-ms" -> thinkMillis = Long.parseLong(pair[1]);
+                case "mix" -> mixSpec = pair[1];
+                case "target" -> target = pair[1];
+                case "students" -> students = Integer.parseInt(pair[1]);
+                case "sections" -> sections = Integer.parseInt(pair[1]);
+                case "enrollments" -> enrollments = Integer.parseInt(pair[1]);
+                case "seed" -> seed = Long.parseLong(pair[1]);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        OperationMix mix = OperationMix.parse(mixSpec);
+        List<String> studentIds = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            studentIds.add(SyntheticDatasetGenerator.studentId(i));
+        }
+
+        LoadTestDriver driver;
+        if (target.equals("jdbc")) {
+            driver = new LoadTestDriver(ServiceLocator.studentService(), ServiceLocator.instructorService(),
+                    ServiceLocator.erpRepository(), studentIds, mix, thinkMillis, seed);
+        } else if (target.equals("memory")) {
+            SyntheticDatasetGenerator.Spec spec = new SyntheticDatasetGenerator.Spec(
+                    students, Math.max(1, sections / 10), Math.max(1, sections / 5), sections, enrollments, seed);
+            System.out.println("Generating " + spec);
+            InMemoryDataStore store = InMemoryDataStore.empty();
+            SyntheticDatasetGenerator.generate(spec, new InMemoryDatasetSink(store));
+            ErpRepository repository = new InMemoryErpRepository(store);
+            AccessController accessController = new AccessController();
+            driver = new LoadTestDriver(new DefaultStudentService(repository, accessController),
+                    new DefaultInstructorService(repository, accessController), repository, studentIds, mix, thinkMillis, seed);
+        } else {
+            throw new IllegalArgumentException("Unknown target " + target + "; use memory or jdbc");
+        }
+
+        System.out.printf("Running %d users for %ds against %s, mix %s, mean think time %dms%n",
+                users, durationSeconds, target, mix, thinkMillis);
+        Duration elapsed = driver.run(users, Duration.ofSeconds(durationSeconds));
+        driver.printReport(elapsed);
+
+        List<String> violations = driver.checkInvariants();
+        if (target.equals("jdbc")) {
+            DataSourceConfig.shutdown();
+        }
+        if (violations.isEmpty()) {
+            System.out.println("Invariants hold: no section over capacity, no duplicate or miscounted enrollments.");
+            return;
+        }
+        System.out.println(violations.size() + " invariant violations:");
+        violations.stream().limit(50).forEach(violation -> System.out.println("  " + violation));
+        System.exit(1);
+    }
+
+    private static final class OperationStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,10 @@
+package edu.univ.erp.loadtest;
+
+enum Operation {
+    CATALOG,
+    REGISTER,
+    DROP,
+    GRADES,
+    TIMETABLE,
+    FINAL_GRADES
+}
@@ -0,0 +1,73 @@
+package edu.univ.erp.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Relative weights of the operations a simulated user performs, parsed from a spec such as
+ * {@code catalog=40,register=25,drop=10,grades=15,timetable=5,final_grades=5}.
+ */
+final class OperationMix {
+
+    static final String REGISTRATION_WEEK = "catalog=40,register=25,drop=10,grades=15,timetable=5,final_grades=5";
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        operations = weights.keySet().toArray(Operation[]::new);
+        cumulativeWeights = new int[operations.length];
+        int running = 0;
+        for (int i = 0; i < operations.length; i++) {
+            running += weights.get(operations[i]);
+            cumulativeWeights[i] = running;
+        }
+    }
+
+    static OperationMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : spec.split(",")) {
+            String[] pair = entry.trim().split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + pair[0]);
+            }
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        return new OperationMix(weights);
+    }
+
+    Operation next(RandomGenerator random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(operations[i].name().toLowerCase(Locale.ROOT)).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return builder.toString();
+    }
+}
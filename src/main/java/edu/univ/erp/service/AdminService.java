@@ -1,12 +1,22 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.api.types.TranscriptExportFormat;
 import edu.univ.erp.domain.course.Course;
 import edu.univ.erp.domain.course.Section;
 import edu.univ.erp.domain.instructor.Instructor;
 import edu.univ.erp.domain.student.Student;
 
+import java.io.OutputStream;
+
 public interface AdminService {
+
+    /** Receives progress of a long-running operation. Called on the thread running it. */
+    @FunctionalInterface
+    interface ProgressListener {
+        void progress(int completed, int total);
+    }
+
     OperationResult<String> addUser(String username, String rawPassword, String role);
 
     OperationResult<Student> addStudentProfile(Student student);
@@ -26,5 +36,16 @@ public interface AdminService {
     OperationResult<Void> temporaryLockUser(String username, int minutes);
 
     OperationResult<Void> unlockUser(String username);
+
+    /**
+     * Writes the transcripts of every student in {@code program} and {@code year} (either may be
+     * {@code null} to match all) to {@code out} as UTF-8 CSV, returning the number of students
+     * exported. The stream is finished but left open.
+     */
+    OperationResult<Integer> exportCohortTranscripts(String program,
+                                                     Integer year,
+                                                     TranscriptExportFormat format,
+                                                     OutputStream out,
+                                                     ProgressListener listener);
 }
 
@@ -1,6 +1,7 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.api.types.GradeComputationSummary;
 import edu.univ.erp.api.types.GradeView;
 import edu.univ.erp.domain.grade.GradeComponent;
 
@@ -17,7 +18,7 @@ public interface InstructorService {
                                        String enrollmentId,
                                        Map<String, Double> componentScores);
 
-    OperationResult<Void> computeFinalGrades(String instructorId, String sectionId, Map<String, Double> weights);
+    OperationResult<GradeComputationSummary> computeFinalGrades(String instructorId, String sectionId, Map<String, Double> weights);
 
     OperationResult<List<GradeComponent>> listGradeComponents(String instructorId,
                                                               String sectionId,
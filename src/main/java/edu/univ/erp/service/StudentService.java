@@ -5,6 +5,9 @@ import edu.univ.erp.api.types.CourseCatalogRow;
 import edu.univ.erp.api.types.GradeView;
 import edu.univ.erp.api.types.TimetableEntry;
 
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 public interface StudentService {
@@ -19,5 +22,15 @@ public interface StudentService {
     OperationResult<List<GradeView>> viewGrades(String studentId);
 
     OperationResult<byte[]> downloadTranscriptCsv(String studentId);
+
+    /**
+     * Writes the transcript as UTF-8 CSV to {@code out} while it is being assembled and returns
+     * the number of rows after the header. The stream is flushed but left open.
+     */
+    OperationResult<Integer> writeTranscriptCsv(String studentId, OutputStream out);
+
+    default OperationResult<Integer> writeTranscriptCsv(String studentId, WritableByteChannel channel) {
+        return writeTranscriptCsv(studentId, Channels.newOutputStream(channel));
+    }
 }
 
@@ -0,0 +1,215 @@
+package edu.univ.erp.service.impl;
+
+import com.opencsv.CSVWriter;
+import edu.univ.erp.api.types.GradeView;
+import edu.univ.erp.api.types.TranscriptExportFormat;
+import edu.univ.erp.data.erp.CohortFilter;
+import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.erp.StudentTranscript;
+import edu.univ.erp.domain.student.Student;
+import edu.univ.erp.service.AdminService.ProgressListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports a cohort's transcripts in one pass over {@link ErpRepository#streamTranscripts}.
+ *
+ * <p>Students are read in batches, and each batch is CSV-encoded on a fork-join pool while the
+ * next one is being read. Encoded batches are written out in the order they were read, and
+ * only a few batches per pool thread are kept waiting; once that limit is reached, reading
+ * waits for the oldest batch to be written. Memory use therefore stays the same no matter how
+ * large the cohort is.</p>
+ */
+final class CohortTranscriptExporter {
+
+    private static final int STUDENTS_PER_TASK = 64;
+
+    private final ErpRepository erpRepository;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    CohortTranscriptExporter(ErpRepository erpRepository, ForkJoinPool pool) {
+        this.erpRepository = erpRepository;
+        this.pool = pool;
+        this.maxInFlight = Math.max(2, pool.getParallelism() * 2);
+    }
+
+    /** Returns the number of students written. */
+    int export(CohortFilter filter, TranscriptExportFormat format, OutputStream out, ProgressListener listener)
+            throws IOException {
+        int total = erpRepository.countStudents(filter);
+        Output output = format == TranscriptExportFormat.ZIP ? new ZipOutput(out) : new CsvOutput(out);
+        Deque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+        List<StudentTranscript> batch = new ArrayList<>(STUDENTS_PER_TASK);
+        int[] completed = {0};
+        try {
+            listener.progress(0, total);
+            erpRepository.streamTranscripts(filter, transcript -> {
+                batch.add(transcript);
+                if (batch.size() == STUDENTS_PER_TASK) {
+                    submit(inFlight, List.copyOf(batch), format);
+                    batch.clear();
+                    while (inFlight.size() > maxInFlight) {
+                        completed[0] += write(output, inFlight.poll().join());
+                        listener.progress(completed[0], total);
+                    }
+                }
+            });
+            if (!batch.isEmpty()) {
+                submit(inFlight, List.copyOf(batch), format);
+            }
+            while (!inFlight.isEmpty()) {
+                completed[0] += write(output, inFlight.poll().join());
+                listener.progress(completed[0], total);
+            }
+            output.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            inFlight.forEach(task -> task.cancel(true));
+        }
+        return completed[0];
+    }
+
+    private void submit(Deque<ForkJoinTask<Chunk>> inFlight, List<StudentTranscript> students, TranscriptExportFormat format) {
+        inFlight.add(pool.submit(() -> format == TranscriptExportFormat.ZIP ? encodeFiles(students) : encodeRows(students)));
+    }
+
+    private static int write(Output output, Chunk chunk) {
+        try {
+            for (Part part : chunk.parts()) {
+                output.write(part);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return chunk.students();
+    }
+
+    /** One transcript CSV per student, named after the roll number. */
+    private static Chunk encodeFiles(List<StudentTranscript> students) {
+        List<Part> parts = new ArrayList<>(students.size());
+        for (StudentTranscript transcript : students) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8));
+            TranscriptCsv.writeHeader(csvWriter);
+            for (GradeView grade : transcript.grades()) {
+                TranscriptCsv.writeRows(csvWriter, withComputedFinal(grade));
+            }
+            flush(csvWriter);
+            parts.add(new Part(entryName(transcript.student()), bytes.toByteArray()));
+        }
+        return new Chunk(students.size(), parts);
+    }
+
+    /** The batch's rows of the single cohort CSV. */
+    private static Chunk encodeRows(List<StudentTranscript> students) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8));
+        for (StudentTranscript transcript : students) {
+            Student student = transcript.student();
+            for (GradeView grade : transcript.grades()) {
+                TranscriptCsv.writeRows(csvWriter, withComputedFinal(grade), student.getUserId(), student.getRollNumber());
+            }
+        }
+        flush(csvWriter);
+        return new Chunk(students.size(), List.of(new Part(null, bytes.toByteArray())));
+    }
+
+    /** Fills in a missing final grade from the components, as the student's own view does. */
+    private static GradeView withComputedFinal(GradeView grade) {
+        if (grade.finalGrade() != null || grade.components().isEmpty()) {
+            return grade;
+        }
+        double finalGrade = grade.components().stream()
+                .mapToDouble(component -> component.score() * component.weight())
+                .sum();
+        return new GradeView(grade.courseCode(), grade.sectionId(), grade.components(), finalGrade);
+    }
+
+    private static String entryName(Student student) {
+        String name = student.getRollNumber() == null || student.getRollNumber().isBlank()
+                ? student.getUserId()
+                : student.getRollNumber();
+        return name.replaceAll("[^A-Za-z0-9._-]", "_") + ".csv";
+    }
+
+    private static void flush(CSVWriter csvWriter) {
+        // Writing to memory cannot fail, but CSVWriter only reports errors this way.
+        if (csvWriter.checkError()) {
+            throw new UncheckedIOException(new IOException("Failed to encode transcript"));
+        }
+    }
+
+    private record Part(String name, byte[] bytes) {
+    }
+
+    private record Chunk(int students, List<Part> parts) {
+    }
+
+    private interface Output {
+        void write(Part part) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvOutput implements Output {
+
+        private final OutputStream out;
+
+        CsvOutput(OutputStream out) throws IOException {
+            this.out = out;
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(header, StandardCharsets.UTF_8));
+            TranscriptCsv.writeCohortHeader(csvWriter);
+            flush(csvWriter);
+            out.write(header.toByteArray());
+        }
+
+        @Override
+        public void write(Part part) throws IOException {
+            out.write(part.bytes());
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class ZipOutput implements Output {
+
+        private final ZipOutputStream zip;
+
+        ZipOutput(OutputStream out) {
+            this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(Part part) throws IOException {
+            zip.putNextEntry(new ZipEntry(part.name()));
+            zip.write(part.bytes());
+            zip.closeEntry();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // Writes the central directory without closing the caller's stream.
+            zip.finish();
+            zip.flush();
+        }
+    }
+}
@@ -2,9 +2,11 @@ package edu.univ.erp.service.impl;
 
 import edu.univ.erp.access.AccessController;
 import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.api.types.TranscriptExportFormat;
 import edu.univ.erp.auth.PasswordHasher;
 import edu.univ.erp.data.auth.AuthRecord;
 import edu.univ.erp.data.auth.AuthRepository;
+import edu.univ.erp.data.erp.CohortFilter;
 import edu.univ.erp.data.erp.ErpRepository;
 import edu.univ.erp.domain.course.Course;
 import edu.univ.erp.domain.course.Section;
@@ -14,17 +16,21 @@ import edu.univ.erp.domain.student.Student;
 import edu.univ.erp.domain.user.Role;
 import edu.univ.erp.service.AdminService;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 public final class DefaultAdminService implements AdminService {
 
     private final AuthRepository authRepository;
     private final ErpRepository erpRepository;
     private final AccessController accessController;
+    private final CohortTranscriptExporter transcriptExporter;
 
     public DefaultAdminService(AuthRepository authRepository,
                                ErpRepository erpRepository,
@@ -32,6 +38,7 @@ public final class DefaultAdminService implements AdminService {
         this.authRepository = authRepository;
         this.erpRepository = erpRepository;
         this.accessController = accessController;
+        this.transcriptExporter = new CohortTranscriptExporter(erpRepository, ForkJoinPool.commonPool());
     }
 
     @Override
@@ -180,7 +187,7 @@ public final class DefaultAdminService implements AdminService {
         return authRepository.findByUsername(username)
                 .map(record -> {
                     LocalDateTime until = LocalDateTime.now().plusMinutes(minutes);
-                    authRepository.save(record.withFailedAttempts(0).withLockoutUntil(until));
+                    authRepository.updateLockout(record.userId(), 0, until);
                     return OperationResult.<Void>success(null, "User locked for " + minutes + " minute(s).");
                 })
                 .orElseGet(() -> OperationResult.failure("User not found."));
@@ -190,10 +197,23 @@ public final class DefaultAdminService implements AdminService {
     public OperationResult<Void> unlockUser(String username) {
         return authRepository.findByUsername(username)
                 .map(record -> {
-                    authRepository.save(record.withFailedAttempts(0).withLockoutUntil(null));
+                    authRepository.updateLockout(record.userId(), 0, null);
                     return OperationResult.<Void>success(null, "User unlocked.");
                 })
                 .orElseGet(() -> OperationResult.failure("User not found."));
     }
-}
 
+    @Override
+    public OperationResult<Integer> exportCohortTranscripts(String program,
+                                                            Integer year,
+                                                            TranscriptExportFormat format,
+                                                            OutputStream out,
+                                                            ProgressListener listener) {
+        try {
+            int students = transcriptExporter.export(new CohortFilter(program, year), format, out, listener);
+            return OperationResult.success(students, "Exported " + students + " transcript(s).");
+        } catch (IOException ex) {
+            return OperationResult.failure("Failed to export transcripts: " + ex.getMessage());
+        }
+    }
+}
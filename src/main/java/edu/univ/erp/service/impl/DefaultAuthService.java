@@ -2,6 +2,7 @@ package edu.univ.erp.service.impl;
 
 import edu.univ.erp.api.common.OperationResult;
 import edu.univ.erp.auth.PasswordHasher;
+import edu.univ.erp.auth.PasswordVerifier;
 import edu.univ.erp.auth.SessionContext;
 import edu.univ.erp.data.auth.AuthRecord;
 import edu.univ.erp.data.auth.AuthRepository;
@@ -10,15 +11,25 @@ import edu.univ.erp.service.AuthService;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 public final class DefaultAuthService implements AuthService {
 
+    private static final String BUSY_MESSAGE = "The server is busy signing other users in. Please try again in a moment.";
+
     private final AuthRepository authRepository;
     private final SessionContext sessionContext;
+    private final PasswordVerifier passwordVerifier;
 
-    public DefaultAuthService(AuthRepository authRepository, SessionContext sessionContext) {
+    public DefaultAuthService(AuthRepository authRepository,
+                              SessionContext sessionContext,
+                              PasswordVerifier passwordVerifier) {
         this.authRepository = authRepository;
         this.sessionContext = sessionContext;
+        this.passwordVerifier = passwordVerifier;
     }
 
     @Override
@@ -28,10 +39,11 @@ public final class DefaultAuthService implements AuthService {
                 .map(record -> {
                     LocalDateTime now = LocalDateTime.now();
                     
-                    // If lockout period has expired, reset failed attempts
-                    if (record.lockoutUntil() != null && record.lockoutUntil().isBefore(now)) {
+                    // If lockout period has expired, reset failed attempts. Nothing is written
+                    // yet: whichever update this attempt ends with clears the old values.
+                    boolean lockoutExpired = record.lockoutUntil() != null && record.lockoutUntil().isBefore(now);
+                    if (lockoutExpired) {
                         record = record.withFailedAttempts(0).withLockoutUntil(null);
-                        authRepository.save(record);
                     }
                     
                     // Check if account is locked out
@@ -40,17 +52,22 @@ public final class DefaultAuthService implements AuthService {
                         return OperationResult.<Role>failure("LOCKED:" + secondsRemaining);
                     }
                     
-                    if (!PasswordHasher.verify(password, record.passwordHash())) {
+                    Optional<Boolean> matches = checkPassword(password, record.passwordHash());
+                    if (matches.isEmpty()) {
+                        // Turned away before checking, so this is not a failed attempt
+                        return OperationResult.<Role>failure(BUSY_MESSAGE);
+                    }
+                    if (!matches.get()) {
                         // Increment failed attempts
                         int newAttempts = record.failedAttempts() + 1;
                         
                         if (newAttempts >= 5) {
                             // Lock account for 60 seconds
                             LocalDateTime lockoutUntil = now.plusSeconds(60);
-                            authRepository.save(record.withFailedAttempts(newAttempts).withLockoutUntil(lockoutUntil));
+                            authRepository.updateLockout(record.userId(), newAttempts, lockoutUntil);
                             return OperationResult.<Role>failure("LOCKED:60");
                         } else {
-                            authRepository.save(record.withFailedAttempts(newAttempts));
+                            authRepository.updateLockout(record.userId(), newAttempts, null);
                             int remaining = 5 - newAttempts;
                             return OperationResult.<Role>failure("Incorrect username or password. " + remaining + " attempt(s) remaining.");
                         }
@@ -58,7 +75,18 @@ public final class DefaultAuthService implements AuthService {
                     
                     // Successful login - reset failed attempts and update last login
                     sessionContext.establish(record.userId(), record.username(), record.role());
-                    authRepository.save(record.withLastLogin(now).withFailedAttempts(0).withLockoutUntil(null));
+                    if (lockoutExpired || record.failedAttempts() != 0 || record.lockoutUntil() != null) {
+                        authRepository.updateLockout(record.userId(), 0, null);
+                    }
+                    if (PasswordHasher.needsRehash(record.passwordHash())) {
+                        // Stored at an older work factor; the plaintext is only at hand now.
+                        // A busy pool just leaves the upgrade to a later login.
+                        Optional<String> upgraded = hashPassword(password);
+                        if (upgraded.isPresent()) {
+                            authRepository.updatePasswordHash(record.userId(), upgraded.get());
+                        }
+                    }
+                    authRepository.recordLogin(record.userId(), now);
                     return OperationResult.success(record.role());
                 })
                 .orElseGet(() -> OperationResult.failure("Incorrect username or password."));
@@ -77,14 +105,44 @@ public final class DefaultAuthService implements AuthService {
 
         return authRepository.findByUserId(sessionContext.getUserId())
                 .map(record -> {
-                    if (!PasswordHasher.verify(currentPassword, record.passwordHash())) {
+                    Optional<Boolean> matches = checkPassword(currentPassword, record.passwordHash());
+                    if (matches.isEmpty()) {
+                        return OperationResult.<Void>failure(BUSY_MESSAGE);
+                    }
+                    if (!matches.get()) {
                         return OperationResult.<Void>failure("Current password is incorrect.");
                     }
-                    var updated = record.withPasswordHash(PasswordHasher.hash(newPassword));
-                    authRepository.save(updated);
+                    Optional<String> hash = hashPassword(newPassword);
+                    if (hash.isEmpty()) {
+                        return OperationResult.<Void>failure(BUSY_MESSAGE);
+                    }
+                    authRepository.updatePasswordHash(record.userId(), hash.get());
                     return OperationResult.<Void>success(null, "Password updated.");
                 })
                 .orElseGet(() -> OperationResult.<Void>failure("User record missing."));
     }
-}
 
+    /**
+     * Verifies on the bounded hashing pool and waits for the answer. Empty means the pool's
+     * queue was full and the password was never checked.
+     */
+    private Optional<Boolean> checkPassword(String rawPassword, String hash) {
+        return await(passwordVerifier.verify(rawPassword, hash));
+    }
+
+    /** Hashes on the same pool as {@link #checkPassword}; empty means its queue was full. */
+    private Optional<String> hashPassword(String rawPassword) {
+        return await(passwordVerifier.hash(rawPassword));
+    }
+
+    private static <T> Optional<T> await(CompletableFuture<T> pending) {
+        try {
+            return Optional.of(pending.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package edu.univ.erp.service.impl;
 
 import edu.univ.erp.access.AccessController;
 import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.api.types.GradeComputationSummary;
 import edu.univ.erp.api.types.GradeView;
 import edu.univ.erp.data.erp.ErpRepository;
 import edu.univ.erp.domain.course.Section;
@@ -98,9 +99,9 @@ public final class DefaultInstructorService implements InstructorService {
     }
 
     @Override
-    public OperationResult<Void> computeFinalGrades(String instructorId,
-                                                    String sectionId,
-                                                    Map<String, Double> weights) {
+    public OperationResult<GradeComputationSummary> computeFinalGrades(String instructorId,
+                                                                       String sectionId,
+                                                                       Map<String, Double> weights) {
         if (!accessController.canInstructorWrite()) {
             return OperationResult.failure("Maintenance mode ON. Grade computation disabled.");
         }
@@ -108,20 +109,21 @@ public final class DefaultInstructorService implements InstructorService {
         if (section.isEmpty()) {
             return OperationResult.failure("Not your section.");
         }
-        for (Enrollment enrollment : erpRepository.findEnrollmentsBySection(sectionId)) {
-            GradeBook gradeBook = erpRepository.findGradeBook(enrollment.getEnrollmentId())
-                    .orElse(new GradeBook(enrollment.getEnrollmentId(), List.of(), null));
-
-            double finalScore = gradeBook.getComponents()
-                    .stream()
-                    .mapToDouble(component -> {
-                        double weight = weights.getOrDefault(component.getName(), component.getWeight());
-                        return component.getScore() * weight;
-                    })
-                    .sum();
-            erpRepository.saveGradeBook(new GradeBook(enrollment.getEnrollmentId(), gradeBook.getComponents(), finalScore));
-        }
-        return OperationResult.success(null, "Final grades computed.");
+        long started = System.nanoTime();
+        List<String> enrollmentIds = erpRepository.findEnrollmentsBySection(sectionId)
+                .stream()
+                .map(Enrollment::getEnrollmentId)
+                .toList();
+        FinalGradeCalculator calculator = FinalGradeCalculator.load(
+                enrollmentIds, erpRepository.findGradeBooksBySection(sectionId), weights);
+        Map<String, Double> changed = calculator.changedFinals(calculator.computeFinals());
+        erpRepository.saveFinalGrades(changed);
+        GradeComputationSummary summary = new GradeComputationSummary(
+                calculator.enrollmentCount(),
+                calculator.componentCount(),
+                changed.size(),
+                System.nanoTime() - started);
+        return OperationResult.success(summary, "Final grades computed.");
     }
 
     @Override
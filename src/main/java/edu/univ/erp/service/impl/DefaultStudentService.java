@@ -16,13 +16,17 @@ import edu.univ.erp.domain.grade.GradeComponent;
 import edu.univ.erp.domain.student.Student;
 import edu.univ.erp.service.StudentService;
 
-import java.io.IOException;
-import java.io.StringWriter;
-import java.time.format.DateTimeFormatter;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public final class DefaultStudentService implements StudentService {
 
@@ -36,24 +40,7 @@ public final class DefaultStudentService implements StudentService {
 
     @Override
     public OperationResult<List<CourseCatalogRow>> viewCatalog() {
-        List<CourseCatalogRow> rows = new ArrayList<>();
-        for (Section section : erpRepository.listSections()) {
-            Optional<Course> course = erpRepository.findCourse(section.getCourseId());
-            String instructorName = erpRepository.findInstructor(section.getInstructorId())
-                    .map(instructor -> instructor.getTitle() + " (" + instructor.getDepartment() + ")")
-                    .orElse("TBD");
-            int seatsTaken = erpRepository.findEnrollmentsBySection(section.getSectionId()).size();
-            course.ifPresent(value -> rows.add(new CourseCatalogRow(
-                    section.getSectionId(),
-                    value.getCode(),
-                    value.getTitle(),
-                    value.getCredits(),
-                    instructorName,
-                    formatSchedule(section),
-                    section.getCapacity(),
-                    seatsTaken
-            )));
-        }
+        List<CourseCatalogRow> rows = new ArrayList<>(erpRepository.listCatalog());
         rows.sort(Comparator.comparing(CourseCatalogRow::courseCode));
         return OperationResult.success(rows);
     }
@@ -76,18 +63,17 @@ public final class DefaultStudentService implements StudentService {
             return OperationResult.failure("Already registered in this section.");
         }
 
-        var sec = section.get();
-        if (erpRepository.findEnrollmentsBySection(sectionId).size() >= sec.getCapacity()) {
-            return OperationResult.failure("Section full.");
-        }
-        if (sec.getRegistrationDeadline().isBefore(java.time.LocalDate.now())) {
+        if (section.get().getRegistrationDeadline().isBefore(java.time.LocalDate.now())) {
             return OperationResult.failure("Registration deadline passed.");
         }
 
         String enrollmentId = "enroll-" + studentId + "-" + sectionId;
         Enrollment enrollment = new Enrollment(enrollmentId, studentId, sectionId, EnrollmentStatus.ACTIVE);
-        erpRepository.saveEnrollment(enrollment);
-        return OperationResult.success(null, "Registration successful.");
+        return switch (erpRepository.reserveSeat(enrollment)) {
+            case RESERVED -> OperationResult.success(null, "Registration successful.");
+            case SECTION_FULL -> OperationResult.failure("Section full.");
+            case ALREADY_ENROLLED -> OperationResult.failure("Already registered in this section.");
+        };
     }
 
     @Override
@@ -116,17 +102,24 @@ public final class DefaultStudentService implements StudentService {
     @Override
     public OperationResult<List<TimetableEntry>> viewTimetable(String studentId) {
         List<Enrollment> enrollments = erpRepository.findEnrollmentsByStudent(studentId);
+        Map<String, Section> sections = erpRepository.findSections(
+                enrollments.stream().map(Enrollment::getSectionId).toList());
+        Map<String, Course> courses = erpRepository.findCourses(
+                sections.values().stream().map(Section::getCourseId).toList());
         List<TimetableEntry> entries = new ArrayList<>();
         for (Enrollment enrollment : enrollments) {
-            erpRepository.findSection(enrollment.getSectionId())
-                    .ifPresent(section -> erpRepository.findCourse(section.getCourseId())
-                            .ifPresent(course -> entries.add(new TimetableEntry(
-                                    section.getDayOfWeek().name(),
-                                    section.getStartTime() + " - " + section.getEndTime(),
-                                    course.getCode(),
-                                    section.getSectionId(),
-                                    section.getRoom()
-                            ))));
+            Section section = sections.get(enrollment.getSectionId());
+            Course course = section == null ? null : courses.get(section.getCourseId());
+            if (course == null) {
+                continue;
+            }
+            entries.add(new TimetableEntry(
+                    section.getDayOfWeek().name(),
+                    section.getStartTime() + " - " + section.getEndTime(),
+                    course.getCode(),
+                    section.getSectionId(),
+                    section.getRoom()
+            ));
         }
         entries.sort(Comparator.comparing(TimetableEntry::day).thenComparing(TimetableEntry::timeRange));
         return OperationResult.success(entries);
@@ -135,16 +128,57 @@ public final class DefaultStudentService implements StudentService {
     @Override
     public OperationResult<List<GradeView>> viewGrades(String studentId) {
         List<GradeView> gradeViews = new ArrayList<>();
-        for (Enrollment enrollment : erpRepository.findEnrollmentsByStudent(studentId)) {
-            Optional<Section> section = erpRepository.findSection(enrollment.getSectionId());
-            if (section.isEmpty()) {
+        forEachGrade(studentId, gradeViews::add);
+        return OperationResult.success(gradeViews);
+    }
+
+    @Override
+    public OperationResult<byte[]> downloadTranscriptCsv(String studentId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OperationResult<Integer> result = writeTranscriptCsv(studentId, bytes);
+        if (!result.isSuccess()) {
+            return OperationResult.failure(result.getMessage().orElse("Unable to build transcript."));
+        }
+        return OperationResult.success(bytes.toByteArray(), "Transcript ready.");
+    }
+
+    @Override
+    public OperationResult<Integer> writeTranscriptCsv(String studentId, OutputStream out) {
+        // Not closed: the stream belongs to the caller.
+        CSVWriter csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        int[] rows = {0};
+        TranscriptCsv.writeHeader(csvWriter);
+        forEachGrade(studentId, view -> rows[0] += TranscriptCsv.writeRows(csvWriter, view));
+        // CSVWriter swallows I/O errors; this flushes and reports whether any occurred.
+        if (csvWriter.checkError()) {
+            return OperationResult.failure("Failed to write transcript.");
+        }
+        return OperationResult.success(rows[0], "Transcript ready.");
+    }
+
+    /**
+     * Hands each of the student's grades to {@code sink} as soon as it is assembled, in
+     * enrollment order, so callers that write them out never hold the whole transcript.
+     */
+    private void forEachGrade(String studentId, Consumer<GradeView> sink) {
+        List<Enrollment> enrollments = erpRepository.findEnrollmentsByStudent(studentId);
+        Map<String, Section> sections = erpRepository.findSections(
+                enrollments.stream().map(Enrollment::getSectionId).toList());
+        Map<String, Course> courses = erpRepository.findCourses(
+                sections.values().stream().map(Section::getCourseId).toList());
+        Map<String, GradeBook> gradeBooks = erpRepository.findGradeBooks(
+                enrollments.stream().map(Enrollment::getEnrollmentId).toList());
+        List<GradeBook> backfilled = new ArrayList<>();
+        for (Enrollment enrollment : enrollments) {
+            Section section = sections.get(enrollment.getSectionId());
+            if (section == null) {
                 continue;
             }
-            Optional<Course> course = erpRepository.findCourse(section.get().getCourseId());
-            if (course.isEmpty()) {
+            Course course = courses.get(section.getCourseId());
+            if (course == null) {
                 continue;
             }
-            Optional<GradeBook> gradeBook = erpRepository.findGradeBook(enrollment.getEnrollmentId());
+            Optional<GradeBook> gradeBook = Optional.ofNullable(gradeBooks.get(enrollment.getEnrollmentId()));
             List<GradeView.ComponentScore> componentScores = gradeBook
                     .map(GradeBook::getComponents)
                     .orElse(List.of())
@@ -162,59 +196,17 @@ public final class DefaultStudentService implements StudentService {
                 
                 // Update the database with calculated final grade for old data
                 if (gradeBook.isPresent()) {
-                    GradeBook updated = new GradeBook(
+                    backfilled.add(new GradeBook(
                         gradeBook.get().getEnrollmentId(),
                         gradeBook.get().getComponents(),
                         finalGrade
-                    );
-                    erpRepository.saveGradeBook(updated);
+                    ));
                 }
             }
-            gradeViews.add(new GradeView(course.get().getCode(), section.get().getSectionId(), componentScores, finalGrade));
+            sink.accept(new GradeView(course.getCode(), section.getSectionId(), componentScores, finalGrade));
         }
-        return OperationResult.success(gradeViews);
-    }
-
-    @Override
-    public OperationResult<byte[]> downloadTranscriptCsv(String studentId) {
-        OperationResult<List<GradeView>> gradeResult = viewGrades(studentId);
-        if (!gradeResult.isSuccess()) {
-            return OperationResult.failure(gradeResult.getMessage().orElse("Unable to build transcript."));
+        if (!backfilled.isEmpty()) {
+            erpRepository.saveGradeBooks(backfilled);
         }
-        List<GradeView> gradeViews = gradeResult.getPayload().orElse(List.of());
-        StringWriter writer = new StringWriter();
-        try (CSVWriter csvWriter = new CSVWriter(writer)) {
-            csvWriter.writeNext(new String[] {"Course", "Section", "Component", "Score", "Weight", "Final"});
-            for (GradeView view : gradeViews) {
-                if (view.components().isEmpty()) {
-                    csvWriter.writeNext(new String[] {view.courseCode(), view.sectionId(), "-", "-", "-", toStringSafe(view.finalGrade())});
-                } else {
-                    for (GradeView.ComponentScore component : view.components()) {
-                        csvWriter.writeNext(new String[] {
-                                view.courseCode(),
-                                view.sectionId(),
-                                component.name(),
-                                String.valueOf(component.score()),
-                                String.valueOf(component.weight()),
-                                toStringSafe(view.finalGrade())
-                        });
-                    }
-                }
-            }
-        } catch (IOException ex) {
-            return OperationResult.failure("Failed to build transcript: " + ex.getMessage());
-        }
-        return OperationResult.success(writer.toString().getBytes(), "Transcript ready.");
-    }
-
-    private String toStringSafe(Double value) {
-        return value == null ? "-" : String.valueOf(value);
-    }
-
-    private String formatSchedule(Section section) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-        return section.getDayOfWeek().name() + " " + formatter.format(section.getStartTime())
-                + "-" + formatter.format(section.getEndTime());
     }
 }
-
@@ -0,0 +1,98 @@
+package edu.univ.erp.service.impl;
+
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes weighted final grades for a whole section at once. The section's components are
+ * flattened into parallel primitive arrays, one run per enrollment, so the weighted sums are a
+ * single pass over {@code double[]} with no boxing or per-row lookups.
+ */
+final class FinalGradeCalculator {
+
+    private final String[] enrollmentIds;
+    private final int[] offsets;
+    private final double[] scores;
+    private final double[] weights;
+    private final double[] previousFinals;
+
+    private FinalGradeCalculator(String[] enrollmentIds, int[] offsets, double[] scores,
+                                 double[] weights, double[] previousFinals) {
+        this.enrollmentIds = enrollmentIds;
+        this.offsets = offsets;
+        this.scores = scores;
+        this.weights = weights;
+        this.previousFinals = previousFinals;
+    }
+
+    /**
+     * Builds the component matrix for {@code enrollmentIds}. A weight in {@code weightOverrides}
+     * replaces the stored weight of every component with that name; enrollments with no grade
+     * book contribute no components.
+     */
+    static FinalGradeCalculator load(List<String> enrollmentIds,
+                                     Map<String, GradeBook> gradeBooks,
+                                     Map<String, Double> weightOverrides) {
+        int rows = enrollmentIds.size();
+        int[] offsets = new int[rows + 1];
+        double[] previousFinals = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            GradeBook gradeBook = gradeBooks.get(enrollmentIds.get(i));
+            offsets[i + 1] = offsets[i] + (gradeBook == null ? 0 : gradeBook.getComponents().size());
+            previousFinals[i] = gradeBook == null ? Double.NaN : gradeBook.getFinalGrade().orElse(Double.NaN);
+        }
+        double[] scores = new double[offsets[rows]];
+        double[] weights = new double[offsets[rows]];
+        for (int i = 0; i < rows; i++) {
+            GradeBook gradeBook = gradeBooks.get(enrollmentIds.get(i));
+            if (gradeBook == null) {
+                continue;
+            }
+            int cell = offsets[i];
+            for (GradeComponent component : gradeBook.getComponents()) {
+                scores[cell] = component.getScore();
+                weights[cell] = weightOverrides.getOrDefault(component.getName(), component.getWeight());
+                cell++;
+            }
+        }
+        return new FinalGradeCalculator(enrollmentIds.toArray(String[]::new), offsets, scores, weights, previousFinals);
+    }
+
+    int enrollmentCount() {
+        return enrollmentIds.length;
+    }
+
+    int componentCount() {
+        return scores.length;
+    }
+
+    double[] computeFinals() {
+        double[] finals = new double[enrollmentIds.length];
+        for (int i = 0; i < finals.length; i++) {
+            double sum = 0d;
+            for (int cell = offsets[i]; cell < offsets[i + 1]; cell++) {
+                sum += scores[cell] * weights[cell];
+            }
+            finals[i] = sum;
+        }
+        return finals;
+    }
+
+    /**
+     * Returns the finals that differ from what is stored, keyed by enrollment id. An enrollment
+     * with no stored final always counts as changed.
+     */
+    Map<String, Double> changedFinals(double[] finals) {
+        Map<String, Double> changed = new HashMap<>();
+        for (int i = 0; i < finals.length; i++) {
+            if (Double.isNaN(previousFinals[i]) || Double.compare(previousFinals[i], finals[i]) != 0) {
+                changed.put(enrollmentIds[i], finals[i]);
+            }
+        }
+        return changed;
+    }
+}
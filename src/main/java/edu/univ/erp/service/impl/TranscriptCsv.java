@@ -0,0 +1,62 @@
+package edu.univ.erp.service.impl;
+
+import com.opencsv.CSVWriter;
+import edu.univ.erp.api.types.GradeView;
+
+/**
+ * Row layout of a transcript CSV: one line per grade component, or a single line with dashes
+ * for a course that has none yet.
+ */
+final class TranscriptCsv {
+
+    private static final String[] HEADER = {"Course", "Section", "Component", "Score", "Weight", "Final"};
+    private static final String[] COHORT_HEADER = {"Student", "Roll Number", "Course", "Section", "Component", "Score", "Weight", "Final"};
+
+    private TranscriptCsv() {
+    }
+
+    static void writeHeader(CSVWriter csvWriter) {
+        csvWriter.writeNext(HEADER);
+    }
+
+    /** Header of a single-file cohort export, whose rows start with the student's columns. */
+    static void writeCohortHeader(CSVWriter csvWriter) {
+        csvWriter.writeNext(COHORT_HEADER);
+    }
+
+    /**
+     * Writes the lines for one course, each starting with {@code leading}, and returns how many
+     * were written.
+     */
+    static int writeRows(CSVWriter csvWriter, GradeView view, String... leading) {
+        String finalGrade = toStringSafe(view.finalGrade());
+        if (view.components().isEmpty()) {
+            csvWriter.writeNext(row(leading, view.courseCode(), view.sectionId(), "-", "-", "-", finalGrade));
+            return 1;
+        }
+        for (GradeView.ComponentScore component : view.components()) {
+            csvWriter.writeNext(row(leading,
+                    view.courseCode(),
+                    view.sectionId(),
+                    component.name(),
+                    String.valueOf(component.score()),
+                    String.valueOf(component.weight()),
+                    finalGrade));
+        }
+        return view.components().size();
+    }
+
+    private static String[] row(String[] leading, String... cells) {
+        if (leading.length == 0) {
+            return cells;
+        }
+        String[] row = new String[leading.length + cells.length];
+        System.arraycopy(leading, 0, row, 0, leading.length);
+        System.arraycopy(cells, 0, row, leading.length, cells.length);
+        return row;
+    }
+
+    private static String toStringSafe(Double value) {
+        return value == null ? "-" : String.valueOf(value);
+    }
+}
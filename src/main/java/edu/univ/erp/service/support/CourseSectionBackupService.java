@@ -1,24 +1,47 @@
 package edu.univ.erp.service.support;
 
 import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.data.erp.CourseFilter;
 import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.erp.SectionFilter;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
 import edu.univ.erp.domain.course.Course;
 import edu.univ.erp.domain.course.Section;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
-import java.io.StringReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Writes and restores course and section backups one line at a time. Export reads the catalog
+ * in keyset pages and import hands each record to the repository as soon as its line is
+ * parsed, so neither holds more than a page of data regardless of the backup's size. Streams
+ * passed in are flushed but left open.
+ */
 public final class CourseSectionBackupService {
 
+    private static final String HEADER = "# University ERP backup";
     private static final String COURSE_PREFIX = "COURSE";
     private static final String SECTION_PREFIX = "SECTION";
+    private static final int PAGE_SIZE = 500;
     private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
     private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
 
@@ -28,114 +51,218 @@ public final class CourseSectionBackupService {
         this.erpRepository = erpRepository;
     }
 
-    public OperationResult<String> exportSnapshot() {
-        List<String> lines = new ArrayList<>();
-        for (Course course : erpRepository.listCourses()) {
-            lines.add(String.join("|",
-                    COURSE_PREFIX,
-                    encode(course.getCourseId()),
-                    encode(course.getCode()),
-                    encode(course.getTitle()),
-                    String.valueOf(course.getCredits())
-            ));
-        }
-        for (Section section : erpRepository.listSections()) {
-            lines.add(String.join("|",
-                    SECTION_PREFIX,
-                    encode(section.getSectionId()),
-                    encode(section.getCourseId()),
-                    encode(section.getInstructorId()),
-                    section.getDayOfWeek().name(),
-                    section.getStartTime().toString(),
-                    section.getEndTime().toString(),
-                    encode(section.getRoom()),
-                    String.valueOf(section.getCapacity()),
-                    String.valueOf(section.getSemester()),
-                    String.valueOf(section.getYear()),
-                    section.getRegistrationDeadline().toString(),
-                    encode(section.getWeightingRule() != null ? section.getWeightingRule() : ""),
-                    encode(section.getComponentNames() != null ? section.getComponentNames() : "")
-            ));
+    /** Writes the backup as UTF-8, GZIP-compressed if {@code gzip} is set. */
+    public OperationResult<Integer> exportSnapshot(OutputStream out, boolean gzip) {
+        try {
+            if (!gzip) {
+                return exportSnapshot(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            OperationResult<Integer> result = exportSnapshot(new OutputStreamWriter(compressed, StandardCharsets.UTF_8));
+            // Writes the GZIP trailer without closing the caller's stream.
+            compressed.finish();
+            return result;
+        } catch (IOException ex) {
+            return OperationResult.failure("Failed to create backup: " + ex.getMessage());
         }
-        String payload = "# University ERP backup\n" + lines.stream().collect(Collectors.joining("\n"));
-        return OperationResult.success(payload, "Backup created.");
     }
 
-    public OperationResult<Void> importSnapshot(String payload) {
-        if (payload == null || payload.isBlank()) {
-            return OperationResult.failure("Backup data is empty.");
-        }
-        
-        // Clear all existing data before restoring (overwrite, not append)
+    /** Writes the backup and returns the number of records in it. */
+    public OperationResult<Integer> exportSnapshot(Writer writer) {
+        int records = 0;
         try {
-            // Delete all existing sections first (to avoid foreign key constraints)
-            List<Section> existingSections = erpRepository.listSections();
-            for (Section section : existingSections) {
-                erpRepository.deleteSection(section.getSectionId());
-            }
-            
-            // Delete all existing courses
-            List<Course> existingCourses = erpRepository.listCourses();
-            for (Course course : existingCourses) {
-                erpRepository.deleteCourse(course.getCourseId());
+            BufferedWriter out = new BufferedWriter(writer, 64 * 1024);
+            out.write(HEADER);
+            out.write('\n');
+            PageRequest courses = PageRequest.first(PAGE_SIZE);
+            while (true) {
+                Page<Course> page = erpRepository.listCourses(CourseFilter.ALL, courses);
+                for (Course course : page.items()) {
+                    writeLine(out,
+                            COURSE_PREFIX,
+                            encode(course.getCourseId()),
+                            encode(course.getCode()),
+                            encode(course.getTitle()),
+                            String.valueOf(course.getCredits()));
+                    records++;
+                }
+                if (!page.hasMore()) {
+                    break;
+                }
+                courses = courses.next(page);
             }
-        } catch (Exception ex) {
-            return OperationResult.failure("Failed to clear existing data: " + ex.getMessage());
-        }
-        
-        // Now restore from backup
-        List<Course> courses = new ArrayList<>();
-        List<Section> sections = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new StringReader(payload))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("#")) {
-                    continue;
+            PageRequest sections = PageRequest.first(PAGE_SIZE);
+            while (true) {
+                Page<Section> page = erpRepository.listSections(SectionFilter.ALL, sections);
+                for (Section section : page.items()) {
+                    writeLine(out,
+                            SECTION_PREFIX,
+                            encode(section.getSectionId()),
+                            encode(section.getCourseId()),
+                            encode(section.getInstructorId()),
+                            section.getDayOfWeek().name(),
+                            section.getStartTime().toString(),
+                            section.getEndTime().toString(),
+                            encode(section.getRoom()),
+                            String.valueOf(section.getCapacity()),
+                            String.valueOf(section.getSemester()),
+                            String.valueOf(section.getYear()),
+                            section.getRegistrationDeadline().toString(),
+                            encode(section.getWeightingRule() != null ? section.getWeightingRule() : ""),
+                            encode(section.getComponentNames() != null ? section.getComponentNames() : ""));
+                    records++;
                 }
-                String[] parts = line.split("\\|");
-                if (COURSE_PREFIX.equals(parts[0]) && parts.length == 5) {
-                    courses.add(new Course(
-                            decode(parts[1]),
-                            decode(parts[2]),
-                            decode(parts[3]),
-                            Integer.parseInt(parts[4])
-                    ));
-                } else if (SECTION_PREFIX.equals(parts[0]) && (parts.length >= 12 && parts.length <= 14)) {
-                    String weightingRule = parts.length >= 13 ? decode(parts[12]) : null;
-                    String componentNames = parts.length == 14 ? decode(parts[13]) : null;
-                    sections.add(new Section(
-                            decode(parts[1]),
-                            decode(parts[2]),
-                            decode(parts[3]),
-                            DayOfWeek.valueOf(parts[4]),
-                            LocalTime.parse(parts[5]),
-                            LocalTime.parse(parts[6]),
-                            decode(parts[7]),
-                            Integer.parseInt(parts[8]),
-                            Integer.parseInt(parts[9]),
-                            Integer.parseInt(parts[10]),
-                            LocalDate.parse(parts[11]),
-                            weightingRule,
-                            componentNames
-                    ));
+                if (!page.hasMore()) {
+                    break;
                 }
+                sections = sections.next(page);
             }
-            // Restore courses first (sections depend on courses)
-            courses.forEach(erpRepository::saveCourse);
-            sections.forEach(erpRepository::saveSection);
-            return OperationResult.success(null, "Backup restored (overwrote existing data).");
+            out.flush();
+        } catch (IOException ex) {
+            return OperationResult.failure("Failed to create backup: " + ex.getMessage());
+        }
+        return OperationResult.success(records, "Backup created.");
+    }
+
+    /** Restores a backup written by {@link #exportSnapshot(OutputStream, boolean)}, compressed or not. */
+    public OperationResult<Integer> importSnapshot(InputStream in) {
+        try {
+            BufferedInputStream buffered = new BufferedInputStream(in, 64 * 1024);
+            InputStream source = isGzip(buffered) ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+            return importSnapshot(new InputStreamReader(source, StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            return OperationResult.failure("Failed to read backup: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Replaces every course and section with the backup's, returning the number of records
+     * restored. The backup is parsed as it is written to the repository in one
+     * {@link ErpRepository#replaceCatalog} call, so a malformed line or a failed write leaves
+     * the existing catalog in place.
+     */
+    public OperationResult<Integer> importSnapshot(Reader reader) {
+        BufferedReader lines = new BufferedReader(reader, 64 * 1024);
+        String first;
+        try {
+            first = nextRecord(lines);
+        } catch (IOException ex) {
+            return OperationResult.failure("Failed to read backup: " + ex.getMessage());
+        }
+        if (first == null) {
+            return OperationResult.failure("Backup data is empty.");
+        }
+
+        try {
+            int records = erpRepository.replaceCatalog((courses, sections) -> {
+                boolean sectionsStarted = false;
+                try {
+                    for (String line = first; line != null; line = nextRecord(lines)) {
+                        List<String> parts = split(line);
+                        String prefix = parts.get(0);
+                        if (COURSE_PREFIX.equals(prefix) && parts.size() == 5) {
+                            if (sectionsStarted) {
+                                throw new IllegalArgumentException("Course listed after sections: " + decode(parts.get(1)));
+                            }
+                            courses.accept(parseCourse(parts));
+                        } else if (SECTION_PREFIX.equals(prefix) && parts.size() >= 12 && parts.size() <= 14) {
+                            sectionsStarted = true;
+                            sections.accept(parseSection(parts));
+                        }
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            return OperationResult.success(records, "Backup restored (overwrote existing data).");
+        } catch (UncheckedIOException ex) {
+            return OperationResult.failure("Failed to read backup: " + ex.getCause().getMessage());
         } catch (Exception ex) {
             return OperationResult.failure("Failed to restore backup: " + ex.getMessage());
         }
     }
 
+    private Course parseCourse(List<String> parts) {
+        return new Course(
+                decode(parts.get(1)),
+                decode(parts.get(2)),
+                decode(parts.get(3)),
+                Integer.parseInt(parts.get(4)));
+    }
+
+    private Section parseSection(List<String> parts) {
+        String weightingRule = parts.size() >= 13 ? decode(parts.get(12)) : null;
+        String componentNames = parts.size() == 14 ? decode(parts.get(13)) : null;
+        return new Section(
+                decode(parts.get(1)),
+                decode(parts.get(2)),
+                decode(parts.get(3)),
+                DayOfWeek.valueOf(parts.get(4)),
+                LocalTime.parse(parts.get(5)),
+                LocalTime.parse(parts.get(6)),
+                decode(parts.get(7)),
+                Integer.parseInt(parts.get(8)),
+                Integer.parseInt(parts.get(9)),
+                Integer.parseInt(parts.get(10)),
+                LocalDate.parse(parts.get(11)),
+                weightingRule,
+                componentNames);
+    }
+
+    /** Returns the next line that is neither blank nor a comment, trimmed, or null at the end. */
+    private static String nextRecord(BufferedReader lines) throws IOException {
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Splits on '|' without a regex. Encoded fields never contain the separator; trailing empty
+     * fields are dropped, as {@code String.split} did for older backups.
+     */
+    private static List<String> split(String line) {
+        List<String> parts = new ArrayList<>(14);
+        int start = 0;
+        int end;
+        while ((end = line.indexOf('|', start)) >= 0) {
+            parts.add(line.substring(start, end));
+            start = end + 1;
+        }
+        parts.add(line.substring(start));
+        while (parts.size() > 1 && parts.get(parts.size() - 1).isEmpty()) {
+            parts.remove(parts.size() - 1);
+        }
+        return parts;
+    }
+
+    private static void writeLine(Writer out, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write('|');
+            }
+            out.write(fields[i]);
+        }
+        out.write('\n');
+    }
+
+    private static boolean isGzip(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        return first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+
     private String encode(String value) {
-        return ENCODER.encodeToString(value.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
     }
 
     private String decode(String token) {
-        return new String(DECODER.decode(token), java.nio.charset.StandardCharsets.UTF_8);
+        return new String(DECODER.decode(token), StandardCharsets.UTF_8);
     }
 }
-
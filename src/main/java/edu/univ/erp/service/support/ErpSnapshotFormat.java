@@ -0,0 +1,457 @@
+package edu.univ.erp.service.support;
+
+import edu.univ.erp.data.erp.CourseFilter;
+import edu.univ.erp.data.erp.ErpDataSource;
+import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.erp.SectionFilter;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.enrollment.EnrollmentStatus;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.settings.MaintenanceSetting;
+import edu.univ.erp.domain.student.Student;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Layout of the binary full-backup format, version 1.
+ *
+ * <pre>
+ * snapshot = "ERPS" version:byte block* trailer
+ * block    = tag:byte records:varint length:varint payload[length] crc32(block before it):int
+ * payload  = strings:varint (length:varint utf8)* record*
+ * trailer  = 0:byte tables:varint (tag:byte records:varint)* crc32(trailer after the 0):int
+ * </pre>
+ *
+ * <p>Tables appear in {@link #TABLES} order, which is foreign key order, each split into blocks
+ * of at most {@link #RECORDS_PER_BLOCK} records. Integers are zigzag varints. A string field is
+ * the varint index of the string in its block's dictionary plus one, or zero for null, so an id
+ * that recurs within a block, such as a section id across its enrollments, is stored once.
+ * Blocks share no state, so they can be encoded and decoded on any thread.</p>
+ */
+final class ErpSnapshotFormat {
+
+    static final byte[] MAGIC = {'E', 'R', 'P', 'S'};
+    static final int VERSION = 1;
+    static final int RECORDS_PER_BLOCK = 1_024;
+    /** Refuses absurd lengths from a corrupt header before allocating for them. */
+    static final int MAX_PAYLOAD_BYTES = 64 * 1024 * 1024;
+
+    private static final int PAGE_SIZE = 500;
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+
+    static final Table<Student> STUDENTS = new Table<>(1, "students",
+            ErpRepository::streamStudents,
+            (out, student) -> {
+                out.writeString(student.getUserId());
+                out.writeString(student.getRollNumber());
+                out.writeString(student.getProgram());
+                out.writeInt(student.getYear());
+            },
+            in -> new Student(in.readString(), in.readString(), in.readString(), in.readInt()),
+            ErpDataSource.Sink::student);
+
+    static final Table<Instructor> INSTRUCTORS = new Table<>(2, "instructors",
+            ErpRepository::streamInstructors,
+            (out, instructor) -> {
+                out.writeString(instructor.getUserId());
+                out.writeString(instructor.getDepartment());
+                out.writeString(instructor.getTitle());
+            },
+            in -> new Instructor(in.readString(), in.readString(), in.readString()),
+            ErpDataSource.Sink::instructor);
+
+    static final Table<Course> COURSES = new Table<>(3, "courses",
+            (repository, sink) -> readPages(request -> repository.listCourses(CourseFilter.ALL, request), sink),
+            (out, course) -> {
+                out.writeString(course.getCourseId());
+                out.writeString(course.getCode());
+                out.writeString(course.getTitle());
+                out.writeInt(course.getCredits());
+            },
+            in -> new Course(in.readString(), in.readString(), in.readString(), in.readInt()),
+            ErpDataSource.Sink::course);
+
+    static final Table<Section> SECTIONS = new Table<>(4, "sections",
+            (repository, sink) -> readPages(request -> repository.listSections(SectionFilter.ALL, request), sink),
+            (out, section) -> {
+                out.writeString(section.getSectionId());
+                out.writeString(section.getCourseId());
+                out.writeString(section.getInstructorId());
+                out.writeInt(section.getDayOfWeek().ordinal());
+                out.writeInt(section.getStartTime().toSecondOfDay());
+                out.writeInt(section.getEndTime().toSecondOfDay());
+                out.writeString(section.getRoom());
+                out.writeInt(section.getCapacity());
+                out.writeInt(section.getSemester());
+                out.writeInt(section.getYear());
+                out.writeInt((int) section.getRegistrationDeadline().toEpochDay());
+                out.writeString(section.getWeightingRule());
+                out.writeString(section.getComponentNames());
+            },
+            in -> new Section(
+                    in.readString(),
+                    in.readString(),
+                    in.readString(),
+                    DAYS[in.readInt()],
+                    LocalTime.ofSecondOfDay(in.readInt()),
+                    LocalTime.ofSecondOfDay(in.readInt()),
+                    in.readString(),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readInt(),
+                    LocalDate.ofEpochDay(in.readInt()),
+                    in.readString(),
+                    in.readString()),
+            ErpDataSource.Sink::section);
+
+    static final Table<Enrollment> ENROLLMENTS = new Table<>(5, "enrollments",
+            ErpRepository::streamEnrollments,
+            (out, enrollment) -> {
+                out.writeString(enrollment.getEnrollmentId());
+                out.writeString(enrollment.getStudentId());
+                out.writeString(enrollment.getSectionId());
+                out.writeInt(enrollment.getStatus().ordinal());
+            },
+            in -> new Enrollment(in.readString(), in.readString(), in.readString(), STATUSES[in.readInt()]),
+            ErpDataSource.Sink::enrollment);
+
+    static final Table<GradeBook> GRADE_BOOKS = new Table<>(6, "grade books",
+            ErpRepository::streamGradeBooks,
+            (out, gradeBook) -> {
+                out.writeString(gradeBook.getEnrollmentId());
+                Double finalGrade = gradeBook.getFinalGrade().orElse(null);
+                out.writeInt(finalGrade != null ? 1 : 0);
+                if (finalGrade != null) {
+                    out.writeDouble(finalGrade);
+                }
+                out.writeInt(gradeBook.getComponents().size());
+                for (GradeComponent component : gradeBook.getComponents()) {
+                    out.writeString(component.getName());
+                    out.writeDouble(component.getScore());
+                    out.writeDouble(component.getWeight());
+                }
+            },
+            in -> {
+                String enrollmentId = in.readString();
+                Double finalGrade = in.readInt() != 0 ? in.readDouble() : null;
+                int count = in.readInt();
+                List<GradeComponent> components = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    components.add(new GradeComponent(in.readString(), in.readDouble(), in.readDouble()));
+                }
+                return new GradeBook(enrollmentId, components, finalGrade);
+            },
+            ErpDataSource.Sink::gradeBook);
+
+    static final Table<MaintenanceSetting> SETTINGS = new Table<>(7, "settings",
+            (repository, sink) -> sink.accept(repository.getMaintenanceSetting()),
+            (out, setting) -> out.writeInt(setting.isMaintenanceOn() ? 1 : 0),
+            in -> new MaintenanceSetting(in.readInt() != 0),
+            ErpDataSource.Sink::maintenanceSetting);
+
+    static final List<Table<?>> TABLES = List.of(STUDENTS, INSTRUCTORS, COURSES, SECTIONS, ENROLLMENTS, GRADE_BOOKS, SETTINGS);
+
+    private ErpSnapshotFormat() {
+    }
+
+    static void writeHeader(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    static void writeBlock(OutputStream out, int tag, int records, byte[] payload) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(11);
+        header.write(tag);
+        writeVarint(header, records);
+        writeVarint(header, payload.length);
+        byte[] headerBytes = header.toByteArray();
+        out.write(headerBytes);
+        out.write(payload);
+        writeCrc(out, crc(headerBytes, payload));
+    }
+
+    /** Writes the end marker and each table's record count, indexed by tag. */
+    static void writeTrailer(OutputStream out, int[] recordsByTag) throws IOException {
+        ByteArrayOutputStream trailer = new ByteArrayOutputStream();
+        writeVarint(trailer, TABLES.size());
+        for (Table<?> table : TABLES) {
+            trailer.write(table.tag());
+            writeVarint(trailer, recordsByTag[table.tag()]);
+        }
+        byte[] bytes = trailer.toByteArray();
+        out.write(0);
+        out.write(bytes);
+        writeCrc(out, crc(bytes));
+    }
+
+    static int readVarint(DataInput in) throws IOException {
+        return readVarint(in, null);
+    }
+
+    /** Reads a varint, copying its bytes as read to {@code raw} unless it is null. */
+    static int readVarint(DataInput in, ByteArrayOutputStream raw) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            if (raw != null) {
+                raw.write(b);
+            }
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static int crc(byte[]... parts) {
+        CRC32 crc = new CRC32();
+        for (byte[] part : parts) {
+            crc.update(part);
+        }
+        return (int) crc.getValue();
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeCrc(OutputStream out, int crc) throws IOException {
+        out.write(crc >>> 24);
+        out.write(crc >>> 16);
+        out.write(crc >>> 8);
+        out.write(crc);
+    }
+
+    private static <T> void readPages(Function<PageRequest, Page<T>> source, Consumer<T> sink) {
+        PageRequest request = PageRequest.first(PAGE_SIZE);
+        while (true) {
+            Page<T> page = source.apply(request);
+            page.items().forEach(sink);
+            if (!page.hasMore()) {
+                return;
+            }
+            request = request.next(page);
+        }
+    }
+
+    /** How one table is read from the repository, encoded, decoded and restored. */
+    static final class Table<T> {
+
+        private final int tag;
+        private final String name;
+        private final BiConsumer<ErpRepository, Consumer<T>> reader;
+        private final RecordEncoder<T> encoder;
+        private final RecordDecoder<T> decoder;
+        private final BiConsumer<ErpDataSource.Sink, T> restorer;
+
+        private Table(int tag,
+                      String name,
+                      BiConsumer<ErpRepository, Consumer<T>> reader,
+                      RecordEncoder<T> encoder,
+                      RecordDecoder<T> decoder,
+                      BiConsumer<ErpDataSource.Sink, T> restorer) {
+            this.tag = tag;
+            this.name = name;
+            this.reader = reader;
+            this.encoder = encoder;
+            this.decoder = decoder;
+            this.restorer = restorer;
+        }
+
+        int tag() {
+            return tag;
+        }
+
+        String name() {
+            return name;
+        }
+
+        void read(ErpRepository repository, Consumer<T> sink) {
+            reader.accept(repository, sink);
+        }
+
+        byte[] encode(List<T> records) {
+            BlockEncoder out = new BlockEncoder();
+            for (T record : records) {
+                encoder.encode(out, record);
+            }
+            return out.toByteArray();
+        }
+
+        /**
+         * Checks the block, header bytes as read included, against its checksum and decodes it
+         * into the calls that restore its records.
+         */
+        Consumer<ErpDataSource.Sink> decode(byte[] header, byte[] payload, int records, int crc) {
+            if (crc(header, payload) != crc) {
+                throw new UncheckedIOException(new IOException("Checksum mismatch in a block of " + name));
+            }
+            List<T> decoded = new ArrayList<>(records);
+            boolean exhausted;
+            try {
+                BlockDecoder in = new BlockDecoder(payload);
+                for (int i = 0; i < records; i++) {
+                    decoded.add(decoder.decode(in));
+                }
+                exhausted = in.isExhausted();
+            } catch (RuntimeException e) {
+                throw new UncheckedIOException(new IOException("Malformed block of " + name, e));
+            }
+            if (!exhausted) {
+                throw new UncheckedIOException(new IOException("Trailing bytes in a block of " + name));
+            }
+            return sink -> decoded.forEach(record -> restorer.accept(sink, record));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordEncoder<T> {
+        void encode(BlockEncoder out, T record);
+    }
+
+    @FunctionalInterface
+    private interface RecordDecoder<T> {
+        T decode(BlockDecoder in);
+    }
+
+    /** Buffers one block's records, collecting their strings into the block's dictionary. */
+    private static final class BlockEncoder {
+
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream(16 * 1024);
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                index = strings.size();
+                dictionary.put(value, index);
+                strings.add(value);
+            }
+            writeVarint(index + 1);
+        }
+
+        void writeInt(int value) {
+            writeVarint((value << 1) ^ (value >> 31));
+        }
+
+        void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                records.write((int) (bits >>> shift));
+            }
+        }
+
+        byte[] toByteArray() {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(records.size() + strings.size() * 16 + 8);
+            try {
+                ErpSnapshotFormat.writeVarint(payload, strings.size());
+                for (String value : strings) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    ErpSnapshotFormat.writeVarint(payload, bytes.length);
+                    payload.write(bytes);
+                }
+                records.writeTo(payload);
+            } catch (IOException e) {
+                // In-memory streams do not fail.
+                throw new UncheckedIOException(e);
+            }
+            return payload.toByteArray();
+        }
+
+        private void writeVarint(int value) {
+            try {
+                ErpSnapshotFormat.writeVarint(records, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Reads one block's records back. Reading past the end or a bad index throws. */
+    private static final class BlockDecoder {
+
+        private final byte[] bytes;
+        private final String[] strings;
+        private int position;
+
+        BlockDecoder(byte[] bytes) {
+            this.bytes = bytes;
+            this.strings = new String[readVarint()];
+            for (int i = 0; i < strings.length; i++) {
+                int length = readVarint();
+                if (length < 0 || length > bytes.length - position) {
+                    throw new IllegalArgumentException("Malformed string dictionary");
+                }
+                strings[i] = new String(bytes, position, length, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+
+        String readString() {
+            int index = readVarint();
+            return index == 0 ? null : strings[index - 1];
+        }
+
+        int readInt() {
+            int value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                bits = (bits << 8) | (bytes[position++] & 0xff);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        boolean isExhausted() {
+            return position == bytes.length;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = bytes[position++];
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+    }
+}
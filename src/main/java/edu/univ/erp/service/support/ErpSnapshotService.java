@@ -0,0 +1,332 @@
+package edu.univ.erp.service.support;
+
+import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.data.erp.ErpDataSource;
+import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.settings.MaintenanceSetting;
+import edu.univ.erp.domain.student.Student;
+import edu.univ.erp.service.support.ErpSnapshotFormat.Table;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Full backups of the ERP database in the binary format described in {@link ErpSnapshotFormat}.
+ *
+ * <p>Export reads tables in order, at most {@value #CONCURRENT_READERS} at a time, on threads
+ * that encode their blocks as they go; blocks are written table by table, and only a few per
+ * table wait to be written, so neither memory use nor the load on the database grows with the
+ * data. Tables are read one after another rather than at one
+ * instant, so take a backup with maintenance mode on if it has to be consistent. Import checks
+ * and decodes blocks on a fork-join pool while the file is still being read and applies them in
+ * order through {@link ErpRepository#replaceAll}, which keeps the old data if anything fails.
+ * Streams passed in are flushed but left open.</p>
+ */
+public final class ErpSnapshotService {
+
+    private static final int QUEUED_BLOCKS_PER_TABLE = 4;
+    /** One table is written while the next is read ahead; more would only hold more connections. */
+    private static final int CONCURRENT_READERS = 2;
+
+    private final ErpRepository erpRepository;
+    private final ForkJoinPool decodePool;
+    private final int maxDecoding;
+
+    public ErpSnapshotService(ErpRepository erpRepository) {
+        this(erpRepository, ForkJoinPool.commonPool());
+    }
+
+    ErpSnapshotService(ErpRepository erpRepository, ForkJoinPool decodePool) {
+        this.erpRepository = erpRepository;
+        this.decodePool = decodePool;
+        this.maxDecoding = Math.max(2, decodePool.getParallelism() * 2);
+    }
+
+    /** True if {@code in} starts like a snapshot. Reads nothing as far as the caller can tell. */
+    public static boolean isSnapshot(BufferedInputStream in) throws IOException {
+        byte[] magic = new byte[ErpSnapshotFormat.MAGIC.length];
+        in.mark(magic.length);
+        int read = in.readNBytes(magic, 0, magic.length);
+        in.reset();
+        return read == magic.length && Arrays.equals(magic, ErpSnapshotFormat.MAGIC);
+    }
+
+    /** Writes a snapshot of every table and returns the number of records in it. */
+    public OperationResult<Integer> exportSnapshot(OutputStream out) {
+        List<Table<?>> tables = ErpSnapshotFormat.TABLES;
+        // Readers start in table order, so the table being written is always one already running.
+        ExecutorService readers = Executors.newFixedThreadPool(CONCURRENT_READERS, readerThreads());
+        try {
+            List<BlockingQueue<Block>> queues = new ArrayList<>();
+            for (Table<?> table : tables) {
+                BlockingQueue<Block> queue = new ArrayBlockingQueue<>(QUEUED_BLOCKS_PER_TABLE);
+                queues.add(queue);
+                readers.execute(() -> readTable(table, queue));
+            }
+            BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+            ErpSnapshotFormat.writeHeader(buffered);
+            int[] recordsByTag = new int[tables.size() + 1];
+            int total = 0;
+            for (int i = 0; i < tables.size(); i++) {
+                Table<?> table = tables.get(i);
+                for (Block block = queues.get(i).take(); !block.isEnd(); block = queues.get(i).take()) {
+                    if (block.failure() != null) {
+                        throw block.failure();
+                    }
+                    ErpSnapshotFormat.writeBlock(buffered, table.tag(), block.records(), block.payload());
+                    recordsByTag[table.tag()] += block.records();
+                    total += block.records();
+                }
+            }
+            ErpSnapshotFormat.writeTrailer(buffered, recordsByTag);
+            buffered.flush();
+            return OperationResult.success(total, "Snapshot created.");
+        } catch (IOException ex) {
+            return OperationResult.failure("Failed to write snapshot: " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return OperationResult.failure("Snapshot cancelled.");
+        } catch (RuntimeException ex) {
+            return OperationResult.failure("Failed to create snapshot: " + ex.getMessage());
+        } finally {
+            // Stops readers still waiting to hand over blocks after a failure.
+            readers.shutdownNow();
+        }
+    }
+
+    /**
+     * Replaces every ERP table with the snapshot's and returns the number of records restored.
+     * A damaged or truncated snapshot is rejected and the existing data kept.
+     */
+    public OperationResult<Integer> importSnapshot(InputStream in) {
+        try {
+            int records = erpRepository.replaceAll(sink -> read(in, sink));
+            return OperationResult.success(records, "Snapshot restored (overwrote existing data).");
+        } catch (UncheckedIOException ex) {
+            return OperationResult.failure("Failed to read snapshot: " + ex.getCause().getMessage());
+        } catch (RuntimeException ex) {
+            return OperationResult.failure("Failed to restore snapshot: " + ex.getMessage());
+        }
+    }
+
+    /** Checks every checksum and record count without touching the database. */
+    public OperationResult<Integer> verifySnapshot(InputStream in) {
+        try {
+            int records = read(in, new DiscardingSink());
+            return OperationResult.success(records, "Snapshot is intact (" + records + " records).");
+        } catch (UncheckedIOException ex) {
+            return OperationResult.failure("Snapshot is damaged: " + ex.getCause().getMessage());
+        } catch (RuntimeException ex) {
+            return OperationResult.failure("Snapshot is damaged: " + ex.getMessage());
+        }
+    }
+
+    private <T> void readTable(Table<T> table, BlockingQueue<Block> queue) {
+        try {
+            List<T> batch = new ArrayList<>(ErpSnapshotFormat.RECORDS_PER_BLOCK);
+            table.read(erpRepository, record -> {
+                batch.add(record);
+                if (batch.size() == ErpSnapshotFormat.RECORDS_PER_BLOCK) {
+                    put(queue, new Block(batch.size(), table.encode(batch), null));
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                put(queue, new Block(batch.size(), table.encode(batch), null));
+            }
+            put(queue, Block.END);
+        } catch (CancellationException ex) {
+            // The export has given up; nobody is waiting for this table.
+        } catch (RuntimeException ex) {
+            try {
+                queue.put(new Block(0, null, ex));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ThreadFactory readerThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "erp-snapshot-reader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static void put(BlockingQueue<Block> queue, Block block) {
+        try {
+            queue.put(block);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Reads a whole snapshot, handing its records to {@code sink} in file order, and returns how
+     * many there were. Blocks are checked and decoded in parallel, with a bounded number in
+     * flight; anything wrong with the file is reported as an {@link UncheckedIOException}.
+     */
+    private int read(InputStream raw, ErpDataSource.Sink sink) {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024));
+        List<Table<?>> tables = ErpSnapshotFormat.TABLES;
+        Deque<ForkJoinTask<Decoded>> inFlight = new ArrayDeque<>();
+        int[] recordsByTag = new int[tables.size() + 1];
+        try {
+            byte[] magic = new byte[ErpSnapshotFormat.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, ErpSnapshotFormat.MAGIC)) {
+                throw new IOException("Not an ERP snapshot");
+            }
+            int version = in.readUnsignedByte();
+            if (version != ErpSnapshotFormat.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            int previousTag = 1;
+            int tag;
+            while ((tag = in.readUnsignedByte()) != 0) {
+                if (tag < previousTag || tag > tables.size()) {
+                    throw new IOException("Unexpected table tag " + tag);
+                }
+                previousTag = tag;
+                Table<?> table = tables.get(tag - 1);
+                ByteArrayOutputStream header = new ByteArrayOutputStream(11);
+                header.write(tag);
+                int records = ErpSnapshotFormat.readVarint(in, header);
+                int length = ErpSnapshotFormat.readVarint(in, header);
+                if (records < 0 || records > ErpSnapshotFormat.RECORDS_PER_BLOCK
+                        || length < 0 || length > ErpSnapshotFormat.MAX_PAYLOAD_BYTES) {
+                    throw new IOException("Malformed block header for " + table.name());
+                }
+                byte[] headerBytes = header.toByteArray();
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                int crc = in.readInt();
+                int blockTag = tag;
+                inFlight.add(decodePool.submit(
+                        () -> new Decoded(blockTag, records, table.decode(headerBytes, payload, records, crc))));
+                while (inFlight.size() > maxDecoding) {
+                    apply(inFlight.poll().join(), sink, recordsByTag);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                apply(inFlight.poll().join(), sink, recordsByTag);
+            }
+            verifyTrailer(in, recordsByTag);
+        } catch (EOFException ex) {
+            throw new UncheckedIOException(new IOException("Snapshot is truncated", ex));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            inFlight.forEach(task -> task.cancel(true));
+        }
+        return Arrays.stream(recordsByTag).sum();
+    }
+
+    private static void apply(Decoded block, ErpDataSource.Sink sink, int[] recordsByTag) {
+        block.replay().accept(sink);
+        recordsByTag[block.tag()] += block.records();
+    }
+
+    private static void verifyTrailer(DataInputStream in, int[] recordsByTag) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(in, new CRC32());
+        DataInputStream trailer = new DataInputStream(checked);
+        int tables = ErpSnapshotFormat.readVarint(trailer);
+        if (tables != ErpSnapshotFormat.TABLES.size()) {
+            throw new IOException("Snapshot lists " + tables + " tables");
+        }
+        int[] expected = new int[recordsByTag.length];
+        for (int i = 0; i < tables; i++) {
+            int tag = trailer.readUnsignedByte();
+            if (tag < 1 || tag >= expected.length) {
+                throw new IOException("Unexpected table tag " + tag + " in trailer");
+            }
+            expected[tag] = ErpSnapshotFormat.readVarint(trailer);
+        }
+        int crc = (int) checked.getChecksum().getValue();
+        if (in.readInt() != crc) {
+            throw new IOException("Checksum mismatch in trailer");
+        }
+        for (Table<?> table : ErpSnapshotFormat.TABLES) {
+            if (expected[table.tag()] != recordsByTag[table.tag()]) {
+                throw new IOException("Expected " + expected[table.tag()] + " " + table.name()
+                        + " but found " + recordsByTag[table.tag()]);
+            }
+        }
+    }
+
+    /** A table's encoded block, its end marker, or the failure that stopped it being read. */
+    private record Block(int records, byte[] payload, RuntimeException failure) {
+
+        static final Block END = new Block(0, null, null);
+
+        boolean isEnd() {
+            return payload == null && failure == null;
+        }
+    }
+
+    private record Decoded(int tag, int records, Consumer<ErpDataSource.Sink> replay) {
+    }
+
+    private static final class DiscardingSink implements ErpDataSource.Sink {
+
+        @Override
+        public void student(Student student) {
+        }
+
+        @Override
+        public void instructor(Instructor instructor) {
+        }
+
+        @Override
+        public void course(Course course) {
+        }
+
+        @Override
+        public void section(Section section) {
+        }
+
+        @Override
+        public void enrollment(Enrollment enrollment) {
+        }
+
+        @Override
+        public void gradeBook(GradeBook gradeBook) {
+        }
+
+        @Override
+        public void maintenanceSetting(MaintenanceSetting setting) {
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package edu.univ.erp.ui.admin;
 
 import edu.univ.erp.api.common.OperationResult;
+import edu.univ.erp.api.types.TranscriptExportFormat;
 import edu.univ.erp.data.auth.AuthRecord;
 import edu.univ.erp.data.auth.AuthRepository;
+import edu.univ.erp.data.auth.UserFilter;
+import edu.univ.erp.data.erp.CourseFilter;
 import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.erp.SectionFilter;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
 import edu.univ.erp.domain.course.Course;
 import edu.univ.erp.domain.course.Section;
 import edu.univ.erp.domain.instructor.Instructor;
 import edu.univ.erp.domain.student.Student;
+import edu.univ.erp.domain.user.Role;
 import edu.univ.erp.infra.DemoCatalogSeeder;
 import edu.univ.erp.infra.ServiceLocator;
 import edu.univ.erp.service.AdminService;
 import edu.univ.erp.service.AuthService;
 import edu.univ.erp.service.MaintenanceService;
 import edu.univ.erp.service.support.CourseSectionBackupService;
+import edu.univ.erp.service.support.ErpSnapshotService;
+import edu.univ.erp.ui.common.BackgroundLoader;
+import edu.univ.erp.ui.common.PagedTableModel;
+import edu.univ.erp.ui.common.PagedTableModel.Column;
 import edu.univ.erp.ui.auth.LoginFrame;
 
 import javax.swing.BorderFactory;
@@ -21,6 +32,7 @@ import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
@@ -28,12 +40,12 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
-import javax.swing.table.DefaultTableModel;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
@@ -41,16 +53,19 @@ import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 
 public final class AdminDashboardFrame extends JFrame {
 
@@ -82,18 +97,45 @@ public final class AdminDashboardFrame extends JFrame {
     private final AuthService authService = ServiceLocator.authService();
     private final AuthRepository authRepository = ServiceLocator.authRepository();
     private final CourseSectionBackupService backupService = new CourseSectionBackupService(erpRepository);
+    private final transient ErpSnapshotService snapshotService = new ErpSnapshotService(erpRepository);
 
     private final ThemePalette theme = LIGHT_THEME;
 
-    private final DefaultTableModel coursesModel = new DefaultTableModel(
-            new Object[]{"Course ID", "Code", "Title", "Credits"}, 0);
-    private final DefaultTableModel sectionsModel = new DefaultTableModel(
-            new Object[]{"Section ID", "Course Code", "Instructor ID", "Day", "Time", "Room", "Capacity", "Deadline"}, 0);
-    private final DefaultTableModel usersModel = new DefaultTableModel(
-            new Object[]{"User ID", "Username", "Role", "Active", "Last Login"}, 0);
-    private final JTabbedPane tabs = new JTabbedPane();
+    private static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 10;
 
     private final JLabel maintenanceLabel = new JLabel("", SwingConstants.CENTER);
+    private final JProgressBar loadingBar = new JProgressBar();
+    private final transient BackgroundLoader loader = new BackgroundLoader(this, loadingBar);
+
+    private final PagedTableModel<Course> coursesModel = new PagedTableModel<>(loader, "courses", PAGE_SIZE, CACHED_PAGES, 1, List.of(
+            new Column<>("Course ID", Course::getCourseId),
+            new Column<>("Code", Course::getCode),
+            new Column<>("Title", Course::getTitle),
+            new Column<>("Credits", Course::getCredits)));
+    private final PagedTableModel<SectionRow> sectionsModel = new PagedTableModel<>(loader, "sections", PAGE_SIZE, CACHED_PAGES, 0, List.of(
+            new Column<>("Section ID", row -> row.section().getSectionId()),
+            new Column<>("Course Code", SectionRow::courseCode),
+            new Column<>("Instructor ID", row -> row.section().getInstructorId()),
+            new Column<>("Day", row -> row.section().getDayOfWeek().name()),
+            new Column<>("Time", row -> row.section().getStartTime() + "-" + row.section().getEndTime()),
+            new Column<>("Room", row -> row.section().getRoom()),
+            new Column<>("Capacity", row -> row.section().getCapacity()),
+            new Column<>("Deadline", row -> row.section().getRegistrationDeadline())));
+    private final PagedTableModel<AuthRecord> usersModel = new PagedTableModel<>(loader, "users", PAGE_SIZE, CACHED_PAGES, 1, List.of(
+            new Column<>("User ID", AuthRecord::userId),
+            new Column<>("Username", AuthRecord::username),
+            new Column<>("Role", record -> record.role().name()),
+            new Column<>("Active", record -> record.active() ? "Yes" : "No"),
+            new Column<>("Last Login", record -> record.lastLogin() != null ? record.lastLogin().toString() : "Never")));
+    private final JTabbedPane tabs = new JTabbedPane();
+
+    private final JComboBox<String> userRoleFilter = new JComboBox<>(new String[]{"All roles", "STUDENT", "INSTRUCTOR", "ADMIN"});
+    private final JTextField usernamePrefixFilter = new JTextField(12);
+    private final JTextField codePrefixFilter = new JTextField(8);
+    private final JComboBox<String> semesterFilter = new JComboBox<>(new String[]{"Any semester", "1", "2"});
+    private final JTextField yearFilter = new JTextField(5);
+    private final JTextField departmentFilter = new JTextField(10);
 
     public AdminDashboardFrame() {
         super("Admin Dashboard");
@@ -105,8 +147,13 @@ public final class AdminDashboardFrame extends JFrame {
 
         rebuildTabs();
 
+        JPanel statusBar = new JPanel(new BorderLayout());
+        statusBar.setOpaque(false);
+        statusBar.add(maintenanceLabel, BorderLayout.CENTER);
+        statusBar.add(loadingBar, BorderLayout.EAST);
+
         add(tabs, BorderLayout.CENTER);
-        add(maintenanceLabel, BorderLayout.SOUTH);
+        add(statusBar, BorderLayout.SOUTH);
 
         refreshAll();
     }
@@ -120,6 +167,18 @@ public final class AdminDashboardFrame extends JFrame {
         tabs.addTab("Courses & Sections", buildCoursesSectionsPanel(tabs));
         tabs.addTab("Manage", buildManagePanel(tabs));
 
+        // Stop loading data for tabs the user has left and refresh the one they opened.
+        tabs.addChangeListener(e -> {
+            int index = tabs.getSelectedIndex();
+            if (index == 1) {
+                loader.cancelAllExcept("users", "maintenance", "export", "backup");
+                loadUsers();
+            } else if (index == 2) {
+                loader.cancelAllExcept("courses", "sections", "maintenance", "export", "backup");
+                loadCoursesAndSections();
+            }
+        });
+
         if (tabs.getTabCount() > 0) {
             tabs.setSelectedIndex(Math.min(selectedIndex, tabs.getTabCount() - 1));
         }
@@ -206,6 +265,7 @@ public final class AdminDashboardFrame extends JFrame {
     private JPanel buildUsersPanel(JTabbedPane tabs) {
         JTable table = new JTable(usersModel);
         styleDataTable(table);
+        usersModel.installSortToggle(table);
 
         JScrollPane scrollPane = createTableScrollPane(table);
 
@@ -213,15 +273,29 @@ public final class AdminDashboardFrame extends JFrame {
         stylePrimaryAction(refresh);
         refresh.addActionListener(e -> loadUsers());
 
+        JButton applyFilter = new JButton("Filter");
+        styleSecondaryAction(applyFilter);
+        applyFilter.addActionListener(e -> loadUsers());
+        usernamePrefixFilter.addActionListener(e -> loadUsers());
+
+        JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        filters.setOpaque(false);
+        filters.setBorder(BorderFactory.createEmptyBorder(0, 0, 12, 0));
+        filters.add(new JLabel("Role:"));
+        filters.add(userRoleFilter);
+        filters.add(new JLabel("Username starts with:"));
+        filters.add(usernamePrefixFilter);
+        filters.add(applyFilter);
+
         JButton lockButton = new JButton("Temp Lock 10m");
         styleSecondaryAction(lockButton);
         lockButton.addActionListener(e -> {
-            int row = table.getSelectedRow();
-            if (row < 0) {
+            AuthRecord user = table.getSelectedRow() < 0 ? null : usersModel.getItem(table.getSelectedRow());
+            if (user == null) {
                 JOptionPane.showMessageDialog(this, "Select a user first.");
                 return;
             }
-            String username = usersModel.getValueAt(row, 1).toString();
+            String username = user.username();
             var result = adminService.temporaryLockUser(username, 10);
             JOptionPane.showMessageDialog(this, result.getMessage().orElse(result.isSuccess() ? "User locked." : "Failed to lock user."));
             loadUsers();
@@ -230,12 +304,12 @@ public final class AdminDashboardFrame extends JFrame {
         JButton unlockButton = new JButton("Unlock User");
         styleSecondaryAction(unlockButton);
         unlockButton.addActionListener(e -> {
-            int row = table.getSelectedRow();
-            if (row < 0) {
+            AuthRecord user = table.getSelectedRow() < 0 ? null : usersModel.getItem(table.getSelectedRow());
+            if (user == null) {
                 JOptionPane.showMessageDialog(this, "Select a user first.");
                 return;
             }
-            String username = usersModel.getValueAt(row, 1).toString();
+            String username = user.username();
             var result = adminService.unlockUser(username);
             JOptionPane.showMessageDialog(this, result.getMessage().orElse(result.isSuccess() ? "User unlocked." : "Failed to unlock user."));
             loadUsers();
@@ -249,6 +323,7 @@ public final class AdminDashboardFrame extends JFrame {
         actions.add(refresh);
 
         JPanel tableCard = createCardPanel();
+        tableCard.add(filters, BorderLayout.NORTH);
         tableCard.add(scrollPane, BorderLayout.CENTER);
         tableCard.add(actions, BorderLayout.SOUTH);
 
@@ -281,20 +356,43 @@ public final class AdminDashboardFrame extends JFrame {
         titleLabel.setForeground(theme.textPrimary());
         titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 26f));
 
-        JLabel subtitleLabel = new JLabel("View all courses and sections in the system.");
+        JLabel subtitleLabel = new JLabel("Browse courses and sections. The semester, year and department filters apply to sections.");
         subtitleLabel.setForeground(theme.subtitleText());
         subtitleLabel.setBorder(BorderFactory.createEmptyBorder(4, 0, 0, 0));
 
         header.add(titleLabel);
         header.add(subtitleLabel);
 
+        JButton applyFilter = new JButton("Filter");
+        styleSecondaryAction(applyFilter);
+        applyFilter.addActionListener(e -> loadCoursesAndSections());
+        codePrefixFilter.addActionListener(e -> loadCoursesAndSections());
+        yearFilter.addActionListener(e -> loadCoursesAndSections());
+        departmentFilter.addActionListener(e -> loadCoursesAndSections());
+
+        JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        filters.setOpaque(false);
+        filters.setAlignmentX(0f);
+        filters.setBorder(BorderFactory.createEmptyBorder(12, 0, 0, 0));
+        filters.add(new JLabel("Code starts with:"));
+        filters.add(codePrefixFilter);
+        filters.add(semesterFilter);
+        filters.add(new JLabel("Year:"));
+        filters.add(yearFilter);
+        filters.add(new JLabel("Department:"));
+        filters.add(departmentFilter);
+        filters.add(applyFilter);
+        header.add(filters);
+
         JPanel tablesPanel = new JPanel(new BorderLayout());
         tablesPanel.setOpaque(false);
 
         JTable coursesTable = new JTable(coursesModel);
         styleDataTable(coursesTable);
+        coursesModel.installSortToggle(coursesTable);
         JTable sectionsTable = new JTable(sectionsModel);
         styleDataTable(sectionsTable);
+        sectionsModel.installSortToggle(sectionsTable);
 
         JPanel coursesCard = createCardPanel();
         coursesCard.add(new JLabel("Courses", SwingConstants.CENTER), BorderLayout.NORTH);
@@ -323,13 +421,13 @@ public final class AdminDashboardFrame extends JFrame {
         JButton removeCourseButton = new JButton("Remove Course");
         styleSecondaryAction(removeCourseButton);
         removeCourseButton.addActionListener(e -> {
-            int row = coursesTable.getSelectedRow();
-            if (row < 0) {
+            Course selected = coursesTable.getSelectedRow() < 0 ? null : coursesModel.getItem(coursesTable.getSelectedRow());
+            if (selected == null) {
                 JOptionPane.showMessageDialog(this, "Please select a course to remove.", "No Selection", JOptionPane.WARNING_MESSAGE);
                 return;
             }
-            String courseId = (String) coursesModel.getValueAt(row, 0);
-            String courseCode = (String) coursesModel.getValueAt(row, 1);
+            String courseId = selected.getCourseId();
+            String courseCode = selected.getCode();
             
             // Confirm removal
             int confirm = JOptionPane.showConfirmDialog(
@@ -355,13 +453,13 @@ public final class AdminDashboardFrame extends JFrame {
         JButton removeSectionButton = new JButton("Remove Section");
         styleSecondaryAction(removeSectionButton);
         removeSectionButton.addActionListener(e -> {
-            int row = sectionsTable.getSelectedRow();
-            if (row < 0) {
+            SectionRow selected = sectionsTable.getSelectedRow() < 0 ? null : sectionsModel.getItem(sectionsTable.getSelectedRow());
+            if (selected == null) {
                 JOptionPane.showMessageDialog(this, "Please select a section to remove.", "No Selection", JOptionPane.WARNING_MESSAGE);
                 return;
             }
-            String sectionId = (String) sectionsModel.getValueAt(row, 0);
-            String courseCode = (String) sectionsModel.getValueAt(row, 1);
+            String sectionId = selected.section().getSectionId();
+            String courseCode = selected.courseCode();
             
             // Confirm removal
             int confirm = JOptionPane.showConfirmDialog(
@@ -853,6 +951,18 @@ public final class AdminDashboardFrame extends JFrame {
         restoreButton.addActionListener(e -> performRestore());
         gbc.gridy = 33;
         formCard.add(restoreButton, gbc);
+
+        JButton exportTranscriptsButton = new JButton("Export Cohort Transcripts");
+        styleSecondaryAction(exportTranscriptsButton);
+        exportTranscriptsButton.addActionListener(e -> exportCohortTranscripts());
+        gbc.gridy = 34;
+        formCard.add(exportTranscriptsButton, gbc);
+
+        JButton snapshotButton = new JButton("Full Backup (All Data)");
+        styleSecondaryAction(snapshotButton);
+        snapshotButton.addActionListener(e -> performFullBackup());
+        gbc.gridy = 35;
+        formCard.add(snapshotButton, gbc);
         
         content.add(header, BorderLayout.NORTH);
         JScrollPane scrollPane = new JScrollPane(formCard);
@@ -1011,56 +1121,48 @@ public final class AdminDashboardFrame extends JFrame {
     }
 
     private void loadUsers() {
-        usersModel.setRowCount(0);
-        for (AuthRecord record : authRepository.findAll()) {
-            usersModel.addRow(new Object[]{
-                    record.userId(),
-                    record.username(),
-                    record.role().name(),
-                    record.active() ? "Yes" : "No",
-                    record.lastLogin() != null ? record.lastLogin().toString() : "Never"
-            });
-        }
+        String role = (String) userRoleFilter.getSelectedItem();
+        UserFilter filter = new UserFilter(
+                userRoleFilter.getSelectedIndex() == 0 ? null : Role.valueOf(role),
+                usernamePrefixFilter.getText());
+        usersModel.setSource(request -> authRepository.findAll(filter, request));
     }
 
     private void loadCoursesAndSections() {
-        // Clear existing data
-        coursesModel.setRowCount(0);
-        sectionsModel.setRowCount(0);
-
-        // Load courses
-        java.util.List<Course> courses = erpRepository.listCourses();
-        for (Course course : courses) {
-            coursesModel.addRow(new Object[]{
-                    course.getCourseId(),
-                    course.getCode(),
-                    course.getTitle(),
-                    course.getCredits()
-            });
+        Integer year = null;
+        String yearText = yearFilter.getText().trim();
+        if (!yearText.isEmpty()) {
+            try {
+                year = Integer.parseInt(yearText);
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(this, "Year must be a number.", "Invalid Filter", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
         }
+        String codePrefix = codePrefixFilter.getText();
+        CourseFilter courseFilter = new CourseFilter(codePrefix);
+        SectionFilter sectionFilter = new SectionFilter(
+                semesterFilter.getSelectedIndex() == 0 ? null : semesterFilter.getSelectedIndex(),
+                year,
+                departmentFilter.getText(),
+                codePrefix);
+
+        coursesModel.setSource(request -> erpRepository.listCourses(courseFilter, request));
+        sectionsModel.setSource(request -> loadSectionRows(sectionFilter, request));
+    }
 
-        // Load sections
-        java.util.List<Section> sections = erpRepository.listSections();
-        for (Section section : sections) {
-            String courseCode = erpRepository.findCourse(section.getCourseId())
-                    .map(Course::getCode)
-                    .orElse("Unknown");
-            sectionsModel.addRow(new Object[]{
-                    section.getSectionId(),
-                    courseCode,
-                    section.getInstructorId(),
-                    section.getDayOfWeek().name(),
-                    section.getStartTime() + "-" + section.getEndTime(),
-                    section.getRoom(),
-                    section.getCapacity(),
-                    section.getRegistrationDeadline()
-            });
+    private Page<SectionRow> loadSectionRows(SectionFilter filter, PageRequest request) {
+        Page<Section> page = erpRepository.listSections(filter, request);
+        // Only the courses this page refers to, in one lookup.
+        java.util.Map<String, Course> courses = erpRepository.findCourses(page.items().stream()
+                .map(Section::getCourseId)
+                .toList());
+        List<SectionRow> rows = new ArrayList<>(page.items().size());
+        for (Section section : page.items()) {
+            Course course = courses.get(section.getCourseId());
+            rows.add(new SectionRow(section, course == null ? "Unknown" : course.getCode()));
         }
-        
-        // Force table model to fire change events to update UI
-        // Note: addRow() automatically fires table changed events, but we fire again to ensure UI updates
-        coursesModel.fireTableDataChanged();
-        sectionsModel.fireTableDataChanged();
+        return new Page<>(rows, page.nextKey());
     }
 
     private void seedDemoCourses() {
@@ -1070,37 +1172,99 @@ public final class AdminDashboardFrame extends JFrame {
     }
 
     private void performBackup() {
-        var result = backupService.exportSnapshot();
-        if (!result.isSuccess()) {
-            JOptionPane.showMessageDialog(this, result.getMessage().orElse("Unable to create backup."));
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("erp-backup.txt.gz"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
             return;
         }
+        File file = chooser.getSelectedFile();
+        boolean gzip = file.getName().endsWith(".gz");
+        loader.load("backup", () -> {
+            try (OutputStream out = new FileOutputStream(file)) {
+                return backupService.exportSnapshot(out, gzip);
+            }
+        }, result -> JOptionPane.showMessageDialog(this, result.isSuccess()
+                ? "Backup saved (" + result.getPayload().orElse(0) + " records)."
+                : result.getMessage().orElse("Unable to create backup.")));
+    }
+
+    private void exportCohortTranscripts() {
+        JTextField programField = new JTextField(20);
+        JTextField yearField = new JTextField(6);
+        JComboBox<TranscriptExportFormat> formatBox = new JComboBox<>(TranscriptExportFormat.values());
+        Object[] message = {
+            "Program (blank for all):", programField,
+            "Year (blank for all):", yearField,
+            "Format:", formatBox
+        };
+        if (JOptionPane.showConfirmDialog(this, message, "Export Cohort Transcripts",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        Integer year;
+        try {
+            year = yearField.getText().isBlank() ? null : Integer.parseInt(yearField.getText().trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Year must be a number.");
+            return;
+        }
+        String program = programField.getText();
+        TranscriptExportFormat format = (TranscriptExportFormat) formatBox.getSelectedItem();
         JFileChooser chooser = new JFileChooser();
-        chooser.setSelectedFile(new File("erp-backup.txt"));
-        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try (FileWriter writer = new FileWriter(chooser.getSelectedFile())) {
-                writer.write(result.getPayload().orElse(""));
-                JOptionPane.showMessageDialog(this, "Backup saved.");
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Failed to save backup: " + ex.getMessage());
+        chooser.setSelectedFile(new File(format == TranscriptExportFormat.ZIP ? "transcripts.zip" : "transcripts.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        loader.<OperationResult<Integer>, Void>loadRows("export", rows -> {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+                return adminService.exportCohortTranscripts(program, year, format, out, (completed, total) -> {
+                    if (rows.isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    rows.progress(completed, total);
+                });
             }
+        }, null, batch -> {
+        }, result -> JOptionPane.showMessageDialog(this,
+                result.getMessage().orElse(result.isSuccess() ? "Transcripts exported." : "Export failed.")));
+    }
+
+    private void performFullBackup() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("erp-snapshot.erps"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        File file = chooser.getSelectedFile();
+        loader.load("backup", () -> {
+            try (OutputStream out = new FileOutputStream(file)) {
+                return snapshotService.exportSnapshot(out);
+            }
+        }, result -> JOptionPane.showMessageDialog(this, result.isSuccess()
+                ? "Snapshot saved (" + result.getPayload().orElse(0) + " records)."
+                : result.getMessage().orElse("Unable to create snapshot.")));
     }
 
+    /** Restores either a course and section backup or a full snapshot, told apart by content. */
     private void performRestore() {
         JFileChooser chooser = new JFileChooser();
-        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                String payload = Files.readString(chooser.getSelectedFile().toPath());
-                var result = backupService.importSnapshot(payload);
-                JOptionPane.showMessageDialog(this, result.getMessage().orElse(result.isSuccess() ? "Backup restored." : "Failed to restore backup."));
-                if (result.isSuccess()) {
-                    loadCoursesAndSections();
-                }
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Failed to read backup: " + ex.getMessage());
-            }
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        File file = chooser.getSelectedFile();
+        loader.load("backup", () -> {
+            try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(file))) {
+                return ErpSnapshotService.isSnapshot(in)
+                        ? snapshotService.importSnapshot(in)
+                        : backupService.importSnapshot(in);
+            }
+        }, result -> {
+            JOptionPane.showMessageDialog(this, result.getMessage().orElse(result.isSuccess() ? "Backup restored." : "Failed to restore backup."));
+            if (result.isSuccess()) {
+                loadCoursesAndSections();
+            }
+        });
     }
 
     private void showChangePasswordDialog() {
@@ -1150,6 +1314,7 @@ public final class AdminDashboardFrame extends JFrame {
             JOptionPane.YES_NO_OPTION
         );
         if (confirm == JOptionPane.YES_OPTION) {
+            loader.cancelAll();
             authService.logout();
             dispose();
             new LoginFrame().setVisible(true);
@@ -1157,9 +1322,10 @@ public final class AdminDashboardFrame extends JFrame {
     }
 
     private void refreshMaintenanceLabel() {
-        maintenanceLabel.setText(maintenanceService.isMaintenanceOn()
-                ? "Maintenance Mode ON — read-only operations."
-                : "");
+        loader.load("maintenance", maintenanceService::isMaintenanceOn, maintenanceOn ->
+                maintenanceLabel.setText(maintenanceOn
+                        ? "Maintenance Mode ON — read-only operations."
+                        : ""));
     }
 
     private void refreshAll() {
@@ -1190,6 +1356,9 @@ public final class AdminDashboardFrame extends JFrame {
         }
     }
 
+    private record SectionRow(Section section, String courseCode) {
+    }
+
     private record ThemePalette(
             Color background,
             Color cardBackground,
@@ -31,6 +31,7 @@ import javax.swing.JPasswordField;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
 
 import edu.univ.erp.api.common.OperationResult;
@@ -199,8 +200,30 @@ public final class LoginFrame extends JFrame {
         }
         
         loginButton.setEnabled(false);
-        OperationResult<Role> result = authService.login(usernameField.getText().trim(), new String(passwordField.getPassword()));
-        
+        String username = usernameField.getText().trim();
+        String password = new String(passwordField.getPassword());
+        // Password checks are deliberately slow; keep them off the EDT so the window stays responsive.
+        new SwingWorker<OperationResult<Role>, Void>() {
+            @Override
+            protected OperationResult<Role> doInBackground() {
+                return authService.login(username, password);
+            }
+
+            @Override
+            protected void done() {
+                OperationResult<Role> result;
+                try {
+                    result = get();
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    result = OperationResult.failure("Login failed: " + cause.getMessage());
+                }
+                handleLoginResult(result);
+            }
+        }.execute();
+    }
+
+    private void handleLoginResult(OperationResult<Role> result) {
         if (!result.isSuccess()) {
             String message = result.getMessage().orElse("Invalid credentials. Try again.");
             
@@ -0,0 +1,251 @@
+package edu.univ.erp.ui.common;
+
+import javax.swing.JOptionPane;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a dashboard's data loading on {@link SwingWorker} threads so repository calls never block
+ * the event dispatch thread.
+ *
+ * <p>Every load is filed under a key naming what it refreshes, such as {@code "users"}. While a
+ * load for a key is running, further requests for that key are coalesced: only the most recent
+ * one is kept, and it starts once the running load finishes, whose now stale results are then
+ * thrown away. Loads can be cancelled by key, which a frame does for the other tabs' data when
+ * the user switches tabs. Rows a load produces reach the EDT in batches, and a shared progress
+ * bar stays visible while anything is loading.</p>
+ *
+ * <p>All methods must be called on the EDT; every callback is invoked there too.</p>
+ */
+public final class BackgroundLoader {
+
+    /** Work done off the EDT. Rows handed to the sink are delivered to the EDT in batches. */
+    @FunctionalInterface
+    public interface Task<T, R> {
+        T run(RowSink<R> rows) throws Exception;
+    }
+
+    public interface RowSink<R> {
+        void add(R row);
+
+        /** Switches the progress bar to a determinate {@code completed} out of {@code total}. */
+        void progress(int completed, int total);
+
+        boolean isCancelled();
+    }
+
+    private final Component owner;
+    private final JProgressBar progressBar;
+    private final Map<String, LoadWorker<?, ?>> running = new HashMap<>();
+    private final Map<String, Supplier<LoadWorker<?, ?>>> pending = new HashMap<>();
+
+    public BackgroundLoader(Component owner, JProgressBar progressBar) {
+        this.owner = owner;
+        this.progressBar = progressBar;
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+    }
+
+    /** Loads one value off the EDT and hands it to {@code onLoaded}. */
+    public <T> void load(String key, Callable<T> task, Consumer<T> onLoaded) {
+        loadRows(key, rows -> task.call(), null, batch -> {
+        }, onLoaded);
+    }
+
+    /**
+     * Runs {@code task} off the EDT. {@code onReset}, if given, runs just before the first batch
+     * of rows is delivered (or on completion if there are none), so a table is cleared only once
+     * fresh rows are ready rather than sitting empty for the whole load.
+     */
+    public <T, R> void loadRows(String key,
+                                Task<T, R> task,
+                                Runnable onReset,
+                                Consumer<List<R>> onRows,
+                                Consumer<T> onLoaded) {
+        requireEdt();
+        Supplier<LoadWorker<?, ?>> factory = () -> new LoadWorker<>(key, task, onReset, onRows, onLoaded);
+        LoadWorker<?, ?> current = running.get(key);
+        if (current != null) {
+            current.superseded = true;
+            pending.put(key, factory);
+            return;
+        }
+        start(key, factory);
+    }
+
+    public boolean isLoading(String key) {
+        requireEdt();
+        return running.containsKey(key) || pending.containsKey(key);
+    }
+
+    public void cancel(String key) {
+        requireEdt();
+        pending.remove(key);
+        LoadWorker<?, ?> worker = running.remove(key);
+        if (worker != null) {
+            worker.cancel(true);
+        }
+        updateProgress();
+    }
+
+    /**
+     * Cancels every load except those for {@code keys}. A key also keeps the loads filed under
+     * it as a group, so keeping {@code "users"} keeps {@code "users/3"}.
+     */
+    public void cancelAllExcept(String... keys) {
+        Set<String> keep = new HashSet<>(Arrays.asList(keys));
+        Set<String> all = new HashSet<>(running.keySet());
+        all.addAll(pending.keySet());
+        for (String key : all) {
+            int slash = key.indexOf('/');
+            if (!keep.contains(key) && (slash < 0 || !keep.contains(key.substring(0, slash)))) {
+                cancel(key);
+            }
+        }
+    }
+
+    public void cancelAll() {
+        cancelAllExcept();
+    }
+
+    private void start(String key, Supplier<LoadWorker<?, ?>> factory) {
+        LoadWorker<?, ?> worker = factory.get();
+        running.put(key, worker);
+        worker.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName())) {
+                updateProgress();
+            }
+        });
+        updateProgress();
+        worker.execute();
+    }
+
+    private void finished(String key, LoadWorker<?, ?> worker) {
+        if (running.get(key) == worker) {
+            running.remove(key);
+            Supplier<LoadWorker<?, ?>> next = pending.remove(key);
+            if (next != null) {
+                start(key, next);
+            }
+        }
+        updateProgress();
+    }
+
+    private void updateProgress() {
+        if (running.isEmpty()) {
+            progressBar.setVisible(false);
+            return;
+        }
+        // A determinate bar only makes sense when a single load is reporting.
+        LoadWorker<?, ?> only = running.size() == 1 ? running.values().iterator().next() : null;
+        boolean determinate = only != null && only.reportsProgress;
+        progressBar.setIndeterminate(!determinate);
+        progressBar.setValue(determinate ? only.getProgress() : 0);
+        progressBar.setString(determinate ? "Loading… " + only.getProgress() + "%" : "Loading…");
+        progressBar.setVisible(true);
+    }
+
+    private static void requireEdt() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("BackgroundLoader must be used on the event dispatch thread");
+        }
+    }
+
+    private final class LoadWorker<T, R> extends SwingWorker<T, R> implements RowSink<R> {
+
+        private final String key;
+        private final Task<T, R> task;
+        private final Runnable onReset;
+        private final Consumer<List<R>> onRows;
+        private final Consumer<T> onLoaded;
+        private volatile boolean reportsProgress;
+        private boolean superseded;
+        private boolean reset;
+
+        LoadWorker(String key, Task<T, R> task, Runnable onReset, Consumer<List<R>> onRows, Consumer<T> onLoaded) {
+            this.key = key;
+            this.task = task;
+            this.onReset = onReset;
+            this.onRows = onRows;
+            this.onLoaded = onLoaded;
+        }
+
+        @Override
+        protected T doInBackground() throws Exception {
+            return task.run(this);
+        }
+
+        @Override
+        public void add(R row) {
+            publish(row);
+        }
+
+        @Override
+        public void progress(int completed, int total) {
+            reportsProgress = true;
+            setProgress(total <= 0 ? 100 : Math.min(100, (int) (completed * 100L / total)));
+        }
+
+        @Override
+        protected void process(List<R> batch) {
+            if (isStale()) {
+                return;
+            }
+            resetOnce();
+            onRows.accept(new ArrayList<>(batch));
+        }
+
+        @Override
+        protected void done() {
+            boolean stale = isStale();
+            finished(key, this);
+            if (stale) {
+                return;
+            }
+            try {
+                T result = get();
+                resetOnce();
+                onLoaded.accept(result);
+            } catch (CancellationException | InterruptedException e) {
+                // Superseded or cancelled; nothing to show.
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                JOptionPane.showMessageDialog(owner,
+                        "Unable to load data: " + cause.getMessage(),
+                        "Load Failed",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        /**
+         * True once this load was cancelled or a newer request for its key arrived. Batches can
+         * still be delivered after {@link #done()}, so this cannot be read off {@code running}.
+         */
+        private boolean isStale() {
+            return isCancelled() || superseded;
+        }
+
+        private void resetOnce() {
+            if (!reset) {
+                reset = true;
+                if (onReset != null) {
+                    onReset.run();
+                }
+            }
+        }
+    }
+}
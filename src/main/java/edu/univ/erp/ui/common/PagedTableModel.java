@@ -0,0 +1,223 @@
+package edu.univ.erp.ui.common;
+
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
+
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Table model over a keyset-paginated listing that fetches pages as the table asks for their
+ * rows and keeps only a bounded window of them in memory.
+ *
+ * <p>The row count grows one page at a time: when the table renders rows near the end of what
+ * has been discovered, the next page is fetched in the background and announced with a single
+ * rows-inserted event. Every page's starting key is remembered, so a page that was evicted from
+ * the cache can be fetched again on its own when the user scrolls back to it; until it arrives
+ * its cells are blank. Sorting happens in the data source: clicking the sort column's header
+ * flips the direction and reloads, and the table has no row sorter, which would otherwise read
+ * every row. Filtering is done by handing the model a new source.</p>
+ *
+ * <p>Like the rest of Swing, this model must only be used on the event dispatch thread.</p>
+ */
+public final class PagedTableModel<T> extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Fetches one page. Called off the EDT. */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        Page<T> fetch(PageRequest request);
+    }
+
+    public record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    private final transient BackgroundLoader loader;
+    private final String key;
+    private final int pageSize;
+    private final int cachedPages;
+    private final transient List<Column<T>> columns;
+    private final int sortColumn;
+    private final transient Map<Integer, List<T>> pages;
+    private final transient List<String> pageStarts = new ArrayList<>();
+    private transient PageSource<T> source;
+    private boolean descending;
+    private String nextStart;
+    private int lastPageSize;
+    private int generation;
+
+    /**
+     * @param key        loader key; page {@code n} is loaded under {@code key + "/" + n}
+     * @param sortColumn index of the column whose order the source's keys follow
+     */
+    public PagedTableModel(BackgroundLoader loader,
+                           String key,
+                           int pageSize,
+                           int cachedPages,
+                           int sortColumn,
+                           List<Column<T>> columns) {
+        this.loader = loader;
+        this.key = key;
+        this.pageSize = pageSize;
+        this.cachedPages = Math.max(2, cachedPages);
+        this.sortColumn = sortColumn;
+        this.columns = List.copyOf(columns);
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > PagedTableModel.this.cachedPages;
+            }
+        };
+    }
+
+    /** Replaces the data source, typically with one carrying a new filter, and starts over. */
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        reload();
+    }
+
+    /** Drops every cached page and fetches the first one again. */
+    public void reload() {
+        for (int page = 0; page <= pageStarts.size(); page++) {
+            loader.cancel(pageKey(page));
+        }
+        generation++;
+        pages.clear();
+        pageStarts.clear();
+        nextStart = null;
+        lastPageSize = 0;
+        fireTableDataChanged();
+        if (source != null) {
+            request(0);
+        }
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Removes the table's row sorter and makes a click on the sort column's header flip the
+     * direction the source is read in.
+     */
+    public void installSortToggle(JTable table) {
+        table.setAutoCreateRowSorter(false);
+        table.setRowSorter(null);
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = table.columnAtPoint(e.getPoint());
+                if (viewColumn < 0 || table.convertColumnIndexToModel(viewColumn) != sortColumn) {
+                    return;
+                }
+                descending = !descending;
+                table.getColumnModel().getColumn(viewColumn).setHeaderValue(getColumnName(sortColumn));
+                header.repaint();
+                reload();
+            }
+        });
+    }
+
+    /**
+     * Returns the item shown in {@code row}, or {@code null} while its page is being fetched.
+     * Asking for a row also schedules the fetches needed to show it and the rows after it.
+     */
+    public T getItem(int row) {
+        int page = row / pageSize;
+        int offset = row % pageSize;
+        List<T> items = pages.get(page);
+        if (items == null) {
+            request(page);
+            return null;
+        }
+        if (offset >= items.size() - pageSize / 4) {
+            // Close to the end of this page: have the next one ready before it is scrolled into view.
+            request(page + 1);
+        }
+        return offset < items.size() ? items.get(offset) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return pageStarts.isEmpty() ? 0 : (pageStarts.size() - 1) * pageSize + lastPageSize;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        String name = columns.get(column).name();
+        return column == sortColumn ? name + (descending ? " ▼" : " ▲") : name;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T item = getItem(row);
+        return item == null ? null : columns.get(column).value().apply(item);
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    private void request(int page) {
+        if (pages.containsKey(page) || loader.isLoading(pageKey(page))) {
+            return;
+        }
+        String start;
+        if (page < pageStarts.size()) {
+            start = pageStarts.get(page);
+        } else if (page == pageStarts.size() && (page == 0 || nextStart != null)) {
+            start = nextStart;
+        } else {
+            return;
+        }
+        int requestedGeneration = generation;
+        PageSource<T> pageSource = source;
+        PageRequest request = new PageRequest(start, pageSize, descending);
+        loader.load(pageKey(page), () -> pageSource.fetch(request), result -> {
+            if (requestedGeneration == generation) {
+                accept(page, start, result);
+            }
+        });
+    }
+
+    private void accept(int page, String start, Page<T> result) {
+        List<T> items = result.items();
+        pages.put(page, items);
+        int firstRow = page * pageSize;
+        if (page == pageStarts.size()) {
+            pageStarts.add(start);
+            lastPageSize = items.size();
+            nextStart = result.nextKey();
+            if (!items.isEmpty()) {
+                fireTableRowsInserted(firstRow, firstRow + items.size() - 1);
+            }
+        } else {
+            // A page fetched again after eviction keeps its rows in place even if the listing
+            // changed underneath; a reload picks up such changes.
+            int rows = page == pageStarts.size() - 1 ? lastPageSize : pageSize;
+            if (rows > 0) {
+                fireTableRowsUpdated(firstRow, firstRow + rows - 1);
+            }
+        }
+    }
+
+    private String pageKey(int page) {
+        return key + "/" + page;
+    }
+}
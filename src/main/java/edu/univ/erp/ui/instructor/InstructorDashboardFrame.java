@@ -13,6 +13,7 @@ import edu.univ.erp.infra.ServiceLocator;
 import edu.univ.erp.service.AuthService;
 import edu.univ.erp.service.InstructorService;
 import edu.univ.erp.ui.auth.LoginFrame;
+import edu.univ.erp.ui.common.BackgroundLoader;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -27,6 +28,7 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
@@ -43,6 +45,7 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public final class InstructorDashboardFrame extends JFrame {
@@ -79,6 +82,9 @@ public final class InstructorDashboardFrame extends JFrame {
     private final DefaultTableModel sectionsModel = new DefaultTableModel(new Object[] {
             "Section ID", "Course Code", "Day", "Time", "Room", "Capacity"
     }, 0);
+    private final DefaultTableModel studentsModel = new DefaultTableModel(new Object[] {
+            "Section ID", "Course Code", "Student ID", "Student Name", "Roll No", "Enrollment ID"
+    }, 0);
     private final DefaultTableModel classStatsModel = new DefaultTableModel(new Object[] {
             "Section ID", "Course", "Enrolled", "Capacity", "Seats Left", "Fill %", "Avg Grade", "Deadline"
     }, 0) {
@@ -98,6 +104,8 @@ public final class InstructorDashboardFrame extends JFrame {
     private final JTabbedPane tabs = new JTabbedPane();
 
     private final JLabel maintenanceLabel = new JLabel("", SwingConstants.CENTER);
+    private final JProgressBar loadingBar = new JProgressBar();
+    private final transient BackgroundLoader loader = new BackgroundLoader(this, loadingBar);
 
     public InstructorDashboardFrame() {
         super("Instructor Dashboard");
@@ -109,8 +117,13 @@ public final class InstructorDashboardFrame extends JFrame {
 
         rebuildTabs();
 
+        JPanel statusBar = new JPanel(new BorderLayout());
+        statusBar.setOpaque(false);
+        statusBar.add(maintenanceLabel, BorderLayout.CENTER);
+        statusBar.add(loadingBar, BorderLayout.EAST);
+
         add(tabs, BorderLayout.CENTER);
-        add(maintenanceLabel, BorderLayout.SOUTH);
+        add(statusBar, BorderLayout.SOUTH);
 
         refreshAll();
     }
@@ -128,8 +141,13 @@ public final class InstructorDashboardFrame extends JFrame {
         tabs.addChangeListener(e -> {
             int index = tabs.getSelectedIndex();
             if (index == 1) {
+                loader.cancelAllExcept("sections", "maintenance");
                 loadSections();
+            } else if (index == 2) {
+                loader.cancelAllExcept("students", "maintenance");
+                loadStudents();
             } else if (index == 3) {
+                loader.cancelAllExcept("classStats", "maintenance");
                 loadClassStats();
             }
         });
@@ -248,10 +266,6 @@ public final class InstructorDashboardFrame extends JFrame {
     }
 
     private JPanel buildStudentsPanel(JTabbedPane tabs) {
-        DefaultTableModel studentsModel = new DefaultTableModel(new Object[] {
-                "Section ID", "Course Code", "Student ID", "Student Name", "Roll No", "Enrollment ID"
-        }, 0);
-
         JTable table = new JTable(studentsModel);
         styleDataTable(table);
 
@@ -259,33 +273,7 @@ public final class InstructorDashboardFrame extends JFrame {
 
         JButton refresh = new JButton("Refresh");
         stylePrimaryAction(refresh);
-        refresh.addActionListener(e -> {
-            studentsModel.setRowCount(0);
-            var sectionsResult = instructorService.listMySections(instructorId);
-            if (!sectionsResult.isSuccess()) {
-                JOptionPane.showMessageDialog(this, sectionsResult.getMessage().orElse("Unable to load sections."));
-                return;
-            }
-            for (String sectionId : sectionsResult.getPayload().orElse(List.of())) {
-                erpRepository.findSection(sectionId).ifPresent(section -> {
-                    erpRepository.findCourse(section.getCourseId()).ifPresent(course -> {
-                        List<Enrollment> enrollments = erpRepository.findEnrollmentsBySection(sectionId);
-                        for (Enrollment enrollment : enrollments) {
-                            erpRepository.findStudent(enrollment.getStudentId()).ifPresent(student -> {
-                                studentsModel.addRow(new Object[]{
-                                        sectionId,
-                                        course.getCode(),
-                                        enrollment.getStudentId(),
-                                        "Student " + enrollment.getStudentId(),
-                                        student.getRollNumber(),
-                                        enrollment.getEnrollmentId()
-                                });
-                            });
-                        }
-                    });
-                });
-            }
-        });
+        refresh.addActionListener(e -> loadStudents());
 
         JPanel actions = new JPanel(new FlowLayout(FlowLayout.RIGHT, 12, 0));
         actions.setOpaque(false);
@@ -305,7 +293,7 @@ public final class InstructorDashboardFrame extends JFrame {
         body.add(wrapper, BorderLayout.CENTER);
 
         // Load students on panel creation
-        refresh.doClick();
+        loadStudents();
 
         return createPageLayout(tabs, "My Students", "View all students enrolled in your sections.", body);
     }
@@ -875,16 +863,18 @@ public final class InstructorDashboardFrame extends JFrame {
     }
 
     private void loadSections() {
-        sectionsModel.setRowCount(0);
-        var result = instructorService.listMySections(instructorId);
-        if (!result.isSuccess()) {
-            JOptionPane.showMessageDialog(this, result.getMessage().orElse("Unable to load sections."));
-            return;
-        }
-        for (String sectionId : result.getPayload().orElse(List.of())) {
-            erpRepository.findSection(sectionId).ifPresent(section -> {
-                erpRepository.findCourse(section.getCourseId()).ifPresent(course -> {
-                    sectionsModel.addRow(new Object[]{
+        loader.<OperationResult<List<String>>, Object[]>loadRows("sections", rows -> {
+            var result = instructorService.listMySections(instructorId);
+            List<String> sectionIds = result.getPayload().orElse(List.of());
+            Map<String, Section> sections = erpRepository.findSections(sectionIds);
+            Map<String, Course> courses = erpRepository.findCourses(sections.values().stream()
+                    .map(Section::getCourseId)
+                    .toList());
+            for (String sectionId : sectionIds) {
+                Section section = sections.get(sectionId);
+                Course course = section == null ? null : courses.get(section.getCourseId());
+                if (course != null) {
+                    rows.add(new Object[]{
                             section.getSectionId(),
                             course.getCode(),
                             section.getDayOfWeek().name(),
@@ -892,40 +882,88 @@ public final class InstructorDashboardFrame extends JFrame {
                             section.getRoom(),
                             section.getCapacity()
                     });
-                });
-            });
-        }
+                }
+            }
+            return result;
+        }, () -> sectionsModel.setRowCount(0), batch -> batch.forEach(sectionsModel::addRow), result -> {
+            if (!result.isSuccess()) {
+                JOptionPane.showMessageDialog(this, result.getMessage().orElse("Unable to load sections."));
+            }
+        });
+    }
+
+    private void loadStudents() {
+        loader.<OperationResult<List<String>>, Object[]>loadRows("students", rows -> {
+            var result = instructorService.listMySections(instructorId);
+            List<String> sectionIds = result.getPayload().orElse(List.of());
+            Map<String, Section> sections = erpRepository.findSections(sectionIds);
+            Map<String, Course> courses = erpRepository.findCourses(sections.values().stream()
+                    .map(Section::getCourseId)
+                    .toList());
+            for (int i = 0; i < sectionIds.size() && !rows.isCancelled(); i++) {
+                String sectionId = sectionIds.get(i);
+                Section section = sections.get(sectionId);
+                Course course = section == null ? null : courses.get(section.getCourseId());
+                if (course == null) {
+                    continue;
+                }
+                for (Enrollment enrollment : erpRepository.findEnrollmentsBySection(sectionId)) {
+                    erpRepository.findStudent(enrollment.getStudentId()).ifPresent(student -> rows.add(new Object[]{
+                            sectionId,
+                            course.getCode(),
+                            enrollment.getStudentId(),
+                            "Student " + enrollment.getStudentId(),
+                            student.getRollNumber(),
+                            enrollment.getEnrollmentId()
+                    }));
+                }
+                rows.progress(i + 1, sectionIds.size());
+            }
+            return result;
+        }, () -> studentsModel.setRowCount(0), batch -> batch.forEach(studentsModel::addRow), result -> {
+            if (!result.isSuccess()) {
+                JOptionPane.showMessageDialog(this, result.getMessage().orElse("Unable to load sections."));
+            }
+        });
     }
 
     private void loadClassStats() {
-        classStatsModel.setRowCount(0);
-        var result = instructorService.listMySections(instructorId);
-        if (!result.isSuccess()) {
-            JOptionPane.showMessageDialog(this, result.getMessage().orElse("Unable to load stats."));
-            return;
-        }
-        for (String sectionId : result.getPayload().orElse(List.of())) {
-            erpRepository.findSection(sectionId).ifPresent(section -> {
-                int enrolled = erpRepository.findEnrollmentsBySection(sectionId).size();
-                int capacity = section.getCapacity();
-                int seatsLeft = Math.max(0, capacity - enrolled);
-                double fill = capacity == 0 ? 0 : (double) enrolled / capacity;
-                double avg = calculateAverageFinal(sectionId);
-                String courseCode = erpRepository.findCourse(section.getCourseId())
-                        .map(Course::getCode)
-                        .orElse("Unknown");
-                classStatsModel.addRow(new Object[] {
-                        sectionId,
-                        courseCode,
-                        enrolled,
-                        capacity,
-                        seatsLeft,
-                        String.format("%.0f%%", fill * 100),
-                        avg < 0 ? "-" : String.format("%.1f", avg),
-                        section.getRegistrationDeadline()
-                });
-            });
-        }
+        loader.<OperationResult<List<String>>, Object[]>loadRows("classStats", rows -> {
+            var result = instructorService.listMySections(instructorId);
+            List<String> sectionIds = result.getPayload().orElse(List.of());
+            Map<String, Section> sections = erpRepository.findSections(sectionIds);
+            Map<String, Course> courses = erpRepository.findCourses(sections.values().stream()
+                    .map(Section::getCourseId)
+                    .toList());
+            for (int i = 0; i < sectionIds.size() && !rows.isCancelled(); i++) {
+                String sectionId = sectionIds.get(i);
+                Section section = sections.get(sectionId);
+                if (section != null) {
+                    int enrolled = erpRepository.findEnrollmentsBySection(sectionId).size();
+                    int capacity = section.getCapacity();
+                    int seatsLeft = Math.max(0, capacity - enrolled);
+                    double fill = capacity == 0 ? 0 : (double) enrolled / capacity;
+                    double avg = calculateAverageFinal(sectionId);
+                    Course course = courses.get(section.getCourseId());
+                    rows.add(new Object[] {
+                            sectionId,
+                            course == null ? "Unknown" : course.getCode(),
+                            enrolled,
+                            capacity,
+                            seatsLeft,
+                            String.format("%.0f%%", fill * 100),
+                            avg < 0 ? "-" : String.format("%.1f", avg),
+                            section.getRegistrationDeadline()
+                    });
+                }
+                rows.progress(i + 1, sectionIds.size());
+            }
+            return result;
+        }, () -> classStatsModel.setRowCount(0), batch -> batch.forEach(classStatsModel::addRow), result -> {
+            if (!result.isSuccess()) {
+                JOptionPane.showMessageDialog(this, result.getMessage().orElse("Unable to load stats."));
+            }
+        });
     }
 
     private void populateSectionOptions(DefaultComboBoxModel<SectionOption> model) {
@@ -1084,13 +1122,10 @@ public final class InstructorDashboardFrame extends JFrame {
     }
 
     private double calculateAverageFinal(String sectionId) {
-        List<Enrollment> enrollments = erpRepository.findEnrollmentsBySection(sectionId);
         double sum = 0;
         int counted = 0;
-        for (Enrollment enrollment : enrollments) {
-            var grade = erpRepository.findGradeBook(enrollment.getEnrollmentId())
-                    .flatMap(GradeBook::getFinalGrade)
-                    .orElse(null);
+        for (GradeBook gradeBook : erpRepository.findGradeBooksBySection(sectionId).values()) {
+            var grade = gradeBook.getFinalGrade().orElse(null);
             if (grade != null) {
                 sum += grade;
                 counted++;
@@ -1146,6 +1181,7 @@ public final class InstructorDashboardFrame extends JFrame {
             JOptionPane.YES_NO_OPTION
         );
         if (confirm == JOptionPane.YES_OPTION) {
+            loader.cancelAll();
             authService.logout();
             dispose();
             new LoginFrame().setVisible(true);
@@ -1154,8 +1190,8 @@ public final class InstructorDashboardFrame extends JFrame {
 
     private void refreshAll() {
         loadSections();
-        var maintenance = ServiceLocator.maintenanceService().isMaintenanceOn();
-        maintenanceLabel.setText(maintenance ? "Maintenance Mode ON — read-only operations." : "");
+        loader.load("maintenance", ServiceLocator.maintenanceService()::isMaintenanceOn, maintenance ->
+                maintenanceLabel.setText(maintenance ? "Maintenance Mode ON — read-only operations." : ""));
     }
 
     private record ThemePalette(
@@ -8,6 +8,7 @@ import edu.univ.erp.infra.ServiceLocator;
 import edu.univ.erp.service.AuthService;
 import edu.univ.erp.service.StudentService;
 import edu.univ.erp.ui.auth.LoginFrame;
+import edu.univ.erp.ui.common.BackgroundLoader;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -21,6 +22,7 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
@@ -39,6 +41,7 @@ import java.awt.RenderingHints;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -108,6 +111,8 @@ public final class StudentDashboardFrame extends JFrame {
     private final JTabbedPane tabs = new JTabbedPane();
 
     private final JLabel maintenanceLabel = new JLabel("", SwingConstants.CENTER);
+    private final JProgressBar loadingBar = new JProgressBar();
+    private final transient BackgroundLoader loader = new BackgroundLoader(this, loadingBar);
 
     public StudentDashboardFrame(String studentId) {
         super("Student Dashboard");
@@ -120,8 +125,13 @@ public final class StudentDashboardFrame extends JFrame {
 
         rebuildTabs();
 
+        JPanel statusBar = new JPanel(new BorderLayout());
+        statusBar.setOpaque(false);
+        statusBar.add(maintenanceLabel, BorderLayout.CENTER);
+        statusBar.add(loadingBar, BorderLayout.EAST);
+
         add(tabs, BorderLayout.CENTER);
-        add(maintenanceLabel, BorderLayout.SOUTH);
+        add(statusBar, BorderLayout.SOUTH);
 
         refreshAll();
     }
@@ -140,10 +150,13 @@ public final class StudentDashboardFrame extends JFrame {
         tabs.addChangeListener(e -> {
             int index = tabs.getSelectedIndex();
             if (index == 1) {
+                loader.cancelAllExcept("catalog", "maintenance", "transcript");
                 loadCatalog();
             } else if (index == 2) {
+                loader.cancelAllExcept("timetable", "maintenance", "transcript");
                 loadScheduleData();
             } else if (index == 3) {
+                loader.cancelAllExcept("grades", "maintenance", "transcript");
                 loadGrades();
             }
         });
@@ -910,39 +923,41 @@ public final class StudentDashboardFrame extends JFrame {
         loadCatalog();
         loadScheduleData();
         loadGrades();
-        var maintenance = ServiceLocator.maintenanceService().isMaintenanceOn();
-        maintenanceLabel.setText(maintenance ? "Maintenance Mode ON — read-only operations." : "");
+        loader.load("maintenance", ServiceLocator.maintenanceService()::isMaintenanceOn, maintenance ->
+                maintenanceLabel.setText(maintenance ? "Maintenance Mode ON — read-only operations." : ""));
     }
 
     private void loadCatalog() {
-        catalogModel.setRowCount(0);
-        var result = studentService.viewCatalog();
-        if (!result.isSuccess()) {
-            JOptionPane.showMessageDialog(this, result.getMessage().orElse("Catalog unavailable."));
-            return;
-        }
-        List<CourseCatalogRow> rows = result.getPayload().orElse(List.of());
-        for (CourseCatalogRow row : rows) {
-            catalogModel.addRow(new Object[] {
-                    row.sectionId(),
-                    row.courseCode(),
-                    row.courseTitle(),
-                    row.credits(),
-                    row.instructorName(),
-                    row.schedule(),
-                    row.capacity(),
-                    row.seatsTaken()
-            });
-        }
+        loader.<OperationResult<List<CourseCatalogRow>>, Object[]>loadRows("catalog", rows -> {
+            var result = studentService.viewCatalog();
+            for (CourseCatalogRow row : result.getPayload().orElse(List.of())) {
+                rows.add(new Object[] {
+                        row.sectionId(),
+                        row.courseCode(),
+                        row.courseTitle(),
+                        row.credits(),
+                        row.instructorName(),
+                        row.schedule(),
+                        row.capacity(),
+                        row.seatsTaken()
+                });
+            }
+            return result;
+        }, () -> catalogModel.setRowCount(0), batch -> batch.forEach(catalogModel::addRow), result -> {
+            if (!result.isSuccess()) {
+                JOptionPane.showMessageDialog(this, result.getMessage().orElse("Catalog unavailable."));
+            }
+        });
     }
 
     private void loadScheduleData() {
-        var result = studentService.viewTimetable(studentId);
-        List<TimetableEntry> entries = result.isSuccess()
-                ? result.getPayload().orElse(List.of())
-                : List.of();
-        timetableGrid.setEntries(entries);
-        populateRegistrations(entries);
+        loader.load("timetable", () -> studentService.viewTimetable(studentId), result -> {
+            List<TimetableEntry> entries = result.isSuccess()
+                    ? result.getPayload().orElse(List.of())
+                    : List.of();
+            timetableGrid.setEntries(entries);
+            populateRegistrations(entries);
+        });
     }
 
     private void populateRegistrations(List<TimetableEntry> entries) {
@@ -959,30 +974,27 @@ public final class StudentDashboardFrame extends JFrame {
     }
 
     private void loadGrades() {
-        var result = studentService.viewGrades(studentId);
-        if (!result.isSuccess()) {
-            gradeDeck.setGrades(List.of());
-            return;
-        }
-        gradeDeck.setGrades(result.getPayload().orElse(List.of()));
+        loader.load("grades", () -> studentService.viewGrades(studentId), result ->
+                gradeDeck.setGrades(result.isSuccess() ? result.getPayload().orElse(List.of()) : List.of()));
     }
 
     private void downloadTranscript() {
-        var result = studentService.downloadTranscriptCsv(studentId);
-        if (!result.isSuccess()) {
-            JOptionPane.showMessageDialog(this, result.getMessage().orElse("Unable to export transcript."));
-            return;
-        }
         JFileChooser chooser = new JFileChooser();
         chooser.setSelectedFile(new File("transcript.csv"));
-        if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try (FileOutputStream fos = new FileOutputStream(chooser.getSelectedFile())) {
-                fos.write(result.getPayload().orElse(new byte[0]));
-                JOptionPane.showMessageDialog(this, "Transcript saved.");
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        // Rows go straight to the file as they are produced.
+        loader.load("transcript", () -> {
+            try (OutputStream out = new FileOutputStream(file)) {
+                return studentService.writeTranscriptCsv(studentId, out);
             } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Failed to save file: " + ex.getMessage());
+                return OperationResult.<Integer>failure("Failed to save file: " + ex.getMessage());
             }
-        }
+        }, result -> JOptionPane.showMessageDialog(this, result.isSuccess()
+                ? "Transcript saved."
+                : result.getMessage().orElse("Unable to export transcript.")));
     }
 
     private void showChangePasswordDialog() {
@@ -1032,6 +1044,7 @@ public final class StudentDashboardFrame extends JFrame {
             JOptionPane.YES_NO_OPTION
         );
         if (confirm == JOptionPane.YES_OPTION) {
+            loader.cancelAll();
             authService.logout();
             dispose();
             new LoginFrame().setVisible(true);
@@ -0,0 +1,36 @@
+package edu.univ.erp.auth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    @AfterEach
+    void restoreCost() {
+        PasswordHasher.setCost(PasswordHasher.DEFAULT_COST);
+    }
+
+    @Test
+    void shouldNeedRehashOnlyWhenCostDiffers() {
+        PasswordHasher.setCost(4);
+        String hash = PasswordHasher.hash("secret");
+
+        assertEquals(4, PasswordHasher.costOf(hash));
+        assertFalse(PasswordHasher.needsRehash(hash));
+
+        PasswordHasher.setCost(5);
+        assertTrue(PasswordHasher.needsRehash(hash));
+        assertTrue(PasswordHasher.verify("secret", hash));
+    }
+
+    @Test
+    void shouldNeedRehashWhenCostCannotBeRead() {
+        assertTrue(PasswordHasher.needsRehash(null));
+        assertTrue(PasswordHasher.needsRehash("plain"));
+        assertTrue(PasswordHasher.needsRehash("$2a$x4$abc"));
+    }
+}
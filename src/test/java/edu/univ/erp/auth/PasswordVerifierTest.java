@@ -0,0 +1,74 @@
+package edu.univ.erp.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordVerifierTest {
+
+    @Test
+    void shouldRejectImmediatelyWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (PasswordVerifier verifier = new PasswordVerifier(1, 1, VerifiedCredentialCache.disabled(), (raw, hash) -> {
+            started.countDown();
+            await(release);
+            return raw.equals(hash);
+        })) {
+            CompletableFuture<Boolean> running = verifier.verify("a", "a");
+            started.await();
+            CompletableFuture<Boolean> queued = verifier.verify("b", "c");
+            CompletableFuture<Boolean> refused = verifier.verify("d", "d");
+
+            CompletionException error = assertThrows(CompletionException.class, refused::join);
+            assertTrue(error.getCause() instanceof RejectedExecutionException);
+
+            release.countDown();
+            assertTrue(running.join());
+            assertFalse(queued.join());
+
+            HashingStats stats = verifier.stats();
+            assertEquals(2, stats.submitted());
+            assertEquals(1, stats.rejected());
+            assertEquals(2, stats.completed());
+            assertTrue(stats.maxQueueWaitNanos() > 0);
+        }
+    }
+
+    @Test
+    void shouldAnswerRepeatVerificationFromCacheWithoutHashing() {
+        AtomicInteger checks = new AtomicInteger();
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(16, Duration.ofMinutes(5));
+        try (PasswordVerifier verifier = new PasswordVerifier(1, 4, cache, (raw, hash) -> {
+            checks.incrementAndGet();
+            return raw.equals(hash);
+        })) {
+            assertTrue(verifier.verify("secret", "secret").join());
+            assertTrue(verifier.verify("secret", "secret").join());
+            assertFalse(verifier.verify("wrong", "secret").join());
+            assertFalse(verifier.verify("wrong", "secret").join());
+
+            assertEquals(3, checks.get());
+            assertEquals(1, verifier.stats().cacheHits());
+            assertEquals(1, cache.size());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package edu.univ.erp.data.auth;
+
+import edu.univ.erp.data.memory.InMemoryAuthRepository;
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.domain.user.Role;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LoginBatchingAuthRepositoryTest {
+
+    @Test
+    void shouldShowPendingLoginsAndWriteOnlyTheLatestOnFlush() {
+        InMemoryAuthRepository delegate = new InMemoryAuthRepository(InMemoryDataStore.empty());
+        delegate.save(new AuthRecord("user-1", "alice", Role.STUDENT, "hash", true, null, 0, null));
+        LocalDateTime first = LocalDateTime.of(2025, 9, 1, 9, 0);
+        LocalDateTime second = first.plusMinutes(5);
+
+        try (LoginBatchingAuthRepository repository = new LoginBatchingAuthRepository(delegate, Duration.ofHours(1))) {
+            repository.recordLogin("user-1", second);
+            repository.recordLogin("user-1", first);
+
+            assertNull(delegate.findByUserId("user-1").orElseThrow().lastLogin());
+            assertEquals(second, repository.findByUsername("ALICE").orElseThrow().lastLogin());
+
+            repository.flush();
+
+            assertEquals(second, delegate.findByUserId("user-1").orElseThrow().lastLogin());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package edu.univ.erp.data.cache;
+
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.course.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingErpRepositoryTest {
+
+    private InMemoryDataStore store;
+    private CachingErpRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        store = InMemoryDataStore.seed();
+        repository = new CachingErpRepository(new InMemoryErpRepository(store), 1, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        repository.findCourse("course-1");
+        repository.findCourse("course-1");
+
+        CacheStats stats = courseStats();
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.hits());
+    }
+
+    @Test
+    void shouldReturnSavedValueAfterWrite() {
+        repository.findCourse("course-1");
+        repository.saveCourse(new Course("course-1", "CS101", "Programming I", 3));
+
+        Course course = repository.findCourse("course-1").orElseThrow();
+        assertEquals("Programming I", course.getTitle());
+        assertEquals("Programming I", store.courses().get("course-1").getTitle());
+    }
+
+    @Test
+    void shouldDropEntryAfterDelete() {
+        repository.findCourse("course-2");
+        repository.deleteCourse("course-2");
+
+        assertTrue(repository.findCourse("course-2").isEmpty());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        repository.findCourse("course-1");
+        repository.findCourse("course-2");
+        repository.findCourse("course-1");
+
+        CacheStats stats = courseStats();
+        assertEquals(3, stats.misses());
+        assertEquals(2, stats.evictions());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void shouldLoadOnlyMissingIdsInBatchLookup() {
+        repository.findCourse("course-1");
+
+        Map<String, Course> found = repository.findCourses(List.of("course-1", "course-2", "missing"));
+
+        assertEquals(2, found.size());
+        CacheStats stats = courseStats();
+        assertEquals(1, stats.hits());
+        assertEquals(3, stats.misses());
+    }
+
+    private CacheStats courseStats() {
+        return repository.stats().stream()
+                .filter(stats -> stats.name().equals("courses"))
+                .findFirst()
+                .orElseThrow();
+    }
+}
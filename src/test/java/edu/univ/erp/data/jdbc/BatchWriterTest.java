@@ -0,0 +1,85 @@
+package edu.univ.erp.data.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchWriterTest {
+
+    @Test
+    void shouldKeepFullBatchesWhenParentAndChildRowsInterleave() {
+        List<String> executed = new ArrayList<>();
+        RecordingStatement books = new RecordingStatement("books", executed);
+        RecordingStatement components = new RecordingStatement("components", executed);
+        BatchWriter<Integer> bookWriter = new BatchWriter<>(books.statement(), (ps, id) -> ps.setInt(1, id));
+        BatchWriter<Integer> componentWriter = new BatchWriter<>(components.statement(), (ps, id) -> ps.setInt(1, id),
+                List.of(bookWriter));
+
+        for (int id = 0; id < 2_500; id++) {
+            bookWriter.accept(id);
+            componentWriter.accept(id);
+        }
+        componentWriter.flush();
+        bookWriter.flush();
+
+        // 2,500 rows each in batches of 1,000: three executions per table, not one per row.
+        assertEquals(List.of("books 1000", "components 1000", "books 1000", "components 1000",
+                "books 500", "components 500"), executed);
+        assertEquals(2_500, bookWriter.written());
+        assertEquals(2_500, componentWriter.written());
+    }
+
+    @Test
+    void shouldWritePendingParentsBeforeChildBatch() {
+        List<String> executed = new ArrayList<>();
+        RecordingStatement courses = new RecordingStatement("courses", executed);
+        RecordingStatement sections = new RecordingStatement("sections", executed);
+        BatchWriter<Integer> courseWriter = new BatchWriter<>(courses.statement(), (ps, id) -> ps.setInt(1, id));
+        BatchWriter<Integer> sectionWriter = new BatchWriter<>(sections.statement(), (ps, id) -> ps.setInt(1, id),
+                List.of(courseWriter));
+
+        courseWriter.accept(1);
+        sectionWriter.accept(1);
+        courseWriter.accept(2);
+        sectionWriter.accept(2);
+        sectionWriter.flush();
+
+        assertEquals(List.of("courses 2", "sections 2"), executed);
+    }
+
+    /** A statement that only counts rows added to its batch and logs each execution. */
+    private static final class RecordingStatement {
+
+        private final String name;
+        private final List<String> executed;
+        private int batched;
+
+        RecordingStatement(String name, List<String> executed) {
+            this.name = name;
+            this.executed = executed;
+        }
+
+        PreparedStatement statement() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "addBatch" -> {
+                            batched++;
+                            yield null;
+                        }
+                        case "executeBatch" -> {
+                            executed.add(name + " " + batched);
+                            int[] counts = new int[batched];
+                            batched = 0;
+                            yield counts;
+                        }
+                        default -> null;
+                    });
+        }
+    }
+}
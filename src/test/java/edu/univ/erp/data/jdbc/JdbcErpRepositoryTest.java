@@ -0,0 +1,69 @@
+package edu.univ.erp.data.jdbc;
+
+import edu.univ.erp.data.erp.SeatReservation;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.enrollment.EnrollmentStatus;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JdbcErpRepositoryTest {
+
+    private static final Enrollment ENROLLMENT = new Enrollment("enr-1", "stu-1", "sec-1", EnrollmentStatus.ACTIVE);
+
+    @Test
+    void shouldReportDuplicateKeyAsAlreadyEnrolled() {
+        SQLIntegrityConstraintViolationException duplicate =
+                new SQLIntegrityConstraintViolationException("Duplicate entry", "23000", 1062);
+        JdbcErpRepository repository = new JdbcErpRepository(dataSourceFailingInsertWith(duplicate));
+
+        assertEquals(SeatReservation.ALREADY_ENROLLED, repository.reserveSeat(ENROLLMENT));
+    }
+
+    @Test
+    void shouldRethrowOtherIntegrityViolations() {
+        SQLIntegrityConstraintViolationException missingStudent =
+                new SQLIntegrityConstraintViolationException("Cannot add or update a child row", "23000", 1452);
+        JdbcErpRepository repository = new JdbcErpRepository(dataSourceFailingInsertWith(missingStudent));
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> repository.reserveSeat(ENROLLMENT));
+        assertSame(missingStudent, thrown.getCause());
+    }
+
+    /** A data source whose seat claim always succeeds and whose enrollment insert throws {@code failure}. */
+    private static DataSource dataSourceFailingInsertWith(SQLIntegrityConstraintViolationException failure) {
+        Connection connection = proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getAutoCommit" -> true;
+            case "prepareStatement" -> statement((String) args[0], failure);
+            default -> null;
+        });
+        return proxy(DataSource.class, (proxy, method, args) ->
+                method.getName().equals("getConnection") ? connection : null);
+    }
+
+    private static PreparedStatement statement(String sql, SQLIntegrityConstraintViolationException failure) {
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            if (!method.getName().equals("executeUpdate")) {
+                return null;
+            }
+            if (sql.contains("INSERT INTO enrollments")) {
+                throw failure;
+            }
+            return 1;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+}
@@ -0,0 +1,37 @@
+package edu.univ.erp.data.memory;
+
+import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.domain.user.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryAuthRepositoryTest {
+
+    private InMemoryAuthRepository authRepository;
+
+    @BeforeEach
+    void setUp() {
+        authRepository = new InMemoryAuthRepository(InMemoryDataStore.empty());
+        authRepository.save(new AuthRecord("user-1", "Alice", Role.STUDENT, "hash", true, null, 0, null));
+        authRepository.save(new AuthRecord("user-2", "bob", Role.INSTRUCTOR, "hash", true, null, 0, null));
+    }
+
+    @Test
+    void shouldFindUsernameIgnoringCase() {
+        assertEquals("user-1", authRepository.findByUsername("alice").orElseThrow().userId());
+        assertEquals("user-1", authRepository.findByUsername("ALICE").orElseThrow().userId());
+        assertEquals("user-2", authRepository.findByUsername("Bob").orElseThrow().userId());
+        assertTrue(authRepository.findByUsername("carol").isEmpty());
+    }
+
+    @Test
+    void shouldFollowRenamedUser() {
+        authRepository.save(new AuthRecord("user-1", "Alicia", Role.STUDENT, "hash", true, null, 0, null));
+
+        assertTrue(authRepository.findByUsername("alice").isEmpty());
+        assertEquals("user-1", authRepository.findByUsername("ALICIA").orElseThrow().userId());
+    }
+}
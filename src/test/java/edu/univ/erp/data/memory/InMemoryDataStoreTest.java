@@ -0,0 +1,138 @@
+package edu.univ.erp.data.memory;
+
+import edu.univ.erp.data.erp.SeatReservation;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.enrollment.EnrollmentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryDataStoreTest {
+
+    private InMemoryDataStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = InMemoryDataStore.empty();
+        store.putEnrollment(enrollment("enr-1", "stu-1", "sec-1", EnrollmentStatus.ACTIVE));
+        store.putEnrollment(enrollment("enr-2", "stu-1", "sec-2", EnrollmentStatus.ACTIVE));
+        store.putEnrollment(enrollment("enr-3", "stu-2", "sec-1", EnrollmentStatus.ACTIVE));
+    }
+
+    @Test
+    void shouldLookUpEnrollmentsByStudentSectionAndPair() {
+        assertEquals(List.of("enr-1", "enr-2"), ids(store.enrollmentsForStudent("stu-1")));
+        assertEquals(List.of("enr-1", "enr-3"), ids(store.enrollmentsForSection("sec-1")));
+        assertEquals("enr-3", store.findEnrollment("stu-2", "sec-1").orElseThrow().getEnrollmentId());
+        assertTrue(store.findEnrollment("stu-2", "sec-2").isEmpty());
+        assertEquals(2, store.enrollmentCountForSection("sec-1"));
+    }
+
+    @Test
+    void shouldKeepIndexesInStepWithUpdatesAndRemovals() {
+        store.putEnrollment(enrollment("enr-1", "stu-1", "sec-1", EnrollmentStatus.DROPPED));
+        store.removeEnrollment("enr-3");
+
+        assertEquals(EnrollmentStatus.DROPPED, store.findEnrollment("stu-1", "sec-1").orElseThrow().getStatus());
+        assertEquals(List.of("enr-1"), ids(store.enrollmentsForSection("sec-1")));
+        assertTrue(store.findEnrollment("stu-2", "sec-1").isEmpty());
+        assertTrue(store.enrollmentsForStudent("stu-2").isEmpty());
+        assertEquals(1, store.enrollmentCountForSection("sec-1"));
+    }
+
+    @Test
+    void shouldRebuildIndexesWhenDeserialized() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(store);
+        }
+        InMemoryDataStore restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (InMemoryDataStore) in.readObject();
+        }
+
+        assertEquals(List.of("enr-1", "enr-2"), ids(restored.enrollmentsForStudent("stu-1")));
+        assertEquals(2, restored.enrollmentCountForSection("sec-1"));
+        assertEquals("enr-2", restored.findEnrollment("stu-1", "sec-2").orElseThrow().getEnrollmentId());
+    }
+
+    @Test
+    void shouldNeverSeeEnrollmentsAndIndexesOutOfStep() throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; !stop.get(); i++) {
+                store.putEnrollment(enrollment("enr-x" + i, "stu-x" + i, "sec-1", EnrollmentStatus.ACTIVE));
+                store.removeEnrollment("enr-x" + i);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 200_000; i++) {
+                int[] counts = store.readConsistent(() -> new int[] {
+                        store.enrollments().size(),
+                        store.enrollmentCountForSection("sec-1") + store.enrollmentCountForSection("sec-2")});
+                assertEquals(counts[0], counts[1]);
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    void shouldSeedSeatCountersInStepWithConcurrentWrites() throws Exception {
+        AtomicReference<String> churnSection = new AtomicReference<>("sec-idle");
+        AtomicLong cycles = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            while (!stop.get()) {
+                String sectionId = churnSection.get();
+                store.putEnrollment(enrollment("enr-x-" + sectionId, "stu-x", sectionId, EnrollmentStatus.ACTIVE));
+                store.removeEnrollment("enr-x-" + sectionId);
+                cycles.incrementAndGet();
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 5_000; i++) {
+                String sectionId = "sec-race-" + i;
+                churnSection.set(sectionId);
+                // The first reservation seeds the section's counter while the writer churns it.
+                assertEquals(SeatReservation.RESERVED,
+                        store.reserveSeat(enrollment("enr-a" + i, "stu-a", sectionId, EnrollmentStatus.ACTIVE), 2));
+                churnSection.set("sec-idle");
+                long seen = cycles.get();
+                while (cycles.get() < seen + 2) {
+                    Thread.yield();
+                }
+                assertEquals(SeatReservation.RESERVED,
+                        store.reserveSeat(enrollment("enr-b" + i, "stu-b", sectionId, EnrollmentStatus.ACTIVE), 2));
+                assertEquals(SeatReservation.SECTION_FULL,
+                        store.reserveSeat(enrollment("enr-c" + i, "stu-c", sectionId, EnrollmentStatus.ACTIVE), 2));
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    private static Enrollment enrollment(String enrollmentId, String studentId, String sectionId, EnrollmentStatus status) {
+        return new Enrollment(enrollmentId, studentId, sectionId, status);
+    }
+
+    private static List<String> ids(List<Enrollment> enrollments) {
+        return enrollments.stream().map(Enrollment::getEnrollmentId).sorted().toList();
+    }
+}
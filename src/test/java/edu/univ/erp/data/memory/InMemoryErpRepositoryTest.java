@@ -0,0 +1,151 @@
+package edu.univ.erp.data.memory;
+
+import edu.univ.erp.data.cache.CachingErpRepository;
+import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.erp.SeatReservation;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.enrollment.EnrollmentStatus;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryErpRepositoryTest {
+
+    private InMemoryDataStore store;
+    private InMemoryErpRepository erpRepository;
+
+    @BeforeEach
+    void setUp() {
+        store = InMemoryDataStore.empty();
+        erpRepository = new InMemoryErpRepository(store);
+        erpRepository.saveCourse(new Course("course-1", "CS101", "Intro", 4));
+        erpRepository.saveSection(section("section-1", 2));
+    }
+
+    @Test
+    void shouldListCatalogWhileAnotherConsistentReadIsRunning() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> longRead = CompletableFuture.runAsync(() -> store.readConsistent(() -> {
+            inside.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+        // Would block until release if catalog reads excluded each other.
+        var rows = CompletableFuture.supplyAsync(erpRepository::listCatalog).get(2, TimeUnit.SECONDS);
+
+        release.countDown();
+        longRead.get(5, TimeUnit.SECONDS);
+        assertEquals(1, rows.size());
+    }
+
+    @Test
+    void shouldMoveSeatWhenEnrollmentChangesSection() {
+        erpRepository.saveSection(section("section-2", 1));
+        erpRepository.saveEnrollment(enrollment("enr-1", "stu-1", "section-1"));
+        erpRepository.saveEnrollment(enrollment("enr-2", "stu-2", "section-1"));
+        assertEquals(SeatReservation.SECTION_FULL, erpRepository.reserveSeat(enrollment("enr-3", "stu-3", "section-1")));
+
+        erpRepository.saveEnrollment(enrollment("enr-1", "stu-1", "section-2"));
+
+        assertEquals(SeatReservation.RESERVED, erpRepository.reserveSeat(enrollment("enr-3", "stu-3", "section-1")));
+        assertEquals(SeatReservation.SECTION_FULL, erpRepository.reserveSeat(enrollment("enr-4", "stu-4", "section-2")));
+    }
+
+    @Test
+    void shouldRejectMoveIntoFullSection() {
+        erpRepository.saveSection(section("section-2", 1));
+        erpRepository.saveEnrollment(enrollment("enr-1", "stu-1", "section-1"));
+        erpRepository.saveEnrollment(enrollment("enr-2", "stu-2", "section-2"));
+
+        assertThrows(IllegalStateException.class,
+                () -> erpRepository.saveEnrollment(enrollment("enr-1", "stu-1", "section-2")));
+
+        assertEquals("section-1", erpRepository.findEnrollment("stu-1", "section-1").orElseThrow().getSectionId());
+        assertEquals(SeatReservation.RESERVED, erpRepository.reserveSeat(enrollment("enr-3", "stu-3", "section-1")));
+        assertEquals(SeatReservation.SECTION_FULL, erpRepository.reserveSeat(enrollment("enr-4", "stu-4", "section-1")));
+    }
+
+    @Test
+    void shouldDropEnrollmentsAndGradeBooksWithReplacedCatalog() {
+        assertCatalogRestoreCascades(erpRepository, store);
+        InMemoryDataStore cachedStore = InMemoryDataStore.empty();
+        InMemoryErpRepository cachedDelegate = new InMemoryErpRepository(cachedStore);
+        cachedDelegate.saveCourse(new Course("course-1", "CS101", "Intro", 4));
+        cachedDelegate.saveSection(section("section-1", 2));
+        assertCatalogRestoreCascades(new CachingErpRepository(cachedDelegate, 100, Duration.ofMinutes(5)), cachedStore);
+    }
+
+    @Test
+    void shouldFindOnlyTheSectionsGradeBooksWithComponents() {
+        erpRepository.saveSection(section("section-2", 2));
+        erpRepository.saveEnrollment(enrollment("enr-1", "stu-1", "section-1"));
+        erpRepository.saveEnrollment(enrollment("enr-2", "stu-2", "section-1"));
+        erpRepository.saveEnrollment(enrollment("enr-3", "stu-1", "section-2"));
+        List<GradeComponent> components = List.of(new GradeComponent("Quiz", 70, 0.4), new GradeComponent("Final", 85, 0.6));
+        erpRepository.saveGradeBook(new GradeBook("enr-1", components, 79.0));
+        erpRepository.saveGradeBook(new GradeBook("enr-3", List.of(new GradeComponent("Final", 50, 1.0)), 50.0));
+
+        var gradeBooks = erpRepository.findGradeBooksBySection("section-1");
+
+        // enr-2 has no grade book yet and enr-3 is in another section.
+        assertEquals(Set.of("enr-1"), gradeBooks.keySet());
+        assertEquals(List.of("Quiz", "Final"),
+                gradeBooks.get("enr-1").getComponents().stream().map(GradeComponent::getName).toList());
+        assertEquals(79.0, gradeBooks.get("enr-1").getFinalGrade().orElseThrow());
+        assertTrue(erpRepository.findGradeBooksBySection("section-3").isEmpty());
+    }
+
+    private static void assertCatalogRestoreCascades(ErpRepository repository, InMemoryDataStore backing) {
+        repository.saveEnrollment(enrollment("enr-1", "stu-1", "section-1"));
+        repository.saveEnrollment(enrollment("enr-2", "stu-2", "section-1"));
+        repository.saveGradeBook(new GradeBook("enr-1", List.of(new GradeComponent("Final", 90, 1.0)), null));
+
+        repository.replaceCatalog((courses, sections) -> {
+            courses.accept(new Course("course-1", "CS101", "Intro", 4));
+            sections.accept(section("section-1", 1));
+        });
+
+        assertTrue(backing.enrollments().isEmpty());
+        assertTrue(backing.gradeBooks().isEmpty());
+        assertTrue(repository.findEnrollmentsBySection("section-1").isEmpty());
+        assertTrue(repository.findGradeBook("enr-1").isEmpty());
+        assertEquals(0, repository.listCatalog().get(0).seatsTaken());
+        // The seat count starts again from the restored section's own enrollments.
+        assertEquals(SeatReservation.RESERVED, repository.reserveSeat(enrollment("enr-3", "stu-3", "section-1")));
+        assertEquals(SeatReservation.SECTION_FULL, repository.reserveSeat(enrollment("enr-4", "stu-4", "section-1")));
+    }
+
+    static Enrollment enrollment(String enrollmentId, String studentId, String sectionId) {
+        return new Enrollment(enrollmentId, studentId, sectionId, EnrollmentStatus.ACTIVE);
+    }
+
+    static Section section(String sectionId, int capacity) {
+        return new Section(sectionId, "course-1", "inst-1", DayOfWeek.MONDAY,
+                LocalTime.of(9, 0), LocalTime.of(10, 0), "R1", capacity, 1, 2025,
+                LocalDate.of(2030, 1, 1), null, null);
+    }
+}
@@ -0,0 +1,124 @@
+package edu.univ.erp.data.memory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryJournalTest {
+
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("erp-journal", ".log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void shouldReplayRecordsInOrderAfterReopen() throws IOException {
+        try (InMemoryJournal journal = InMemoryJournal.open(path, payload -> { })) {
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+            journal.append(bytes("third"));
+            assertEquals(3, journal.recordCount());
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (InMemoryJournal journal = InMemoryJournal.open(path, payload -> replayed.add(text(payload)))) {
+            assertEquals(List.of("first", "second", "third"), replayed);
+            assertEquals(3, journal.recordCount());
+        }
+    }
+
+    @Test
+    void shouldCutOffTornTail() throws IOException {
+        writeTwoRecords();
+        long intact = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // A header promising more payload than was written, as a crash mid-append leaves.
+            channel.write(ByteBuffer.allocate(10).putInt(100).putInt(0).flip());
+        }
+
+        List<String> replayed = new ArrayList<>();
+        InMemoryJournal.open(path, payload -> replayed.add(text(payload))).close();
+
+        assertEquals(List.of("first", "second"), replayed);
+        assertEquals(intact, Files.size(path));
+    }
+
+    @Test
+    void shouldStopAtCorruptRecordAndTruncateFromThere() throws IOException {
+        writeTwoRecords();
+        long recordBytes = Integer.BYTES * 2 + "first".length();
+        byte[] contents = Files.readAllBytes(path);
+        contents[contents.length - 1] ^= 0x01;
+        Files.write(path, contents);
+
+        List<String> replayed = new ArrayList<>();
+        try (InMemoryJournal journal = InMemoryJournal.open(path, payload -> replayed.add(text(payload)))) {
+            assertEquals(1, journal.recordCount());
+            // Appends after the cut land right behind the last intact record.
+            journal.append(bytes("third"));
+        }
+
+        assertEquals(List.of("first"), replayed);
+        List<String> reopened = new ArrayList<>();
+        InMemoryJournal.open(path, payload -> reopened.add(text(payload))).close();
+        assertEquals(List.of("first", "third"), reopened);
+        // "third" is as long as "first", so two records of the same size remain.
+        assertEquals(recordBytes * 2, Files.size(path));
+    }
+
+    @Test
+    void shouldEmptyJournalOnCheckpoint() throws IOException {
+        List<String> snapshotted = new ArrayList<>();
+        try (InMemoryJournal journal = InMemoryJournal.open(path, payload -> { })) {
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+
+            journal.checkpoint(() -> snapshotted.add("snapshot"));
+
+            assertEquals(List.of("snapshot"), snapshotted);
+            assertEquals(0, journal.recordCount());
+            assertEquals(0, Files.size(path));
+        }
+
+        List<byte[]> replayed = new ArrayList<>();
+        try (InMemoryJournal journal = InMemoryJournal.open(path, replayed::add)) {
+            assertTrue(replayed.isEmpty());
+            assertEquals(0, journal.recordCount());
+        }
+    }
+
+    private void writeTwoRecords() throws IOException {
+        try (InMemoryJournal journal = InMemoryJournal.open(path, payload -> { })) {
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] payload) {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package edu.univ.erp.data.memory;
+
+import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.data.auth.UserFilter;
+import edu.univ.erp.data.erp.CourseFilter;
+import edu.univ.erp.data.erp.SectionFilter;
+import edu.univ.erp.data.page.Page;
+import edu.univ.erp.data.page.PageRequest;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.instructor.Instructor;
+import edu.univ.erp.domain.user.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryPagingTest {
+
+    private InMemoryDataStore store;
+    private InMemoryErpRepository erpRepository;
+    private InMemoryAuthRepository authRepository;
+
+    @BeforeEach
+    void setUp() {
+        store = InMemoryDataStore.empty();
+        erpRepository = new InMemoryErpRepository(store);
+        authRepository = new InMemoryAuthRepository(store);
+
+        store.putInstructor(new Instructor("inst-cs", "Computer Science", "Professor"));
+        store.putInstructor(new Instructor("inst-ma", "Mathematics", "Professor"));
+        for (int i = 0; i < 25; i++) {
+            String subject = i % 2 == 0 ? "CS" : "MA";
+            String courseId = "course-" + i;
+            store.putCourse(new Course(courseId, "%s%03d".formatted(subject, i), "Course " + i, 4));
+            store.putSection(new Section("sec-%02d".formatted(i), courseId, "inst-" + subject.toLowerCase(),
+                    DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), "R" + i, 30,
+                    i % 3 == 0 ? 1 : 2, 2025, LocalDate.of(2025, 8, 1), null, null));
+            store.putAuthRecord(new AuthRecord("user-" + i, "user%02d".formatted(i),
+                    i % 5 == 0 ? Role.INSTRUCTOR : Role.STUDENT, "hash", true, null, 0, null));
+        }
+    }
+
+    @Test
+    void shouldWalkEveryCourseInCodeOrderWithoutRepeats() {
+        List<String> codes = new ArrayList<>();
+        PageRequest request = PageRequest.first(10);
+        while (true) {
+            Page<Course> page = erpRepository.listCourses(CourseFilter.ALL, request);
+            page.items().forEach(course -> codes.add(course.getCode()));
+            if (!page.hasMore()) {
+                break;
+            }
+            request = request.next(page);
+        }
+
+        assertEquals(25, codes.size());
+        assertEquals(codes.stream().sorted().toList(), codes);
+    }
+
+    @Test
+    void shouldFilterCoursesByCodePrefixIgnoringCase() {
+        Page<Course> page = erpRepository.listCourses(new CourseFilter("cs"), PageRequest.first(100));
+
+        assertEquals(13, page.items().size());
+        assertTrue(page.items().stream().allMatch(course -> course.getCode().startsWith("CS")));
+        assertFalse(page.hasMore());
+        assertNull(page.nextKey());
+    }
+
+    @Test
+    void shouldFilterSectionsBySemesterAndDepartment() {
+        SectionFilter filter = new SectionFilter(1, 2025, "mathematics", null);
+        Page<Section> page = erpRepository.listSections(filter, PageRequest.first(100));
+
+        // Odd indexes are maths; of those, multiples of three run in semester 1.
+        assertEquals(List.of("sec-03", "sec-09", "sec-15", "sec-21"),
+                page.items().stream().map(Section::getSectionId).toList());
+    }
+
+    @Test
+    void shouldPageUsersByRole() {
+        Page<AuthRecord> first = authRepository.findAll(new UserFilter(Role.INSTRUCTOR, null), PageRequest.first(3));
+        Page<AuthRecord> second = authRepository.findAll(new UserFilter(Role.INSTRUCTOR, null),
+                PageRequest.first(3).next(first));
+
+        assertEquals(List.of("user00", "user05", "user10"), first.items().stream().map(AuthRecord::username).toList());
+        assertEquals(List.of("user15", "user20"), second.items().stream().map(AuthRecord::username).toList());
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    void shouldPageInDescendingKeyOrder() {
+        Page<Course> first = erpRepository.listCourses(new CourseFilter("MA"), PageRequest.first(5, true));
+        Page<Course> second = erpRepository.listCourses(new CourseFilter("MA"), PageRequest.first(5, true).next(first));
+
+        assertEquals(List.of("MA023", "MA021", "MA019", "MA017", "MA015"),
+                first.items().stream().map(Course::getCode).toList());
+        assertEquals("MA013", second.items().get(0).getCode());
+        assertTrue(second.hasMore());
+    }
+}
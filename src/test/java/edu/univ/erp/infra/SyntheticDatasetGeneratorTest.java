@@ -0,0 +1,46 @@
+package edu.univ.erp.infra;
+
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.domain.course.Section;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticDatasetGeneratorTest {
+
+    private static final SyntheticDatasetGenerator.Spec SPEC =
+            new SyntheticDatasetGenerator.Spec(500, 10, 20, 50, 5_000, 7L);
+
+    @Test
+    void shouldGenerateRequestedVolumesWithinCapacity() {
+        InMemoryDataStore store = generate();
+
+        assertEquals(500, store.students().size());
+        assertEquals(50, store.sections().size());
+        assertEquals(5_000, store.enrollments().size());
+        assertEquals(5_000, store.gradeBooks().size());
+        for (Section section : store.sections().values()) {
+            assertTrue(store.enrollmentCountForSection(section.getSectionId()) <= section.getCapacity(),
+                    "Section over capacity: " + section.getSectionId());
+        }
+    }
+
+    @Test
+    void shouldProduceSameDatasetForSameSeed() {
+        InMemoryDataStore first = generate();
+        InMemoryDataStore second = generate();
+
+        assertEquals(first.enrollments().keySet(), second.enrollments().keySet());
+        first.enrollments().forEach((id, enrollment) ->
+                assertEquals(enrollment.getSectionId(), second.enrollments().get(id).getSectionId()));
+        first.gradeBooks().forEach((id, gradeBook) ->
+                assertEquals(gradeBook.getFinalGrade(), second.gradeBooks().get(id).getFinalGrade()));
+    }
+
+    private static InMemoryDataStore generate() {
+        InMemoryDataStore store = InMemoryDataStore.empty();
+        SyntheticDatasetGenerator.generate(SPEC, new InMemoryDatasetSink(store));
+        return store;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.univ.erp.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldReportZeroWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentileMicros(50));
+        assertEquals(0, histogram.percentileMicros(99));
+    }
+
+    @Test
+    void shouldReportPercentilesWithinOneBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.recordNanos(micros * 1_000);
+        }
+
+        assertEquals(10_000, histogram.count());
+        assertEquals(5_000.5, histogram.meanMicros(), 1e-9);
+        for (double percentile : new double[] {1, 50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(10_000 * percentile / 100.0);
+            long reported = histogram.percentileMicros(percentile);
+            // Buckets report their upper bound, so a percentile can read high by one bucket width.
+            assertTrue(reported >= exact - 1 && reported <= Math.ceil(exact * 1.02) + 1,
+                    "p" + percentile + " = " + reported + ", exact " + exact);
+        }
+    }
+
+    @Test
+    void shouldClampPercentilesToTheLargestRecordedValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(1_234_000);
+        histogram.recordNanos(1_234_000);
+
+        assertEquals(1_234, histogram.maxMicros());
+        assertEquals(1_234, histogram.percentileMicros(50));
+        assertEquals(1_234, histogram.percentileMicros(100));
+    }
+
+    @Test
+    void shouldCountSubMicrosecondSamplesAsOneMicrosecond() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(300);
+
+        assertEquals(1, histogram.maxMicros());
+        assertEquals(1, histogram.percentileMicros(50));
+    }
+}
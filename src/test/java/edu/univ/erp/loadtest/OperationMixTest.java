@@ -0,0 +1,57 @@
+package edu.univ.erp.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OperationMixTest {
+
+    @Test
+    void shouldParseSpecIgnoringCaseAndWhitespace() {
+        OperationMix mix = OperationMix.parse(" Catalog = 3, REGISTER=1 ");
+
+        assertEquals("catalog=3,register=1", mix.toString());
+    }
+
+    @Test
+    void shouldDropZeroWeightsAndNeverPickThem() {
+        OperationMix mix = OperationMix.parse("catalog=0,register=1,drop=0");
+        SplittableRandom random = new SplittableRandom(7);
+
+        assertEquals("register=1", mix.toString());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(Operation.REGISTER, mix.next(random));
+        }
+    }
+
+    @Test
+    void shouldRejectNegativeEmptyAndMalformedSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("catalog=5,drop=-1"));
+        assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("catalog=0,drop=0"));
+        assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("catalog"));
+        assertThrows(IllegalArgumentException.class, () -> OperationMix.parse("checkout=5"));
+    }
+
+    @Test
+    void shouldPickOperationsInProportionToTheirWeights() {
+        OperationMix mix = OperationMix.parse(OperationMix.REGISTRATION_WEEK);
+        SplittableRandom random = new SplittableRandom(42);
+        Map<Operation, Integer> picks = new EnumMap<>(Operation.class);
+        int draws = 100_000;
+        for (int i = 0; i < draws; i++) {
+            picks.merge(mix.next(random), 1, Integer::sum);
+        }
+
+        Map<Operation, Integer> weights = Map.of(Operation.CATALOG, 40, Operation.REGISTER, 25, Operation.DROP, 10,
+                Operation.GRADES, 15, Operation.TIMETABLE, 5, Operation.FINAL_GRADES, 5);
+        weights.forEach((operation, weight) -> {
+            double share = picks.getOrDefault(operation, 0) / (double) draws;
+            assertEquals(weight / 100.0, share, 0.01, operation.name());
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.access.AccessController;
+import edu.univ.erp.api.types.TranscriptExportFormat;
+import edu.univ.erp.data.memory.InMemoryAuthRepository;
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.student.Student;
+import edu.univ.erp.infra.InMemoryDatasetSink;
+import edu.univ.erp.infra.SyntheticDatasetGenerator;
+import edu.univ.erp.service.impl.DefaultAdminService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdminServiceTest {
+
+    private InMemoryDataStore store;
+    private DefaultAdminService service;
+
+    @BeforeEach
+    void setUp() {
+        store = InMemoryDataStore.empty();
+        SyntheticDatasetGenerator.generate(new SyntheticDatasetGenerator.Spec(300, 10, 20, 40, 2_000, 11L),
+                new InMemoryDatasetSink(store));
+        service = new DefaultAdminService(new InMemoryAuthRepository(store), new InMemoryErpRepository(store),
+                new AccessController());
+    }
+
+    @Test
+    void shouldExportOneZipEntryPerStudentWithProgress() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Integer> progress = new ArrayList<>();
+
+        var result = service.exportCohortTranscripts(null, null, TranscriptExportFormat.ZIP, out,
+                (completed, total) -> {
+                    assertEquals(300, total);
+                    progress.add(completed);
+                });
+
+        assertTrue(result.isSuccess());
+        assertEquals(300, (int) result.getPayload().orElseThrow());
+        assertEquals(300, (int) progress.get(progress.size() - 1));
+        Set<String> names = new HashSet<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                names.add(entry.getName());
+                String csv = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(csv.startsWith("\"Course\""));
+            }
+        }
+        assertEquals(300, names.size());
+    }
+
+    @Test
+    void shouldExportOnlyTheRequestedCohortAsOneCsv() {
+        Student sample = store.students().values().iterator().next();
+        Set<String> cohort = new HashSet<>();
+        store.students().values().stream()
+                .filter(student -> student.getProgram().equals(sample.getProgram()) && student.getYear() == sample.getYear())
+                .forEach(student -> cohort.add(student.getUserId()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        var result = service.exportCohortTranscripts(sample.getProgram(), sample.getYear(), TranscriptExportFormat.CSV,
+                out, (completed, total) -> {
+                });
+
+        assertTrue(result.isSuccess());
+        assertEquals(cohort.size(), (int) result.getPayload().orElseThrow());
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertTrue(lines.get(0).startsWith("\"Student\""));
+        for (String line : lines.subList(1, lines.size())) {
+            String studentId = line.substring(1, line.indexOf('"', 1));
+            assertTrue(cohort.contains(studentId), "Unexpected student " + studentId);
+        }
+    }
+}
@@ -64,6 +64,21 @@ class InstructorServiceTest {
         assertTrue(result.isSuccess());
     }
 
+    @Test
+    void shouldWriteOnlyChangedFinalGrades() {
+        service.recordScores(instructorId, "section-1", enrollmentId, Map.of("Quiz", 20.0, "EndSem", 50.0));
+        Map<String, Double> weights = Map.of("Quiz", 0.4, "EndSem", 0.6);
+
+        var first = service.computeFinalGrades(instructorId, "section-1", weights).getPayload().orElseThrow();
+        var second = service.computeFinalGrades(instructorId, "section-1", weights).getPayload().orElseThrow();
+
+        assertEquals(2, first.enrollments());
+        assertEquals(2, first.updated());
+        assertEquals(0, second.updated());
+        assertEquals(38.0, store.gradeBooks().get(enrollmentId).getFinalGrade().orElseThrow(), 1e-9);
+        assertEquals(2, store.gradeBooks().get(enrollmentId).getComponents().size());
+    }
+
     @Test
     void shouldRejectOtherInstructor() {
         var result = service.recordScores("other", "section-1", enrollmentId, Map.of("Quiz", 10.0));
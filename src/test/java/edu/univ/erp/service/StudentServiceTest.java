@@ -3,11 +3,21 @@ package edu.univ.erp.service;
 import edu.univ.erp.access.AccessController;
 import edu.univ.erp.data.memory.InMemoryDataStore;
 import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.student.Student;
 import edu.univ.erp.service.impl.DefaultStudentService;
 import edu.univ.erp.support.TestData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -28,6 +38,20 @@ class StudentServiceTest {
         studentId = TestData.userIdForUsername(store, "stu1");
     }
 
+    @Test
+    void shouldListCatalogWithSeatCounts() {
+        var result = service.viewCatalog();
+
+        assertTrue(result.isSuccess());
+        var rows = result.getPayload().orElseThrow();
+        assertEquals(2, rows.size());
+        var first = rows.get(0);
+        assertEquals("CS101", first.courseCode());
+        assertEquals(2, first.seatsTaken());
+        assertEquals("MONDAY 09:00-10:30", first.schedule());
+        assertEquals("Assistant Professor (Computer Science)", first.instructorName());
+    }
+
     @Test
     void shouldRegisterSectionWhenSeatAvailable() {
         var result = service.registerSection(studentId, "section-2");
@@ -46,6 +70,62 @@ class StudentServiceTest {
         assertEquals("Already registered in this section.", duplicate.getMessage().orElse(""));
     }
 
+    @Test
+    void shouldRejectRegistrationWhenSectionFull() {
+        Section section = store.sections().get("section-2");
+        store.putSection(new Section(
+                section.getSectionId(), section.getCourseId(), section.getInstructorId(), section.getDayOfWeek(),
+                section.getStartTime(), section.getEndTime(), section.getRoom(), 1, section.getSemester(),
+                section.getYear(), section.getRegistrationDeadline(), section.getWeightingRule(),
+                section.getComponentNames()));
+
+        assertTrue(service.registerSection(studentId, "section-2").isSuccess());
+
+        var full = service.registerSection(TestData.userIdForUsername(store, "stu2"), "section-2");
+        assertFalse(full.isSuccess());
+        assertEquals("Section full.", full.getMessage().orElse(""));
+    }
+
+    @Test
+    void shouldNotOversubscribeUnderConcurrentRegistrations() throws Exception {
+        int applicants = 200;
+        List<String> studentIds = new ArrayList<>();
+        for (int i = 0; i < applicants; i++) {
+            String id = "load-student-" + i;
+            store.putStudent(new Student(id, "LOAD" + i, "B.Tech CS", 1));
+            studentIds.add(id);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<Boolean>> outcomes = new ArrayList<>();
+        for (String id : studentIds) {
+            outcomes.add(pool.submit(() -> service.registerSection(id, "section-2").isSuccess()));
+        }
+        int admitted = 0;
+        for (Future<Boolean> outcome : outcomes) {
+            if (outcome.get()) {
+                admitted++;
+            }
+        }
+        pool.shutdown();
+
+        int capacity = store.sections().get("section-2").getCapacity();
+        assertEquals(capacity, admitted);
+        assertEquals(capacity, store.enrollmentsForSection("section-2").size());
+    }
+
+    @Test
+    void shouldFreeSeatWhenSectionDropped() {
+        assertTrue(service.registerSection(studentId, "section-2").isSuccess());
+        assertTrue(service.dropSection(studentId, "section-2").isSuccess());
+
+        var row = service.viewCatalog().getPayload().orElseThrow().stream()
+                .filter(catalogRow -> catalogRow.sectionId().equals("section-2"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, row.seatsTaken());
+    }
+
     @Test
     void shouldDropExistingSection() {
         var dropResult = service.dropSection(studentId, "section-1");
@@ -64,6 +144,22 @@ class StudentServiceTest {
         assertTrue(result.getMessage().orElse("").contains("Maintenance mode is ON"));
     }
 
+    @Test
+    void shouldViewTimetableAndGradesAcrossEnrollments() {
+        service.registerSection(studentId, "section-2");
+
+        var timetable = service.viewTimetable(studentId).getPayload().orElseThrow();
+        assertEquals(2, timetable.size());
+        assertEquals("CS101", timetable.get(0).courseCode());
+        assertEquals("CS201", timetable.get(1).courseCode());
+
+        var grades = service.viewGrades(studentId).getPayload().orElseThrow();
+        assertEquals(2, grades.size());
+        var graded = grades.stream().filter(view -> view.sectionId().equals("section-1")).findFirst().orElseThrow();
+        assertEquals(3, graded.components().size());
+        assertEquals(86.0, graded.finalGrade());
+    }
+
     @Test
     void shouldExportTranscriptCsv() {
         var result = service.downloadTranscriptCsv(studentId);
@@ -74,5 +170,19 @@ class StudentServiceTest {
         String csv = new String(bytes);
         assertTrue(csv.contains("Course"));
     }
+
+    @Test
+    void shouldStreamTranscriptCsvAsUtf8() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        var result = service.writeTranscriptCsv(studentId, out);
+
+        assertTrue(result.isSuccess());
+        String csv = out.toString(StandardCharsets.UTF_8);
+        // One row per grade component, after the header.
+        assertEquals(3, (int) result.getPayload().orElseThrow());
+        assertEquals(4, csv.lines().count());
+        assertEquals(csv, new String(service.downloadTranscriptCsv(studentId).getPayload().orElseThrow(), StandardCharsets.UTF_8));
+    }
 }
 
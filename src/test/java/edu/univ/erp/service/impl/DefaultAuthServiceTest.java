@@ -0,0 +1,61 @@
+package edu.univ.erp.service.impl;
+
+import edu.univ.erp.auth.PasswordHasher;
+import edu.univ.erp.auth.PasswordVerifier;
+import edu.univ.erp.auth.SessionContext;
+import edu.univ.erp.auth.VerifiedCredentialCache;
+import edu.univ.erp.data.auth.AuthRecord;
+import edu.univ.erp.data.memory.InMemoryAuthRepository;
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.domain.user.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultAuthServiceTest {
+
+    private InMemoryAuthRepository authRepository;
+    private PasswordVerifier passwordVerifier;
+    private DefaultAuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHasher.setCost(4);
+        authRepository = new InMemoryAuthRepository(InMemoryDataStore.empty());
+        authRepository.save(new AuthRecord("user-1", "alice", Role.STUDENT, PasswordHasher.hash("secret"), true, null, 0, null));
+        passwordVerifier = new PasswordVerifier(1, 4, VerifiedCredentialCache.disabled());
+        authService = new DefaultAuthService(authRepository, new SessionContext(), passwordVerifier);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordVerifier.close();
+        PasswordHasher.setCost(PasswordHasher.DEFAULT_COST);
+    }
+
+    @Test
+    void shouldRehashOnLoginAfterCostChange() {
+        PasswordHasher.setCost(5);
+
+        assertTrue(authService.login("alice", "secret").isSuccess());
+
+        String stored = authRepository.findByUserId("user-1").orElseThrow().passwordHash();
+        assertFalse(PasswordHasher.needsRehash(stored));
+        assertTrue(PasswordHasher.verify("secret", stored));
+        assertEquals(2, passwordVerifier.stats().completed());
+    }
+
+    @Test
+    void shouldKeepHashOnLoginAtCurrentCost() {
+        String before = authRepository.findByUserId("user-1").orElseThrow().passwordHash();
+
+        assertTrue(authService.login("alice", "secret").isSuccess());
+
+        assertEquals(before, authRepository.findByUserId("user-1").orElseThrow().passwordHash());
+        assertEquals(1, passwordVerifier.stats().completed());
+    }
+}
@@ -0,0 +1,93 @@
+package edu.univ.erp.service.impl;
+
+import edu.univ.erp.access.AccessController;
+import edu.univ.erp.api.types.GradeView;
+import edu.univ.erp.data.erp.ErpRepository;
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.domain.course.Section;
+import edu.univ.erp.domain.enrollment.Enrollment;
+import edu.univ.erp.domain.enrollment.EnrollmentStatus;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultStudentServiceTest {
+
+    private InMemoryDataStore store;
+    private List<String> writes;
+    private DefaultStudentService studentService;
+
+    @BeforeEach
+    void setUp() {
+        store = InMemoryDataStore.empty();
+        writes = new ArrayList<>();
+        ErpRepository erpRepository = recordingWrites(new InMemoryErpRepository(store), writes);
+        erpRepository.saveCourse(new Course("course-1", "CS101", "Intro", 4));
+        erpRepository.saveCourse(new Course("course-2", "CS102", "Data Structures", 4));
+        erpRepository.saveSection(section("section-1", "course-1"));
+        erpRepository.saveSection(section("section-2", "course-2"));
+        erpRepository.saveEnrollment(new Enrollment("enr-1", "stu-1", "section-1", EnrollmentStatus.ACTIVE));
+        erpRepository.saveEnrollment(new Enrollment("enr-2", "stu-1", "section-2", EnrollmentStatus.ACTIVE));
+        // Older data: components recorded but no final grade stored.
+        erpRepository.saveGradeBook(new GradeBook("enr-1", List.of(new GradeComponent("Final", 80, 1.0)), null));
+        erpRepository.saveGradeBook(new GradeBook("enr-2", List.of(new GradeComponent("Final", 60, 1.0)), null));
+        writes.clear();
+        studentService = new DefaultStudentService(erpRepository, new AccessController());
+    }
+
+    @Test
+    void shouldBackfillMissingFinalGradesInOneBatch() {
+        List<GradeView> grades = studentService.viewGrades("stu-1").getPayload().orElseThrow();
+
+        assertEquals(2, grades.size());
+        assertEquals(List.of("saveGradeBooks"), writes);
+        assertEquals(80.0, store.gradeBooks().get("enr-1").getFinalGrade().orElseThrow());
+        assertEquals(60.0, store.gradeBooks().get("enr-2").getFinalGrade().orElseThrow());
+    }
+
+    @Test
+    void shouldWriteNothingWhenFinalGradesAreStored() {
+        studentService.viewGrades("stu-1");
+        writes.clear();
+
+        studentService.viewGrades("stu-1");
+
+        assertTrue(writes.isEmpty());
+    }
+
+    /** Passes every call through to {@code delegate}, noting the name of each save. */
+    private static ErpRepository recordingWrites(ErpRepository delegate, List<String> writes) {
+        return (ErpRepository) Proxy.newProxyInstance(ErpRepository.class.getClassLoader(),
+                new Class<?>[] {ErpRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("save")) {
+                        writes.add(method.getName());
+                    }
+                    try {
+                        return method.invoke(delegate, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Section section(String sectionId, String courseId) {
+        return new Section(sectionId, courseId, "inst-1", DayOfWeek.MONDAY,
+                LocalTime.of(9, 0), LocalTime.of(10, 0), "R1", 30, 1, 2025,
+                LocalDate.of(2030, 1, 1), null, null);
+    }
+}
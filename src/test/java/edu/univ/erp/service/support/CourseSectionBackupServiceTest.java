@@ -0,0 +1,92 @@
+package edu.univ.erp.service.support;
+
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.course.Course;
+import edu.univ.erp.infra.InMemoryDatasetSink;
+import edu.univ.erp.infra.SyntheticDatasetGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseSectionBackupServiceTest {
+
+    private InMemoryDataStore store;
+    private CourseSectionBackupService service;
+
+    @BeforeEach
+    void setUp() {
+        store = InMemoryDataStore.empty();
+        // More sections than fit in one page, so export has to follow the keyset.
+        SyntheticDatasetGenerator.generate(new SyntheticDatasetGenerator.Spec(20, 5, 300, 700, 0, 3L),
+                new InMemoryDatasetSink(store));
+        service = new CourseSectionBackupService(new InMemoryErpRepository(store));
+    }
+
+    @Test
+    void shouldRoundTripCompressedBackupIntoEmptyStore() {
+        byte[] plain = export(service, false);
+        byte[] compressed = export(service, true);
+        assertTrue(compressed.length < plain.length);
+
+        InMemoryDataStore target = InMemoryDataStore.empty();
+        CourseSectionBackupService restore = new CourseSectionBackupService(new InMemoryErpRepository(target));
+        var result = restore.importSnapshot(new ByteArrayInputStream(compressed));
+
+        assertTrue(result.isSuccess());
+        assertEquals(1_000, (int) result.getPayload().orElseThrow());
+        assertEquals(300, target.courses().size());
+        assertEquals(700, target.sections().size());
+        assertArrayEquals(plain, export(restore, false));
+    }
+
+    @Test
+    void shouldReplaceExistingCatalogOnRestore() {
+        byte[] plain = export(service, false);
+        store.putCourse(new Course("extra-course", "EXTRA101", "Extra", 3));
+
+        var result = service.importSnapshot(new ByteArrayInputStream(plain));
+
+        assertTrue(result.isSuccess());
+        assertFalse(store.courses().containsKey("extra-course"));
+        assertArrayEquals(plain, export(service, false));
+    }
+
+    @Test
+    void shouldKeepExistingCatalogWhenRestoreFailsPartWay() {
+        byte[] before = export(service, false);
+        String backup = new String(before, StandardCharsets.UTF_8).replaceFirst("\\|(MONDAY|TUESDAY|WEDNESDAY|THURSDAY|FRIDAY)\\|", "|FUNDAY|");
+
+        var result = service.importSnapshot(new StringReader(backup));
+
+        assertFalse(result.isSuccess());
+        assertArrayEquals(before, export(service, false));
+    }
+
+    @Test
+    void shouldRejectEmptyBackupWithoutClearingData() {
+        var result = service.importSnapshot(new StringReader("# University ERP backup\n\n"));
+
+        assertFalse(result.isSuccess());
+        assertEquals(300, store.courses().size());
+    }
+
+    private static byte[] export(CourseSectionBackupService backupService, boolean gzip) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        var result = backupService.exportSnapshot(out, gzip);
+        assertTrue(result.isSuccess());
+        if (!gzip) {
+            assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8).startsWith("# University ERP backup\n"));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,116 @@
+package edu.univ.erp.service.support;
+
+import edu.univ.erp.data.memory.InMemoryDataStore;
+import edu.univ.erp.data.memory.InMemoryErpRepository;
+import edu.univ.erp.domain.grade.GradeBook;
+import edu.univ.erp.domain.grade.GradeComponent;
+import edu.univ.erp.infra.InMemoryDatasetSink;
+import edu.univ.erp.infra.SyntheticDatasetGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ErpSnapshotServiceTest {
+
+    private InMemoryDataStore store;
+    private ErpSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        store = InMemoryDataStore.empty();
+        SyntheticDatasetGenerator.generate(new SyntheticDatasetGenerator.Spec(2_000, 20, 100, 300, 5_000, 5L),
+                new InMemoryDatasetSink(store));
+        store.putGradeBook(new GradeBook(store.enrollments().keySet().iterator().next(),
+                List.of(new GradeComponent("Quiz", 80, 0.25), new GradeComponent("Final", 91.5, 0.75)), null));
+        store.setMaintenanceSetting(true);
+        service = new ErpSnapshotService(new InMemoryErpRepository(store));
+    }
+
+    @Test
+    void shouldRestoreEveryTableIntoEmptyStore() throws IOException {
+        byte[] snapshot = export(service);
+        assertTrue(ErpSnapshotService.isSnapshot(new BufferedInputStream(new ByteArrayInputStream(snapshot))));
+
+        InMemoryDataStore target = InMemoryDataStore.empty();
+        ErpSnapshotService restore = new ErpSnapshotService(new InMemoryErpRepository(target));
+        var result = restore.importSnapshot(new ByteArrayInputStream(snapshot));
+
+        assertTrue(result.isSuccess());
+        assertEquals(store.students(), target.students());
+        assertEquals(store.instructors(), target.instructors());
+        assertEquals(store.courses(), target.courses());
+        assertEquals(store.sections(), target.sections());
+        assertEquals(store.enrollments(), target.enrollments());
+        assertEquals(store.gradeBooks().keySet(), target.gradeBooks().keySet());
+        assertTrue(target.maintenanceSetting().isMaintenanceOn());
+        assertArrayEquals(snapshot, export(restore));
+    }
+
+    @Test
+    void shouldRejectCorruptSnapshotAndKeepExistingData() {
+        byte[] snapshot = export(service);
+        byte[] corrupt = Arrays.copyOf(snapshot, snapshot.length);
+        corrupt[snapshot.length / 2] ^= 0x40;
+
+        assertFalse(service.verifySnapshot(new ByteArrayInputStream(corrupt)).isSuccess());
+        var result = service.importSnapshot(new ByteArrayInputStream(corrupt));
+
+        assertFalse(result.isSuccess());
+        assertEquals(2_000, store.students().size());
+        assertArrayEquals(snapshot, export(service));
+    }
+
+    @Test
+    void shouldRejectTruncatedSnapshot() {
+        byte[] snapshot = export(service);
+
+        var verified = service.verifySnapshot(new ByteArrayInputStream(snapshot));
+        var truncated = service.verifySnapshot(new ByteArrayInputStream(Arrays.copyOf(snapshot, snapshot.length - 3)));
+
+        assertTrue(verified.isSuccess());
+        assertFalse(truncated.isSuccess());
+    }
+
+    @Test
+    void shouldCoverBlockHeaderWithChecksum() {
+        byte[] snapshot = export(service);
+        byte[] corrupt = Arrays.copyOf(snapshot, snapshot.length);
+        // The first block's record count: 1024 students, varint 0x80 0x08. Still in range.
+        corrupt[ErpSnapshotFormat.MAGIC.length + 3] = 0x07;
+
+        var result = service.verifySnapshot(new ByteArrayInputStream(corrupt));
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getMessage().orElseThrow().contains("Checksum mismatch"));
+    }
+
+    @Test
+    void shouldRejectBlockWithMoreRecordsThanAllowed() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ErpSnapshotFormat.writeHeader(out);
+        ErpSnapshotFormat.writeBlock(out, 1, ErpSnapshotFormat.RECORDS_PER_BLOCK + 1, new byte[] {0});
+
+        var result = service.verifySnapshot(new ByteArrayInputStream(out.toByteArray()));
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getMessage().orElseThrow().contains("Malformed block header"));
+    }
+
+    private static byte[] export(ErpSnapshotService snapshotService) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        var result = snapshotService.exportSnapshot(out);
+        assertTrue(result.isSuccess());
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,139 @@
+package edu.univ.erp.ui.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackgroundLoaderTest {
+
+    private JProgressBar progressBar;
+    private BackgroundLoader loader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            progressBar = new JProgressBar();
+            loader = new BackgroundLoader(null, progressBar);
+        });
+    }
+
+    @Test
+    void shouldLoadOffTheEdtAndDeliverOnIt() throws Exception {
+        AtomicBoolean ranOnEdt = new AtomicBoolean(true);
+        AtomicBoolean deliveredOnEdt = new AtomicBoolean();
+        CountDownLatch loaded = new CountDownLatch(1);
+
+        SwingUtilities.invokeAndWait(() -> loader.load("users", () -> {
+            ranOnEdt.set(SwingUtilities.isEventDispatchThread());
+            return 42;
+        }, value -> {
+            deliveredOnEdt.set(SwingUtilities.isEventDispatchThread() && value == 42);
+            loaded.countDown();
+        }));
+
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        assertFalse(ranOnEdt.get());
+        assertTrue(deliveredOnEdt.get());
+        assertFalse(onEdt(() -> loader.isLoading("users") || progressBar.isVisible()));
+    }
+
+    @Test
+    void shouldKeepOnlyTheLatestRequestWhileALoadIsRunning() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        List<String> delivered = new ArrayList<>();
+
+        SwingUtilities.invokeAndWait(() -> {
+            loader.load("users", () -> {
+                release.await(5, TimeUnit.SECONDS);
+                return "first";
+            }, delivered::add);
+            loader.load("users", () -> "second", delivered::add);
+            loader.load("users", () -> "third", value -> {
+                delivered.add(value);
+                finished.countDown();
+            });
+        });
+        assertTrue(onEdt(() -> loader.isLoading("users") && progressBar.isVisible()));
+        release.countDown();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("third"), onEdt(() -> List.copyOf(delivered)));
+    }
+
+    @Test
+    void shouldResetBeforeFirstBatchOfRows() throws Exception {
+        List<String> events = new ArrayList<>();
+        // Batches may still arrive after the result, so wait for both.
+        CountDownLatch delivered = new CountDownLatch(4);
+
+        SwingUtilities.invokeAndWait(() -> loader.<Integer, String>loadRows("sections", rows -> {
+            rows.add("a");
+            rows.add("b");
+            rows.add("c");
+            return 3;
+        }, () -> events.add("reset"), batch -> {
+            events.addAll(batch);
+            batch.forEach(row -> delivered.countDown());
+        }, count -> {
+            events.add("loaded " + count);
+            delivered.countDown();
+        }));
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        List<String> seen = onEdt(() -> List.copyOf(events));
+        assertEquals("reset", seen.get(0));
+        assertEquals(List.of("a", "b", "c"), seen.stream().filter(event -> event.length() == 1).toList());
+        assertTrue(seen.contains("loaded 3"));
+        assertEquals(5, seen.size());
+    }
+
+    @Test
+    void shouldDropResultsOfCancelledLoads() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        List<String> delivered = new ArrayList<>();
+
+        SwingUtilities.invokeAndWait(() -> loader.load("grades/1", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(5_000);
+            } finally {
+                stopped.countDown();
+            }
+            return "stale";
+        }, delivered::add));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Keeping "users" keeps nothing under "grades", so the running load is cancelled.
+        SwingUtilities.invokeAndWait(() -> loader.cancelAllExcept("users"));
+
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        assertTrue(onEdt(() -> delivered.isEmpty() && !loader.isLoading("grades/1") && !progressBar.isVisible()));
+    }
+
+    @Test
+    void shouldRefuseCallsOffTheEdt() {
+        assertThrows(IllegalStateException.class, () -> loader.load("users", () -> 1, value -> { }));
+    }
+
+    /** Reads state on the EDT after every event queued so far has run. */
+    private static <T> T onEdt(Supplier<T> read) throws Exception {
+        List<T> result = new ArrayList<>(1);
+        SwingUtilities.invokeAndWait(() -> result.add(read.get()));
+        return result.get(0);
+    }
+}